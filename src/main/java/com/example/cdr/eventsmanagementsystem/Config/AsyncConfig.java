@@ -0,0 +1,19 @@
+package com.example.cdr.eventsmanagementsystem.Config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AsyncConfig {
+    /**
+     * Virtual-thread executor for fanning out blocking I/O (DB counts, Keycloak calls)
+     * where the work is independent and latency should track the slowest call.
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService virtualThreadExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
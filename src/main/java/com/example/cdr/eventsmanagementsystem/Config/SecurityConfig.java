@@ -42,6 +42,7 @@ public class SecurityConfig {
                 .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                 .requestMatchers("/stripe/webhook").permitAll() // allow Stripe webhooks without authentication
                 .requestMatchers("/v1/payments/confirm").permitAll() // allow payment confirmation without authentication
+                .requestMatchers(HttpMethod.GET, "/images/**").permitAll() // content-addressed, loaded by <img> tags without a token
                 .anyRequest().authenticated()
             )
             .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> 
@@ -0,0 +1,34 @@
+package com.example.cdr.eventsmanagementsystem.Config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.stripe.StripeClient;
+
+@Configuration
+public class StripeConfig {
+    /**
+     * Instance-scoped Stripe client with explicit timeouts. Network retries use Stripe's own
+     * jittered backoff and send an idempotency key, so retried POSTs are never applied twice.
+     * {@code api-base} redirects the client to a Stripe stand-in such as stripe-mock.
+     */
+    @Bean
+    public StripeClient stripeClient(@Value("${spring.stripe.api-key}") String apiKey,
+                                     @Value("${app.payment.stripe.connect-timeout:PT2S}") Duration connectTimeout,
+                                     @Value("${app.payment.stripe.read-timeout:PT10S}") Duration readTimeout,
+                                     @Value("${app.payment.stripe.max-network-retries:2}") int maxNetworkRetries,
+                                     @Value("${app.payment.stripe.api-base:}") String apiBase) {
+        StripeClient.StripeClientBuilder builder = StripeClient.builder()
+                .setApiKey(apiKey)
+                .setConnectTimeout((int) connectTimeout.toMillis())
+                .setReadTimeout((int) readTimeout.toMillis())
+                .setMaxNetworkRetries(maxNetworkRetries);
+        if (!apiBase.isBlank()) {
+            builder.setApiBase(apiBase);
+        }
+        return builder.build();
+    }
+}
@@ -14,6 +14,9 @@ public final class BookingControllerConstants {
     // Event Booking
     public static final String GET_BOOKING_BY_EVENT_ID = "/event/{eventId}";
     public static final String GET_BOOKING_BY_ATTENDEE_ID = "/attendee/{attendeeId}";
+    public static final String JOIN_WAITING_ROOM = "/waiting-room/{eventId}";
+    public static final String GET_WAITING_ROOM_STATUS = "/waiting-room/status/{token}";
+    public static final String WAITLIST = "/waitlist/{eventId}";
 
     // Service Booking
     public static final String GET_ALL_SERVICE_BOOKINGS_BY_ORGANIZER_ID = "/organizer/{organizerId}";
@@ -0,0 +1,10 @@
+package com.example.cdr.eventsmanagementsystem.Constants.ControllerConstants;
+
+public final class ImageControllerConstants {
+
+    public static final String IMAGE_BASE_URL = "/images";
+    public static final String GET_IMAGE_URL = "/{hash}";
+    public static final String GET_THUMBNAIL_URL = "/{hash}/thumbnail";
+
+    private ImageControllerConstants() {}
+}
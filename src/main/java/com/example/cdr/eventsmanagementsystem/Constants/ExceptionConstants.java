@@ -20,4 +20,19 @@ public final class ExceptionConstants {
 
     public static final String START_DATE_MUST_BE_BEFORE_END_DATE = "Start date must be before end date";
     public static final String START_DATE_CANNOT_BE_IN_THE_PAST = "Start date cannot be in the past";
+
+    public static final String VENUE_ALREADY_BOOKED = "Venue is already booked for the requested period";
+    public static final String SERVICE_ALREADY_BOOKED = "Service is already booked for the requested period";
+    public static final String EVENT_SOLD_OUT = "Event is sold out";
+    public static final String ADMISSION_REQUIRED = "This event admits buyers through its waiting room; join the queue and book once admitted";
+    public static final String WAITING_ROOM_NOT_ENABLED = "Event does not use a waiting room";
+    public static final String WAITING_ROOM_TICKET_NOT_FOUND = "Waiting room ticket not found";
+    public static final String EVENT_NOT_SOLD_OUT = "Event still has tickets available; book directly";
+    public static final String INVALID_CURRENCY = "Currency must be an ISO 4217 code, e.g. usd";
+    public static final String UNSUPPORTED_IMAGE_FORMAT = "Unsupported or corrupt image file";
+    public static final String WAITLIST_ENTRY_NOT_FOUND = "You are not on the waitlist for this event";
+    public static final String IDEMPOTENCY_KEY_REUSED = "Idempotency-Key was already used for a different request";
+    public static final String IDEMPOTENCY_KEY_IN_PROGRESS = "A request with this Idempotency-Key is still being processed";
+    public static final String AUTOPAY_OUTCOME_UNKNOWN = "Could not confirm whether your saved card was charged; please check your bookings before trying again";
+    public static final String IDEMPOTENCY_KEY_TOO_LONG = "Idempotency-Key must be at most 255 characters";
 }
@@ -74,6 +74,17 @@ public final class EmailConstants {
         
         Your Service Booking #%d has been %s by %s.
         
+        Best regards,
+        Events Team""";
+    public static final String WAITLIST_OFFER = """
+        Hello %s,
+        
+        A ticket for %s has opened up and is being held for you (booking #%d).
+        Complete your purchase before %s:
+        %s
+        
+        After that the ticket is offered to the next person on the waitlist.
+        
         Best regards,
         Events Team""";
     public static final String EVENT_REMINDER = """
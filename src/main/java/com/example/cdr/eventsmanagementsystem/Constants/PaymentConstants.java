@@ -8,6 +8,8 @@ public final class PaymentConstants {
 
     public static final String REQUESTED_BY_CUSTOMER = "requested_by_customer";
 
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     public static final String AUTHORIZE_PAYMENT = "/{type}/{bookingId}/authorize";
     public static final String CAPTURE_PAYMENT = "/{type}/{bookingId}/capture";
     public static final String VOID_PAYMENT = "/{type}/{bookingId}/void";
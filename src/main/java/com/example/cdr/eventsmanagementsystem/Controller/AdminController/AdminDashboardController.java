@@ -3,10 +3,9 @@ package com.example.cdr.eventsmanagementsystem.Controller.AdminController;
 import com.example.cdr.eventsmanagementsystem.Constants.ControllerConstants.AdminControllerConstants;
 import com.example.cdr.eventsmanagementsystem.Constants.ControllerConstants.RoleConstants;
 import com.example.cdr.eventsmanagementsystem.DTO.Admin.DashboardStatisticsDto;
-import com.example.cdr.eventsmanagementsystem.Keycloak.KeycloakAdminService;
 import com.example.cdr.eventsmanagementsystem.Service.User.AdminService;
+import com.example.cdr.eventsmanagementsystem.Service.User.DashboardStatisticsCache;
 import com.example.cdr.eventsmanagementsystem.Service.User.StatisticsManagement;
-import com.example.cdr.eventsmanagementsystem.Mapper.AdminDashboardMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -33,20 +32,13 @@ import java.util.Map;
 public class AdminDashboardController {
 
     private final AdminService adminService;
-    private final KeycloakAdminService keycloakAdminService;
     private final StatisticsManagement statistics;
-    private final AdminDashboardMapper adminDashboardMapper;
+    private final DashboardStatisticsCache dashboardStatisticsCache;
 
     @Operation(summary = "Get dashboard statistics", description = "Retrieves statistics for the dashboard")
     @GetMapping(AdminControllerConstants.ADMIN_DASHBOARD_URL)
     public ResponseEntity<DashboardStatisticsDto> dashboard() {
-        // Start with DB-derived stats (totals, utilization, revenue)
-        DashboardStatisticsDto dto = statistics.getDashboardStatistics();
-        // Overwrite the user counts with Keycloak (if you prefer KC as source of truth)
-        Map<String, Long> roleCounts = keycloakAdminService.countUsersByRole();
-        adminDashboardMapper.applyUserRoleCounts(dto, roleCounts);
-
-        return ResponseEntity.ok(dto);
+        return ResponseEntity.ok(dashboardStatisticsCache.getDashboard());
     }
 
     @Operation(summary = "Get event type distribution", description = "Retrieves the distribution of events by type")
@@ -3,8 +3,13 @@ package com.example.cdr.eventsmanagementsystem.Controller.BookingController;
 import com.example.cdr.eventsmanagementsystem.DTO.Booking.Request.BookingCancelRequest;
 import com.example.cdr.eventsmanagementsystem.DTO.Booking.Request.EventBookingRequest;
 import com.example.cdr.eventsmanagementsystem.DTO.Booking.Response.EventBookingResponse;
+import com.example.cdr.eventsmanagementsystem.DTO.Booking.Response.WaitingRoomResponse;
+import com.example.cdr.eventsmanagementsystem.DTO.Booking.Response.WaitlistResponse;
 import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
 import com.example.cdr.eventsmanagementsystem.Service.Booking.EventBookingService;
+import com.example.cdr.eventsmanagementsystem.Service.Booking.WaitingRoomService;
+import com.example.cdr.eventsmanagementsystem.Service.Booking.WaitlistService;
+import com.example.cdr.eventsmanagementsystem.Service.Payment.IdempotencyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -18,6 +23,7 @@ import org.springframework.web.bind.annotation.*;
 
 import static com.example.cdr.eventsmanagementsystem.Constants.ControllerConstants.BookingControllerConstants.*;
 import static com.example.cdr.eventsmanagementsystem.Constants.ControllerConstants.RoleConstants.*;
+import static com.example.cdr.eventsmanagementsystem.Constants.PaymentConstants.IDEMPOTENCY_KEY_HEADER;
 
 /**
  * REST controller for booking.
@@ -30,6 +36,9 @@ import static com.example.cdr.eventsmanagementsystem.Constants.ControllerConstan
 @Tag(name = "Event Booking", description = "Event booking APIs")
 public class EventBookingController {
     private final EventBookingService bookingService;
+    private final IdempotencyService idempotencyService;
+    private final WaitingRoomService waitingRoomService;
+    private final WaitlistService waitlistService;
 
     @Operation(summary = "Get all bookings", description = "Retrieves all bookings")
     @GetMapping(GET_ALL)
@@ -66,11 +75,55 @@ public class EventBookingController {
     @Operation(summary = "Create an event booking", description = "Creates a new event booking for an attendee. Creates a new event booking for an attendee. Use 'authorizeOnly=true' for 'Reserve Now, Pay Later' or 'authorizeOnly=false' for immediate payment.")
     @PostMapping(CREATE_BOOKING)
     @PreAuthorize("hasAnyRole('" + ATTENDEE_ROLE + "', '" + ADMIN_ROLE + "')")
-    public ResponseEntity<EventBookingResponse> createBooking(@RequestBody EventBookingRequest request) {
-        EventBookingResponse response = bookingService.createBooking(request);
+    public ResponseEntity<EventBookingResponse> createBooking(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody EventBookingRequest request
+    ) {
+        EventBookingResponse response = idempotencyService.execute(idempotencyKey, "event-booking", request,
+                EventBookingResponse.class, () -> bookingService.createBooking(request));
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "Join an event's waiting room", description = "Queues the attendee for a high-demand event. Poll the returned token until it is ADMITTED, then pass it as 'admissionToken' when creating the booking.")
+    @PostMapping(JOIN_WAITING_ROOM)
+    @PreAuthorize("hasAnyRole('" + ATTENDEE_ROLE + "', '" + ADMIN_ROLE + "')")
+    public ResponseEntity<WaitingRoomResponse> joinWaitingRoom(@PathVariable Long eventId) {
+        WaitingRoomResponse response = waitingRoomService.join(eventId);
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Get waiting room status", description = "Returns the queue position or admission window for a waiting room token")
+    @GetMapping(GET_WAITING_ROOM_STATUS)
+    @PreAuthorize("hasAnyRole('" + ATTENDEE_ROLE + "', '" + ADMIN_ROLE + "')")
+    public ResponseEntity<WaitingRoomResponse> getWaitingRoomStatus(@PathVariable String token) {
+        WaitingRoomResponse response = waitingRoomService.getStatus(token);
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Join an event's waitlist", description = "Queues the attendee for a sold-out event. When a ticket frees up it is held for the head of the queue and a checkout link is emailed.")
+    @PostMapping(WAITLIST)
+    @PreAuthorize("hasAnyRole('" + ATTENDEE_ROLE + "', '" + ADMIN_ROLE + "')")
+    public ResponseEntity<WaitlistResponse> joinWaitlist(@PathVariable Long eventId, @RequestParam(defaultValue = "usd") String currency) {
+        WaitlistResponse response = waitlistService.join(eventId, currency);
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Get waitlist status", description = "Returns the attendee's position on an event's waitlist or the booking they were offered")
+    @GetMapping(WAITLIST)
+    @PreAuthorize("hasAnyRole('" + ATTENDEE_ROLE + "', '" + ADMIN_ROLE + "')")
+    public ResponseEntity<WaitlistResponse> getWaitlistStatus(@PathVariable Long eventId) {
+        WaitlistResponse response = waitlistService.getStatus(eventId);
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Leave an event's waitlist", description = "Removes the attendee from an event's waitlist")
+    @DeleteMapping(WAITLIST)
+    @PreAuthorize("hasAnyRole('" + ATTENDEE_ROLE + "', '" + ADMIN_ROLE + "')")
+    public ResponseEntity<Void> leaveWaitlist(@PathVariable Long eventId) {
+        waitlistService.leave(eventId);
+        return ResponseEntity.ok().build();
+    }
+
     @Operation(summary = "Update booking status", description = "Updates the status of a booking")
     @PutMapping(UPDATE_BOOKING_STATUS)
     @PreAuthorize("hasAnyRole('" + ORGANIZER_ROLE + "','" + ADMIN_ROLE + "')")
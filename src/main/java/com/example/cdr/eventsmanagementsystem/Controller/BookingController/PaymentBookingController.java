@@ -6,10 +6,14 @@ import com.example.cdr.eventsmanagementsystem.DTO.Payment.AuthorizePaymentReques
 import com.example.cdr.eventsmanagementsystem.DTO.Payment.CapturePaymentRequest;
 import com.example.cdr.eventsmanagementsystem.DTO.Payment.RefundRequest;
 import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingType;
+import com.example.cdr.eventsmanagementsystem.Service.Payment.IdempotencyService;
 import com.example.cdr.eventsmanagementsystem.Service.Payment.PaymentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -26,15 +30,18 @@ import static com.example.cdr.eventsmanagementsystem.Constants.PaymentConstants.
 @Tag(name = "Payments", description = "Payment management for bookings")
 public class PaymentBookingController {
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
 
     @Operation(summary = "Authorize payment", description = "Create a new authorization (hold funds) for a PENDING booking. Only works on unpaid bookings.")
     @PostMapping(PaymentConstants.AUTHORIZE_PAYMENT)
     public ResponseEntity<BookingResponse> authorize(
             @PathVariable Long bookingId,
             @PathVariable BookingType type,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @RequestBody AuthorizePaymentRequest request
     ) {
-        BookingResponse response = paymentService.authorizePayment(bookingId, type, request);
+        BookingResponse response = idempotencyService.execute(idempotencyKey, "authorize", List.of(type, bookingId, request),
+                BookingResponse.class, () -> paymentService.authorizePayment(bookingId, type, request));
         return ResponseEntity.ok(response);
     }
 
@@ -43,9 +50,11 @@ public class PaymentBookingController {
     public ResponseEntity<BookingResponse> capture(
             @PathVariable Long bookingId,
             @PathVariable BookingType type,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @RequestBody CapturePaymentRequest request
     ) {
-        BookingResponse response = paymentService.capturePayment(bookingId, type, request);
+        BookingResponse response = idempotencyService.execute(idempotencyKey, "capture", List.of(type, bookingId, request),
+                BookingResponse.class, () -> paymentService.capturePayment(bookingId, type, request));
         return ResponseEntity.ok(response);
     }
 
@@ -64,9 +73,11 @@ public class PaymentBookingController {
     public ResponseEntity<BookingResponse> refund(
             @PathVariable Long bookingId,
             @PathVariable BookingType type,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @RequestBody RefundRequest request
     ) {
-        BookingResponse response = paymentService.refundPayment(bookingId, type, request);
+        BookingResponse response = idempotencyService.execute(idempotencyKey, "refund", List.of(type, bookingId, request),
+                BookingResponse.class, () -> paymentService.refundPayment(bookingId, type, request));
         return ResponseEntity.ok(response);
     }
 }
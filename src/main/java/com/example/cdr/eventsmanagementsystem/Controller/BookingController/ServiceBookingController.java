@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -18,11 +19,13 @@ import static com.example.cdr.eventsmanagementsystem.Constants.ControllerConstan
 import static com.example.cdr.eventsmanagementsystem.Constants.ControllerConstants.RoleConstants.ADMIN_ROLE;
 import static com.example.cdr.eventsmanagementsystem.Constants.ControllerConstants.RoleConstants.ORGANIZER_ROLE;
 import static com.example.cdr.eventsmanagementsystem.Constants.ControllerConstants.RoleConstants.SERVICE_PROVIDER_ROLE;
+import static com.example.cdr.eventsmanagementsystem.Constants.PaymentConstants.IDEMPOTENCY_KEY_HEADER;
 import com.example.cdr.eventsmanagementsystem.DTO.Booking.Request.BookingCancelRequest;
 import com.example.cdr.eventsmanagementsystem.DTO.Booking.Request.ServiceBookingRequest;
 import com.example.cdr.eventsmanagementsystem.DTO.Booking.Response.ServiceBookingResponse;
 import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
 import com.example.cdr.eventsmanagementsystem.Service.Booking.ServiceBookingService;
+import com.example.cdr.eventsmanagementsystem.Service.Payment.IdempotencyService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -38,6 +41,7 @@ import lombok.RequiredArgsConstructor;
 @Tag(name = "Service Booking", description = "Service booking APIs")
 public class ServiceBookingController {
     private final ServiceBookingService bookingService;
+    private final IdempotencyService idempotencyService;
 
     @Operation(summary = "Get all bookings", description = "Retrieves all bookings")
     @GetMapping(GET_ALL)
@@ -82,8 +86,12 @@ public class ServiceBookingController {
     @Operation(summary = "Create a service booking", description = "Creates a new service booking for an organizer. Use 'authorizeOnly=true' for 'Reserve Now, Pay Later' or 'authorizeOnly=false' for immediate payment.")
     @PostMapping(CREATE_BOOKING)
     @PreAuthorize("hasAnyRole('" + ORGANIZER_ROLE + "', '" + ADMIN_ROLE + "')")
-    public ResponseEntity<ServiceBookingResponse> createBooking(@RequestBody ServiceBookingRequest request) {
-        ServiceBookingResponse response = bookingService.createBooking(request);
+    public ResponseEntity<ServiceBookingResponse> createBooking(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody ServiceBookingRequest request
+    ) {
+        ServiceBookingResponse response = idempotencyService.execute(idempotencyKey, "service-booking", request,
+                ServiceBookingResponse.class, () -> bookingService.createBooking(request));
         return ResponseEntity.ok(response);
     }
 
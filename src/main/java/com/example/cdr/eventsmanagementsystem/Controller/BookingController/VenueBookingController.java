@@ -5,6 +5,7 @@ import com.example.cdr.eventsmanagementsystem.DTO.Booking.Request.VenueBookingRe
 import com.example.cdr.eventsmanagementsystem.DTO.Booking.Response.VenueBookingResponse;
 import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
 import com.example.cdr.eventsmanagementsystem.Service.Booking.VenueBookingService;
+import com.example.cdr.eventsmanagementsystem.Service.Payment.IdempotencyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -18,6 +19,7 @@ import org.springframework.web.bind.annotation.*;
 
 import static com.example.cdr.eventsmanagementsystem.Constants.ControllerConstants.BookingControllerConstants.*;
 import static com.example.cdr.eventsmanagementsystem.Constants.ControllerConstants.RoleConstants.*;
+import static com.example.cdr.eventsmanagementsystem.Constants.PaymentConstants.IDEMPOTENCY_KEY_HEADER;
 
 /**
  * REST controller for booking.
@@ -29,6 +31,7 @@ import static com.example.cdr.eventsmanagementsystem.Constants.ControllerConstan
 @Tag(name = "Venue Booking", description = "Venue booking APIs")
 public class VenueBookingController {
     private final VenueBookingService bookingService;
+    private final IdempotencyService idempotencyService;
 
     @Operation(summary = "Get all bookings", description = "Retrieves all bookings")
     @GetMapping(GET_ALL)
@@ -73,8 +76,12 @@ public class VenueBookingController {
     @Operation(summary = "Create a venue booking", description = "Creates a new venue booking for an organizer. Use 'authorizeOnly=true' for 'Reserve Now, Pay Later' or 'authorizeOnly=false' for immediate payment.")
     @PostMapping(CREATE_BOOKING)
     @PreAuthorize("hasAnyRole('" + ORGANIZER_ROLE + "', '" + ADMIN_ROLE + "')")
-    public ResponseEntity<VenueBookingResponse> createBooking(@RequestBody VenueBookingRequest request) {
-        VenueBookingResponse response = bookingService.createBooking(request);
+    public ResponseEntity<VenueBookingResponse> createBooking(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody VenueBookingRequest request
+    ) {
+        VenueBookingResponse response = idempotencyService.execute(idempotencyKey, "venue-booking", request,
+                VenueBookingResponse.class, () -> bookingService.createBooking(request));
         return ResponseEntity.ok(response);
     }
 
@@ -0,0 +1,60 @@
+package com.example.cdr.eventsmanagementsystem.Controller;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.cdr.eventsmanagementsystem.Constants.ControllerConstants.ImageControllerConstants;
+import com.example.cdr.eventsmanagementsystem.Service.Image.ImageStore;
+import com.example.cdr.eventsmanagementsystem.Service.Image.ImageStore.StoredImage;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Serves stored images by content hash. Bodies are streamed from the store;
+ * Spring answers If-None-Match with 304 and Range requests with 206 for
+ * {@link Resource} bodies. Since a hash never changes meaning, responses are
+ * cacheable forever.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(ImageControllerConstants.IMAGE_BASE_URL)
+@Tag(name = "Images", description = "Venue and service image APIs")
+public class ImageController {
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    private final ImageStore imageStore;
+
+    @Operation(summary = "Get image", description = "Streams an image by its content hash")
+    @GetMapping(ImageControllerConstants.GET_IMAGE_URL)
+    public ResponseEntity<Resource> getImage(@PathVariable String hash) {
+        return serve(hash, imageStore.get(hash));
+    }
+
+    @Operation(summary = "Get image thumbnail", description = "Streams the thumbnail generated for an image")
+    @GetMapping(ImageControllerConstants.GET_THUMBNAIL_URL)
+    public ResponseEntity<Resource> getThumbnail(@PathVariable String hash) {
+        return serve(hash + "-" + ImageStore.THUMBNAIL, imageStore.getVariant(hash, ImageStore.THUMBNAIL));
+    }
+
+    private static ResponseEntity<Resource> serve(String etag, Optional<StoredImage> image) {
+        return image
+                .map(img -> ResponseEntity.ok()
+                        .eTag(etag)
+                        .cacheControl(IMMUTABLE)
+                        .contentType(MediaType.parseMediaType(img.contentType()))
+                        .contentLength(img.size())
+                        .body(img.resource()))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
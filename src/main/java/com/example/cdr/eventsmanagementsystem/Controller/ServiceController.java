@@ -46,10 +46,11 @@ public class ServiceController {
     public Page<ServicesDTO> getAvailableService(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String area,
             @ParameterObject @PageableDefault() Pageable pageable) {
 
         System.out.println("Controller ==> Start Date: " + startDate + ", End Date: " + endDate);
-        return servicesService.getAvailableServices(startDate, endDate, pageable);
+        return servicesService.getAvailableServices(startDate, endDate, area, pageable);
     }
 
     @Operation(summary = "Get service by ID", description = "Retrieves service details by its ID")
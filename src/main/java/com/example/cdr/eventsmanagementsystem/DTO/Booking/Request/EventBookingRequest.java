@@ -7,4 +7,6 @@ import lombok.EqualsAndHashCode;
 @EqualsAndHashCode(callSuper = true)
 public class EventBookingRequest extends BaseBookingDTO {
     protected Long eventId;
+    /** Required when the event admits buyers through its waiting room. */
+    protected String admissionToken;
 }
@@ -0,0 +1,22 @@
+package com.example.cdr.eventsmanagementsystem.DTO.Booking.Response;
+
+import java.time.LocalDateTime;
+
+import com.example.cdr.eventsmanagementsystem.Model.Booking.AdmissionStatus;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class WaitingRoomResponse {
+    private String token;
+    private Long eventId;
+    private AdmissionStatus status;
+    /** Tickets ahead in the queue while WAITING. */
+    private Long position;
+    /** Deadline for booking with this token once ADMITTED. */
+    private LocalDateTime admittedUntil;
+    /** Suggested delay before the next status poll. */
+    private long pollAfterSeconds;
+}
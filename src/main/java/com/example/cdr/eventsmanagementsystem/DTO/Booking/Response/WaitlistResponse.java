@@ -0,0 +1,17 @@
+package com.example.cdr.eventsmanagementsystem.DTO.Booking.Response;
+
+import com.example.cdr.eventsmanagementsystem.Model.Booking.WaitlistStatus;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class WaitlistResponse {
+    private Long eventId;
+    private WaitlistStatus status;
+    /** Entries ahead in the queue while WAITING. */
+    private Long position;
+    /** Booking offered to this entry once OFFERED; its checkout link is emailed. */
+    private Long bookingId;
+}
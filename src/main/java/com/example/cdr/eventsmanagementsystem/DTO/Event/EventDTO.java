@@ -15,6 +15,8 @@ public class EventDTO {
     private LocalDateTime startTime;
     private LocalDateTime endTime;
     private BigDecimal retailPrice;
+    private Integer capacity;
+    private Integer waitingRoomAdmitRate;
     private LocalDateTime freeCancellationDeadline;
     
     private String organizerId;
@@ -26,5 +26,8 @@ public class EventResponseDTO {
     private List<Long> serviceProviderIds;
     private List<String> serviceProviderNames;
     private BigDecimal retailPrice;
+    private Integer capacity;
+    private int ticketsSold;
+    private Integer waitingRoomAdmitRate;
     private LocalDateTime freeCancellationDeadline;
 }
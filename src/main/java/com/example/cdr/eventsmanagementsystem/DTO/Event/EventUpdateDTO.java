@@ -23,5 +23,9 @@ public class EventUpdateDTO {
 
     private BigDecimal retailPrice;
 
+    private Integer capacity;
+
+    private Integer waitingRoomAdmitRate;
+
     private Long venueId;
 }
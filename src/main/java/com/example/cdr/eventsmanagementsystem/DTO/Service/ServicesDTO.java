@@ -38,4 +38,6 @@ public class ServicesDTO {
     private String serviceProviderId;
 
     private List<String> images;
+
+    private List<String> thumbnails;
 }
@@ -27,6 +27,7 @@ public class VenueDTO {
     @NotNull(message = "Pricing is required")
     private Pricing pricing;
     private List<String> images;
+    private List<String> thumbnails;
     @Size(min = 1, message = "At least one event type is required")
     private List<String> eventTypes;
     private String venueProviderId;
@@ -0,0 +1,7 @@
+package com.example.cdr.eventsmanagementsystem.DTO.projections;
+
+public interface BookingRecipient {
+    Long getBookingId();
+    String getEmail();
+    String getFirstName();
+}
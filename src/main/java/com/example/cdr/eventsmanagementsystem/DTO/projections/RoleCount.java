@@ -0,0 +1,6 @@
+package com.example.cdr.eventsmanagementsystem.DTO.projections;
+
+public interface RoleCount {
+    String getRole();
+    Long getCount();
+}
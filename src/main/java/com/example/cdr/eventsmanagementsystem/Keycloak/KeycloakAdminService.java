@@ -1,5 +1,6 @@
 package com.example.cdr.eventsmanagementsystem.Keycloak;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,6 +34,7 @@ import org.keycloak.admin.client.resource.UserResource;
 
 
 import com.example.cdr.eventsmanagementsystem.DTO.Admin.PasswordResetResponse;
+import com.example.cdr.eventsmanagementsystem.Service.User.UserRoleIndexService;
 
 import jakarta.annotation.PreDestroy;
 import jakarta.ws.rs.core.Response;
@@ -51,6 +53,7 @@ public class KeycloakAdminService {
     private final Keycloak kc;
     private final RestTemplate restTemplate = new RestTemplate();
     private final WebClient webclient;
+    private final UserRoleIndexService userRoleIndexService;
 
     private static final java.util.List<String> MANAGED =
         java.util.List.of("admin", "organizer", "attendee", "service_provider", "venue_provider");
@@ -59,9 +62,10 @@ public class KeycloakAdminService {
         java.util.List.of("admin", "organizer", "service_provider", "venue_provider", "attendee");
     // Single explicit constructor so Spring knows exactly what to use
     @Autowired
-    public KeycloakAdminService(WebClient webclient,KeycloakAdminProps props) {
+    public KeycloakAdminService(WebClient webclient,KeycloakAdminProps props, UserRoleIndexService userRoleIndexService) {
         this.webclient = webclient;
         this.props = props;
+        this.userRoleIndexService = userRoleIndexService;
 
         KeycloakBuilder builder = KeycloakBuilder.builder()
                 .serverUrl(props.getBaseUrl())            // e.g. http://keycloak:8080 (in Docker)
@@ -132,6 +136,7 @@ public String createUserByAdmin(String username,
 
     // 3.5) Mirror role into userType attribute (so your UIs show it)
     ensureUserTypeAttribute(userRes, realmRole);
+    userRoleIndexService.record(userId, realmRole);
     // 4) Set a TEMPORARY password → KC will force "Update password" at first login (per-user only)
     CredentialRepresentation tempPw = new CredentialRepresentation();
     tempPw.setType(CredentialRepresentation.PASSWORD);
@@ -203,6 +208,7 @@ public String registerUserSelf(String username,
 
     // Mirror into userType attribute
     ensureUserTypeAttribute(userRes, defaultRealmRole);
+    userRoleIndexService.record(userId, defaultRealmRole);
 
     return userId;
 }
@@ -260,38 +266,32 @@ public long countUsers() {
     return realm().users().count();
 }
 
-/** Count users grouped by normalized role (from userType attribute). */
+/** Count users grouped by normalized role, served from the local role index. */
 public Map<String, Long> countUsersByRole() {
-    long total = countUsers();
-    long admins = 0, organizers = 0, attendees = 0, serviceProviders = 0, venueProviders = 0;
+    return userRoleIndexService.countUsersByRole();
+}
 
-    // page through users in batches
+/**
+ * Re-derives every user's role from Keycloak into the local index and drops users
+ * that no longer exist there. Meant for the periodic reconciliation job only.
+ */
+public int reconcileUserRoleIndex() {
+    LocalDateTime runStartedAt = LocalDateTime.now();
     final int pageSize = 100;
-    for (int offset = 0; offset < total; offset += pageSize) {
-        List<UserRepresentation> batch = realm()
-                .users()
-                .search("", offset, pageSize);
-
+    int seen = 0;
+    for (int first = 0; ; first += pageSize) {
+        List<UserRepresentation> batch = realm().users().list(first, pageSize);
         for (UserRepresentation u : batch) {
-            String role = extractRole(u);
-            switch (role) {
-                case "admin" -> admins++;
-                case "organizer" -> organizers++;
-                case "service_provider" -> serviceProviders++;
-                case "venue_provider" -> venueProviders++;
-                default -> attendees++; // treat any unknown/missing as attendee
-            }
+            userRoleIndexService.record(u.getId(), extractRole(u), runStartedAt);
+        }
+        seen += batch.size();
+        if (batch.size() < pageSize) {
+            break;
         }
     }
-
-    Map<String, Long> map = new HashMap<>();
-    map.put("total", total);
-    map.put("admins", admins);
-    map.put("organizers", organizers);
-    map.put("attendees", attendees);
-    map.put("service_providers", serviceProviders);
-    map.put("venue_providers", venueProviders);
-    return map;
+    int removed = userRoleIndexService.removeNotSyncedSince(runStartedAt);
+    log.info("User role index reconciled: {} users synced, {} stale entries removed", seen, removed);
+    return seen;
 }
     // ---------- UPDATE ROLE ----------
 
@@ -330,6 +330,7 @@ public UserRepresentation updateUserRole(String userId, String targetRealmRole)
     attrs.put("userType", java.util.List.of(targetRealmRole));
     rep.setAttributes(attrs);
     u.update(rep);
+    userRoleIndexService.record(userId, targetRealmRole);
 
     return u.toRepresentation();
 }
@@ -472,6 +473,7 @@ public PasswordResetResponse sendResetPasswordAndOptions(String userId) {
     // ---------- DELETE ----------
     public void deleteUser(String userId) {
         realm().users().delete(userId);
+        userRoleIndexService.remove(userId);
     }
 
     // ---------- LIST ----------
@@ -0,0 +1,49 @@
+package com.example.cdr.eventsmanagementsystem.Keycloak;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Periodically rebuilds the local user role index from Keycloak, catching role
+ * changes made directly in the Keycloak console. The first run shortly after
+ * startup also seeds an empty index. A run pages through every Keycloak user, so it
+ * is handed to a virtual thread instead of holding a shared scheduler thread.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserRoleIndexReconciler {
+
+    private final KeycloakAdminService keycloakAdminService;
+    private final ExecutorService virtualThreadExecutor;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /** Starts a run and returns; a tick is skipped while the last run is still going. */
+    @Scheduled(initialDelayString = "${app.keycloak.role-index.initial-delay:PT1M}",
+               fixedDelayString = "${app.keycloak.role-index.reconcile-interval:PT6H}")
+    public void schedule() {
+        if (running.compareAndSet(false, true)) {
+            virtualThreadExecutor.execute(() -> {
+                try {
+                    reconcile();
+                } finally {
+                    running.set(false);
+                }
+            });
+        }
+    }
+
+    public void reconcile() {
+        try {
+            keycloakAdminService.reconcileUserRoleIndex();
+        } catch (Exception e) {
+            log.warn("User role index reconciliation failed: {}", e.getMessage());
+        }
+    }
+}
@@ -22,6 +22,7 @@ public interface EventMapper {
     @Mapping(target = "venue", ignore = true)
     @Mapping(target = "admin", ignore = true)
     @Mapping(target = "status", ignore = true)
+    @Mapping(target = "ticketsSold", ignore = true)
     Event toEvent(EventDTO dto);
 
     default Event toEventWithDefaults(EventDTO dto, Organizer organizer) {
@@ -55,6 +56,7 @@ public interface EventMapper {
     @Mapping(target = "admin", ignore = true)
     @Mapping(target = "status", ignore = true)
     @Mapping(target = "freeCancellationDeadline", ignore = true)
+    @Mapping(target = "ticketsSold", ignore = true)
     void updateEventFromDTO(EventUpdateDTO dto, @MappingTarget Event event, @Context VenueRepository venueRepository);
 
     @Mapping(source = "organizer.id", target = "organizerId")
@@ -0,0 +1,37 @@
+package com.example.cdr.eventsmanagementsystem.Mapper;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.mapstruct.Named;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.cdr.eventsmanagementsystem.Constants.ControllerConstants.ImageControllerConstants;
+
+/**
+ * Turns stored image hashes into absolute URLs of the image endpoint, so DTOs
+ * carry links rather than image bytes.
+ */
+@Component
+public class ImageUrlMapper {
+
+    @Value("${app.images.public-base-url:http://localhost:8180}")
+    private String publicBaseUrl;
+
+    @Named("toImageUrls")
+    public List<String> toImageUrls(List<String> hashes) {
+        if (hashes == null) return Collections.emptyList();
+        return hashes.stream().map(this::imageUrl).toList();
+    }
+
+    @Named("toThumbnailUrls")
+    public List<String> toThumbnailUrls(List<String> hashes) {
+        if (hashes == null) return Collections.emptyList();
+        return hashes.stream().map(hash -> imageUrl(hash) + "/thumbnail").toList();
+    }
+
+    private String imageUrl(String hash) {
+        return publicBaseUrl + ImageControllerConstants.IMAGE_BASE_URL + "/" + hash;
+    }
+}
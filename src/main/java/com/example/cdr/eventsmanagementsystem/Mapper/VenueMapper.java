@@ -10,14 +10,15 @@ import org.mapstruct.Named;
 import java.util.*;
 import java.util.stream.Collectors;
 
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = ImageUrlMapper.class)
 public interface VenueMapper {
     @Mapping(target = "images", ignore = true)
     @Mapping(source = "type", target = "type",  qualifiedByName = "stringToType")
     @Mapping(source = "eventTypes", target = "supportedEventTypes", qualifiedByName = "stringToEventTypes")
     Venue toVenue(VenueDTO dto);
 
-    @Mapping(target = "images", expression = "java(bytesToBase64(venue.getImages()))")
+    @Mapping(source = "images", target = "images", qualifiedByName = "toImageUrls")
+    @Mapping(source = "images", target = "thumbnails", qualifiedByName = "toThumbnailUrls")
     @Mapping(source = "venueProvider.keycloakId", target = "venueProviderId")
     @Mapping(source = "type", target = "type", qualifiedByName = "typeToString")
     @Mapping(source = "supportedEventTypes", target = "eventTypes", qualifiedByName = "eventTypesToStringList")
@@ -29,13 +30,6 @@ public interface VenueMapper {
     @Mapping(source = "eventTypes", target = "supportedEventTypes", qualifiedByName = "stringToEventTypes")
     void updateVenue(VenueDTO dto,@MappingTarget Venue venue);
 
-    default List<String> bytesToBase64(List<byte[]> images) {
-        if (images == null) return Collections.emptyList();
-        return images.stream()
-                .map(img -> java.util.Base64.getEncoder().encodeToString(img))
-                .toList();
-    }
-
     @Named("stringToType")
     default Type stringToType(String type) {
         if (type == null) return null;
@@ -0,0 +1,8 @@
+package com.example.cdr.eventsmanagementsystem.Model.Booking;
+
+public enum AdmissionStatus {
+    WAITING,
+    ADMITTED,
+    USED,
+    EXPIRED
+}
@@ -34,6 +34,9 @@ public abstract class Booking extends BaseEntity {
     @Enumerated(EnumType.STRING)
     private PaymentStatus paymentStatus;
 
+    /** When the current payment intent was authorized; Stripe voids the hold seven days later. */
+    private LocalDateTime authorizedAt;
+
     private String currency;
     private BigDecimal amount;
 
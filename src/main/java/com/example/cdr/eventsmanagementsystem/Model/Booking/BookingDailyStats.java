@@ -0,0 +1,41 @@
+package com.example.cdr.eventsmanagementsystem.Model.Booking;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+/**
+ * Per-day, per-type booking counters maintained from the booking lifecycle
+ * events, so dashboard ranges read one row per day instead of scanning bookings.
+ */
+@Data
+@Entity
+@Table(name = "booking_daily_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_booking_daily_stats_day_type", columnNames = {"day", "booking_type"}))
+public class BookingDailyStats {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BookingType bookingType;
+
+    @Column(nullable = false)
+    private long created;
+
+    @Column(nullable = false)
+    private long cancelled;
+}
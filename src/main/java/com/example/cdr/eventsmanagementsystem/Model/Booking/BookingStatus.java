@@ -1,5 +1,9 @@
 package com.example.cdr.eventsmanagementsystem.Model.Booking;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum BookingStatus {
     PENDING, 
     PAYMENT_PENDING, 
@@ -7,5 +11,9 @@ public enum BookingStatus {
     ACCEPTED, 
     REJECTED, 
     CANCELLED, 
-    FAILED
+    FAILED;
+
+    /** Statuses that hold a venue or service slot; the same set as the overlap constraints' WHERE clause. */
+    public static final Set<BookingStatus> OCCUPYING =
+            Collections.unmodifiableSet(EnumSet.of(PENDING, PAYMENT_PENDING, BOOKED, ACCEPTED));
 }
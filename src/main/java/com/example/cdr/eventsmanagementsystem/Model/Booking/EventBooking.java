@@ -1,7 +1,10 @@
 package com.example.cdr.eventsmanagementsystem.Model.Booking;
 
+import java.time.LocalDateTime;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -9,8 +12,18 @@ import lombok.EqualsAndHashCode;
 @Data
 @Entity
 @EqualsAndHashCode(callSuper = true)
-@Table(name = "event_bookings")
+@Table(name = "event_bookings", indexes = {
+        @Index(name = "idx_event_bookings_hold", columnList = "status, hold_expires_at"),
+        @Index(name = "idx_event_bookings_payment_status", columnList = "payment_status, id")
+})
 public class EventBooking extends Booking {
     @Column(nullable = false)
     private Long eventId;
+
+    /** Whether this booking currently counts against the event's {@code ticketsSold}. */
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean ticketHeld;
+
+    /** A PENDING booking loses its ticket after this; see BookingHoldService. */
+    private LocalDateTime holdExpiresAt;
 }
@@ -2,6 +2,7 @@ package com.example.cdr.eventsmanagementsystem.Model.Booking;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -9,7 +10,10 @@ import lombok.EqualsAndHashCode;
 @Data
 @Entity
 @EqualsAndHashCode(callSuper = true)
-@Table(name = "service_bookings")
+@Table(name = "service_bookings", indexes = {
+        @Index(name = "idx_service_bookings_service_period", columnList = "service_id, start_time, end_time"),
+        @Index(name = "idx_service_bookings_payment_status", columnList = "payment_status, id")
+})
 public class ServiceBooking extends Booking {
     @Column(nullable = false)
     private Long serviceId;
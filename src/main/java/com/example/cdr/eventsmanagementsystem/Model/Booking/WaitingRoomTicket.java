@@ -0,0 +1,51 @@
+package com.example.cdr.eventsmanagementsystem.Model.Booking;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * A place in an event's waiting room. The identity column doubles as the FIFO order;
+ * the opaque {@code token} is what the attendee polls with and presents when booking.
+ */
+@Data
+@Entity
+@Table(name = "waiting_room_tickets", indexes = {
+        @Index(name = "idx_waiting_room_queue", columnList = "event_id, status, id"),
+        @Index(name = "idx_waiting_room_user", columnList = "event_id, user_id")
+})
+public class WaitingRoomTicket {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String token;
+
+    @Column(nullable = false)
+    private Long eventId;
+
+    @Column(nullable = false)
+    private String userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AdmissionStatus status;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime admittedAt;
+
+    /** End of the booking window once admitted. */
+    private LocalDateTime expiresAt;
+}
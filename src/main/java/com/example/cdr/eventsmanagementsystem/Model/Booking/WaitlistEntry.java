@@ -0,0 +1,58 @@
+package com.example.cdr.eventsmanagementsystem.Model.Booking;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * An attendee queued for a sold-out event. The identity column is the FIFO order; when a
+ * ticket frees up the head entry is offered a held booking and a checkout link.
+ */
+@Data
+@Entity
+@Table(name = "event_waitlist", indexes = {
+        @Index(name = "idx_event_waitlist_queue", columnList = "event_id, status, id"),
+        @Index(name = "idx_event_waitlist_user", columnList = "event_id, user_id")
+})
+public class WaitlistEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long eventId;
+
+    @Column(nullable = false)
+    private String userId;
+
+    @Column(nullable = false)
+    private String currency;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WaitlistStatus status;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime offeredAt;
+
+    /** Booking created for this entry when it was offered a ticket. */
+    private Long bookingId;
+
+    /** Offers that failed before a checkout link could be sent. */
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int attempts;
+
+    /** After a failed offer, the entry is skipped until then so the entries behind it are served. */
+    private LocalDateTime nextAttemptAt;
+}
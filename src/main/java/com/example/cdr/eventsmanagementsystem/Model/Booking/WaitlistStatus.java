@@ -0,0 +1,14 @@
+package com.example.cdr.eventsmanagementsystem.Model.Booking;
+
+public enum WaitlistStatus {
+    WAITING,
+    /** Holding a booking and checkout link; settles as ACCEPTED, EXPIRED or back to WAITING. */
+    OFFERED,
+    /** The offered booking was paid. */
+    ACCEPTED,
+    /** The offer's hold ran out unpaid. */
+    EXPIRED,
+    /** Could not be offered a ticket after repeated attempts, or the attendee no longer exists. */
+    FAILED,
+    LEFT
+}
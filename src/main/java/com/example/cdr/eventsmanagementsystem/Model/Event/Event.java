@@ -57,6 +57,20 @@ public class Event extends BaseEntity {
     private LocalDateTime freeCancellationDeadline;  
     private BigDecimal retailPrice;
 
+    /** Maximum tickets for sale; {@code null} means unlimited. */
+    private Integer capacity;
+
+    /** Buyers admitted per minute through the waiting room; {@code null} books without a queue. */
+    private Integer waitingRoomAdmitRate;
+
+    /** Fractional admission carried to the next tick; written only by {@code WaitingRoomAdmitter} under its lock. */
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "double precision default 0")
+    private double waitingRoomCarry;
+
+    /** Maintained only by {@link com.example.cdr.eventsmanagementsystem.Repository.EventRepository} conditional updates. */
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "integer default 0")
+    private int ticketsSold;
+
     @Column(nullable = false)
     private boolean flagged;
 
@@ -0,0 +1,6 @@
+package com.example.cdr.eventsmanagementsystem.Model.Notification;
+
+public enum FanoutKind {
+    EVENT_CANCELLED,
+    EVENT_REMINDER
+}
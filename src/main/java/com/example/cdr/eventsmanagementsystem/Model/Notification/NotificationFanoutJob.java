@@ -0,0 +1,66 @@
+package com.example.cdr.eventsmanagementsystem.Model.Notification;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+/**
+ * Progress of a bulk notification to the attendees of one event. {@code lastBookingId}
+ * is the keyset checkpoint: it advances in the same transaction that queues a page of
+ * emails, so a restarted job continues after the last queued page without re-sending.
+ */
+@Data
+@Entity
+@Table(name = "notification_fanout_jobs",
+        uniqueConstraints = @UniqueConstraint(name = "uk_fanout_job_dedupe", columnNames = {"kind", "event_id", "dedupe_key"}))
+public class NotificationFanoutJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private FanoutKind kind;
+
+    @Column(nullable = false)
+    private Long eventId;
+
+    /** Identifies the trigger (cancelling booking, reminder day) so it only fans out once. */
+    @Column(nullable = false)
+    private String dedupeKey;
+
+    /**
+     * Rendered once when the job is created. Only the per-recipient arguments remain:
+     * {@code %1$s} first name and {@code %2$d} booking id.
+     */
+    @Column(nullable = false)
+    private String subjectTemplate;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String bodyTemplate;
+
+    /** Booking start window for reminder jobs; unused for cancellations. */
+    private LocalDateTime windowStart;
+
+    private LocalDateTime windowEnd;
+
+    @Column(nullable = false)
+    private long lastBookingId;
+
+    @Column(nullable = false)
+    private long sentCount;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,8 @@
+package com.example.cdr.eventsmanagementsystem.Model.Notification;
+
+public enum OutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
@@ -0,0 +1,50 @@
+package com.example.cdr.eventsmanagementsystem.Model.Payment;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Outcome of a request sent with an {@code Idempotency-Key}. The id is the key scoped to
+ * the caller and the operation; a replay with the same request body gets
+ * {@code responseBody} back instead of running the operation again.
+ */
+@Data
+@Entity
+@Table(name = "idempotency_keys",
+        indexes = @Index(name = "idx_idempotency_keys_expires", columnList = "expires_at"))
+public class IdempotencyRecord {
+    @Id
+    @Column(length = 400)
+    private String id;
+
+    /** SHA-256 of the request, so a key reused for a different request is rejected. */
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private IdempotencyStatus status;
+
+    /** Concrete class of the stored response; endpoints may declare a supertype. */
+    private String responseType;
+
+    @Column(columnDefinition = "text")
+    private String responseBody;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    /** Lease of an IN_PROGRESS claim; once passed, the request is presumed dead and the key can be reclaimed. */
+    private LocalDateTime lockedUntil;
+}
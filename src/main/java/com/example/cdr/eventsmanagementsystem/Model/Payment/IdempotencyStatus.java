@@ -0,0 +1,6 @@
+package com.example.cdr.eventsmanagementsystem.Model.Payment;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
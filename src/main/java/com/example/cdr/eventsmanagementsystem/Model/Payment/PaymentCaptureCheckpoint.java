@@ -0,0 +1,37 @@
+package com.example.cdr.eventsmanagementsystem.Model.Payment;
+
+import java.time.LocalDateTime;
+
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Progress of the batch capture pass over one booking table. {@code lastBookingId} is the
+ * keyset checkpoint, advanced after each page, so a pass interrupted by a crash resumes where
+ * it stopped. The lease keeps other nodes off the table while a pass runs.
+ */
+@Data
+@Entity
+@Table(name = "payment_capture_checkpoints")
+public class PaymentCaptureCheckpoint {
+    @Id
+    @Enumerated(EnumType.STRING)
+    private BookingType bookingType;
+
+    @Column(nullable = false)
+    private long lastBookingId;
+
+    /** Node holding the lease; cursor updates from any other node are rejected. */
+    private String owner;
+
+    private LocalDateTime leasedUntil;
+
+    private LocalDateTime lastCompletedAt;
+}
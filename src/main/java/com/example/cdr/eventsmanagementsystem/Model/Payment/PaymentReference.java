@@ -0,0 +1,35 @@
+package com.example.cdr.eventsmanagementsystem.Model.Payment;
+
+import java.time.LocalDateTime;
+
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Maps a Stripe checkout session or payment intent id to the booking it pays for, so any
+ * Stripe object resolves to its booking with one primary-key lookup whatever the booking type.
+ */
+@Data
+@Entity
+@Table(name = "payment_reference")
+public class PaymentReference {
+    @Id
+    private String stripeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BookingType bookingType;
+
+    @Column(nullable = false)
+    private Long bookingId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,29 @@
+package com.example.cdr.eventsmanagementsystem.Model.Payment;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Ledger of Stripe events already applied to bookings, keyed by the Stripe event id.
+ * Outlives the webhook inbox rows so late redeliveries are still recognised.
+ */
+@Data
+@Entity
+@Table(name = "stripe_processed_events",
+        indexes = @Index(name = "idx_stripe_processed_events_at", columnList = "processed_at"))
+public class ProcessedStripeEvent {
+    @Id
+    private String id;
+
+    @Column(nullable = false)
+    private String eventType;
+
+    @Column(nullable = false)
+    private LocalDateTime processedAt;
+}
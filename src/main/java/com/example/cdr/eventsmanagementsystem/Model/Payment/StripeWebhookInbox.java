@@ -0,0 +1,67 @@
+package com.example.cdr.eventsmanagementsystem.Model.Payment;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+/**
+ * A verified Stripe webhook delivery, stored before it is acknowledged and applied later
+ * by the webhook dispatcher. Rows sharing an {@code orderingKey} (one booking) are
+ * applied strictly in arrival order.
+ */
+@Data
+@Entity
+@Table(name = "stripe_webhook_inbox",
+        uniqueConstraints = @UniqueConstraint(name = "uk_webhook_inbox_event", columnNames = "stripe_event_id"),
+        indexes = {
+                @Index(name = "idx_webhook_inbox_due", columnList = "status, next_attempt_at"),
+                @Index(name = "idx_webhook_inbox_key", columnList = "ordering_key, id")
+        })
+public class StripeWebhookInbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String stripeEventId;
+
+    @Column(nullable = false)
+    private String eventType;
+
+    /** The booking the event belongs to, or the Stripe object id when the booking is not known yet. */
+    @Column(nullable = false)
+    private String orderingKey;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WebhookInboxStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime lockedUntil;
+
+    @Column(columnDefinition = "text")
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime processedAt;
+}
@@ -0,0 +1,8 @@
+package com.example.cdr.eventsmanagementsystem.Model.Payment;
+
+public enum WebhookInboxStatus {
+    PENDING,
+    PROCESSING,
+    PROCESSED,
+    FAILED
+}
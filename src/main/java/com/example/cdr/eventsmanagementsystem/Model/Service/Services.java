@@ -49,7 +49,9 @@ public class Services extends BaseEntity {
     @JoinColumn(name = "service_provider_id", nullable = false)
     private ServiceProvider serviceProvider;
 
-    // images 
+    // SHA-256 keys into the image store
     @ElementCollection
-    private List<byte[]> images = new ArrayList<>();
+    @CollectionTable(name = "service_image_refs", joinColumns = @JoinColumn(name = "service_id"))
+    @Column(name = "image_hash", length = 64)
+    private List<String> images = new ArrayList<>();
 }
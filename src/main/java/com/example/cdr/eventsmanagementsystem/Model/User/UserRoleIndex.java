@@ -0,0 +1,29 @@
+package com.example.cdr.eventsmanagementsystem.Model.User;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Local mirror of each Keycloak user's managed realm role, so role counts are a
+ * grouped query instead of a realm-wide scan. Rows are written on every role
+ * change we make and reconciled against Keycloak periodically.
+ */
+@Data
+@Entity
+@Table(name = "user_role_index", indexes = @Index(name = "idx_user_role_index_role", columnList = "role"))
+public class UserRoleIndex {
+    @Id
+    private String userId;
+
+    @Column(nullable = false)
+    private String role;
+
+    @Column(nullable = false)
+    private LocalDateTime syncedAt;
+}
@@ -36,8 +36,11 @@ public class Venue extends BaseEntity {
     @Embedded
     private Pricing pricing;
 
+    // SHA-256 keys into the image store
     @ElementCollection
-    private List<byte[]> images = new ArrayList<>();
+    @CollectionTable(name = "venue_image_refs", joinColumns = @JoinColumn(name = "venue_id"))
+    @Column(name = "image_hash", length = 64)
+    private List<String> images = new ArrayList<>();
 
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "venue_provider_id")
@@ -0,0 +1,3 @@
+package com.example.cdr.eventsmanagementsystem.NotificationEvent.Inventory;
+
+public record EventTicketReleased(Long eventId) {}
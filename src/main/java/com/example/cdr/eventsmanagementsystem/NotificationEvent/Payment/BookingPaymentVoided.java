@@ -0,0 +1,5 @@
+package com.example.cdr.eventsmanagementsystem.NotificationEvent.Payment;
+
+import com.example.cdr.eventsmanagementsystem.Model.Booking.Booking;
+
+public record BookingPaymentVoided(Booking booking) {}
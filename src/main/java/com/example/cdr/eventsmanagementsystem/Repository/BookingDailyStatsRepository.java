@@ -0,0 +1,50 @@
+package com.example.cdr.eventsmanagementsystem.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.cdr.eventsmanagementsystem.DTO.projections.LocalDateCount;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingDailyStats;
+
+@Repository
+public interface BookingDailyStatsRepository extends JpaRepository<BookingDailyStats, Long> {
+
+    @Modifying
+    @Query(value = """
+        insert into booking_daily_stats (day, booking_type, created, cancelled)
+        values (:day, :bookingType, :created, :cancelled)
+        on conflict (day, booking_type) do update
+        set created = booking_daily_stats.created + excluded.created,
+            cancelled = booking_daily_stats.cancelled + excluded.cancelled
+        """, nativeQuery = true)
+    void increment(@Param("day") LocalDate day,
+                   @Param("bookingType") String bookingType,
+                   @Param("created") long created,
+                   @Param("cancelled") long cancelled);
+
+    @Query("""
+        select s.day as date, sum(s.created) as count
+        from BookingDailyStats s
+        where s.day between :start and :end
+        group by s.day
+        order by s.day
+        """)
+    List<LocalDateCount> sumCreatedBetween(@Param("start") LocalDate start,
+                                           @Param("end") LocalDate end);
+
+    @Query("""
+        select s.day as date, sum(s.cancelled) as count
+        from BookingDailyStats s
+        where s.day between :start and :end
+        group by s.day
+        order by s.day
+        """)
+    List<LocalDateCount> sumCancelledBetween(@Param("start") LocalDate start,
+                                             @Param("end") LocalDate end);
+}
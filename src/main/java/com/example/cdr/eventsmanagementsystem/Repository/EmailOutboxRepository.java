@@ -0,0 +1,41 @@
+package com.example.cdr.eventsmanagementsystem.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.cdr.eventsmanagementsystem.Model.Notification.EmailOutbox;
+import com.example.cdr.eventsmanagementsystem.Model.Notification.OutboxStatus;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Due messages, including SENDING rows whose lease ran out (dispatcher crashed mid-batch).
+     * Locked rows are skipped so several instances can dispatch concurrently.
+     */
+    @Query(value = """
+        select * from email_outbox
+        where (status = 'PENDING' and next_attempt_at <= :now)
+           or (status = 'SENDING' and locked_until < :now)
+        order by id
+        limit :limit
+        for update skip locked
+        """, nativeQuery = true)
+    List<EmailOutbox> lockDueBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    long countByStatus(OutboxStatus status);
+
+    @Modifying
+    @Query("""
+        delete from EmailOutbox e
+        where e.status = com.example.cdr.eventsmanagementsystem.Model.Notification.OutboxStatus.SENT
+          and e.sentAt < :cutoff
+        """)
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -11,6 +11,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.cdr.eventsmanagementsystem.DTO.projections.BookingRecipient;
 import com.example.cdr.eventsmanagementsystem.DTO.projections.LocalDateCount;
 import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
 import com.example.cdr.eventsmanagementsystem.Model.Booking.EventBooking;
@@ -54,11 +55,14 @@ public interface EventBookingRepository extends JpaRepository<EventBooking, Long
                 @Param("start") LocalDateTime start,
                 @Param("end") LocalDateTime end);
 
-        List<EventBooking> findByStatusAndStartTimeBetween(
-                BookingStatus status,
-                LocalDateTime start,
-                LocalDateTime end
-        );
+        @Query("""
+                select distinct b.eventId from EventBooking b
+                where b.status = :status
+                and b.startTime between :start and :end
+                """)
+        List<Long> findEventIdsWithBookingsBetween(@Param("status") BookingStatus status,
+                @Param("start") LocalDateTime start,
+                @Param("end") LocalDateTime end);
 
         Page<EventBooking> findByStatusAndUpdatedAtBetween(
                 BookingStatus status,
@@ -86,35 +90,39 @@ public interface EventBookingRepository extends JpaRepository<EventBooking, Long
 
         List<EventBooking> findByEventId(Long eventId);
 
-        @Query("select eb from EventBooking eb where eb.eventId = :eventId order by eb.createdAt desc")
-        Page<EventBooking> findByEventIdOrderByCreatedAtDesc(Long eventId, Pageable pageable);
-
-        Page<EventBooking> findByCreatedBy(String createdBy, Pageable pageable);
-
         @Query("""
-                SELECT function('date', b.createdAt) AS date, COUNT(b) AS count
-                FROM EventBooking b
-                WHERE b.createdAt BETWEEN :start AND :end
-                GROUP BY function('date', b.createdAt)
-                ORDER BY function('date', b.createdAt)
+                select b.id as bookingId, a.email as email, a.firstName as firstName
+                from EventBooking b, Attendee a
+                where a.id = b.createdBy
+                and b.eventId = :eventId
+                and b.id > :afterBookingId
+                order by b.id
                 """)
-        List<LocalDateCount> countDailyBookingsBetween(@Param("start") LocalDateTime start,
-                @Param("end") LocalDateTime end);
+        List<BookingRecipient> findRecipientsAfter(@Param("eventId") Long eventId,
+                @Param("afterBookingId") long afterBookingId,
+                Pageable pageable);
 
         @Query("""
-        SELECT function('date', COALESCE(b.cancelledAt, b.updatedAt)) AS date, COUNT(b) AS count
-        FROM EventBooking b
-        WHERE (b.status = :cancelled OR b.cancelledAt IS NOT NULL)
-        AND COALESCE(b.cancelledAt, b.updatedAt) BETWEEN :start AND :end
-        GROUP BY function('date', COALESCE(b.cancelledAt, b.updatedAt))
-        ORDER BY function('date', COALESCE(b.cancelledAt, b.updatedAt))
-        """)
-        List<LocalDateCount> countDailyCancellationsBetween(
-        @Param("start") LocalDateTime start,
-        @Param("end") LocalDateTime end,
-        @Param("cancelled") BookingStatus cancelled
-        );
+                select b.id as bookingId, a.email as email, a.firstName as firstName
+                from EventBooking b, Attendee a
+                where a.id = b.createdBy
+                and b.eventId = :eventId
+                and b.status = :status
+                and b.startTime between :start and :end
+                and b.id > :afterBookingId
+                order by b.id
+                """)
+        List<BookingRecipient> findRecipientsBetweenAfter(@Param("eventId") Long eventId,
+                @Param("status") BookingStatus status,
+                @Param("start") LocalDateTime start,
+                @Param("end") LocalDateTime end,
+                @Param("afterBookingId") long afterBookingId,
+                Pageable pageable);
+
+        @Query("select eb from EventBooking eb where eb.eventId = :eventId order by eb.createdAt desc")
+        Page<EventBooking> findByEventIdOrderByCreatedAtDesc(Long eventId, Pageable pageable);
 
+        Page<EventBooking> findByCreatedBy(String createdBy, Pageable pageable);
 
         @Query("""
                 select count(b) from EventBooking b
@@ -159,5 +167,45 @@ public interface EventBookingRepository extends JpaRepository<EventBooking, Long
         @Param("sRefunded") PaymentStatus sRefunded
         );
 
-
+        /** PENDING reservations whose checkout session was never attached (crash between the two booking phases). */
+        @Query("""
+                select b from EventBooking b
+                where b.status = com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus.PENDING
+                and b.stripeSessionId is null
+                and b.createdAt < :cutoff
+                """)
+        List<EventBooking> findOrphanedReservations(@Param("cutoff") LocalDateTime cutoff);
+
+        /** An authorized booking is paid for and waiting on capture, so its hold no longer applies. */
+        @Query(value = """
+                select * from event_bookings
+                where id in (:ids) and status = 'PENDING' and hold_expires_at <= :now
+                and payment_status is distinct from 'AUTHORIZED'
+                for update skip locked
+                """, nativeQuery = true)
+        List<EventBooking> lockExpiredHolds(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+        @Query(value = """
+                select * from event_bookings
+                where status = 'PENDING' and hold_expires_at <= :now
+                and payment_status is distinct from 'AUTHORIZED'
+                order by hold_expires_at
+                limit :limit
+                for update skip locked
+                """, nativeQuery = true)
+        List<EventBooking> lockNextExpiredHolds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /** AUTHORIZED bookings that start before {@code captureBefore} or whose hold is older than {@code authorizedBefore}, keyset-paged by id. */
+    @Query("""
+            select b.id from EventBooking b
+            where b.paymentStatus = com.example.cdr.eventsmanagementsystem.Model.Booking.PaymentStatus.AUTHORIZED
+            and b.stripePaymentId is not null
+            and b.id > :afterId
+            and (b.startTime <= :captureBefore or coalesce(b.authorizedAt, b.createdAt) <= :authorizedBefore)
+            order by b.id
+            """)
+    List<Long> findAuthorizedDueAfter(@Param("afterId") long afterId,
+                                      @Param("captureBefore") LocalDateTime captureBefore,
+                                      @Param("authorizedBefore") LocalDateTime authorizedBefore,
+                                      Pageable pageable);
 }
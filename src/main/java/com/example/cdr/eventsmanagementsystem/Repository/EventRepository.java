@@ -6,6 +6,7 @@ import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -39,17 +40,23 @@ public interface EventRepository extends JpaRepository<Event, Long> {
 
     Page<Event> findByOrganizer(Organizer organizer, Pageable pageable);
 
-    @Query("""
-    SELECT CASE WHEN COUNT(e) > 0 THEN true ELSE false END 
-    FROM Event e 
-    WHERE e.id IN :eventIds 
-    AND e.startTime < :endDate 
-    AND e.endTime > :startDate
-    """)
-    boolean existsEventWithTimeConflict(
-            @Param("eventIds") List<Long> eventIds,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate
-    );
-
+    /** Takes one ticket if any are left; returns 0 when the event is sold out (or missing). */
+    @Modifying
+    @Query(value = """
+        update events set tickets_sold = tickets_sold + 1
+        where id = :eventId and (capacity is null or tickets_sold < capacity)
+        """, nativeQuery = true)
+    int reserveTicket(@Param("eventId") Long eventId);
+
+    /** Unconditional adjustment; used to release the ticket of a booking that leaves a ticket-holding status. */
+    @Modifying
+    @Query(value = """
+        update events set tickets_sold = greatest(tickets_sold + :delta, 0)
+        where id = :eventId
+        """, nativeQuery = true)
+    int adjustTicketsSold(@Param("eventId") Long eventId, @Param("delta") int delta);
+
+    @Modifying
+    @Query(value = "update events set waiting_room_carry = :carry where id = :eventId", nativeQuery = true)
+    int setWaitingRoomCarry(@Param("eventId") Long eventId, @Param("carry") double carry);
 }
@@ -0,0 +1,73 @@
+package com.example.cdr.eventsmanagementsystem.Repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.cdr.eventsmanagementsystem.Model.Payment.IdempotencyRecord;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Claims the key for this request, taking over a row whose TTL has passed or an
+     * IN_PROGRESS row whose lease ran out. Returns 1 when claimed, 0 when a live record
+     * (finished or in flight) already owns it.
+     */
+    @Modifying
+    @Query(value = """
+        insert into idempotency_keys (id, request_hash, status, created_at, expires_at, locked_until)
+        values (:id, :requestHash, 'IN_PROGRESS', :now, :expiresAt, :lockedUntil)
+        on conflict (id) do update
+            set request_hash = excluded.request_hash,
+                status = 'IN_PROGRESS',
+                response_type = null,
+                response_body = null,
+                created_at = excluded.created_at,
+                expires_at = excluded.expires_at,
+                locked_until = excluded.locked_until
+            where idempotency_keys.expires_at < :now
+               or (idempotency_keys.status = 'IN_PROGRESS' and idempotency_keys.locked_until < :now)
+        """, nativeQuery = true)
+    int claim(@Param("id") String id,
+              @Param("requestHash") String requestHash,
+              @Param("now") LocalDateTime now,
+              @Param("expiresAt") LocalDateTime expiresAt,
+              @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    /**
+     * Stores the response of the claim made at {@code claimedAt}. Returns 0 if that claim
+     * lapsed and another request took the key over.
+     */
+    @Modifying
+    @Query("""
+        update IdempotencyRecord r
+        set r.status = com.example.cdr.eventsmanagementsystem.Model.Payment.IdempotencyStatus.COMPLETED,
+            r.responseType = :responseType, r.responseBody = :responseBody, r.lockedUntil = null
+        where r.id = :id
+          and r.createdAt = :claimedAt
+          and r.status = com.example.cdr.eventsmanagementsystem.Model.Payment.IdempotencyStatus.IN_PROGRESS
+        """)
+    int complete(@Param("id") String id,
+                 @Param("claimedAt") LocalDateTime claimedAt,
+                 @Param("responseType") String responseType,
+                 @Param("responseBody") String responseBody);
+
+    /** Releases the claim made at {@code claimedAt}, leaving a takeover by another request alone. */
+    @Modifying
+    @Query("""
+        delete from IdempotencyRecord r
+        where r.id = :id
+          and r.createdAt = :claimedAt
+          and r.status = com.example.cdr.eventsmanagementsystem.Model.Payment.IdempotencyStatus.IN_PROGRESS
+        """)
+    int release(@Param("id") String id, @Param("claimedAt") LocalDateTime claimedAt);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,48 @@
+package com.example.cdr.eventsmanagementsystem.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.cdr.eventsmanagementsystem.Model.Notification.FanoutKind;
+import com.example.cdr.eventsmanagementsystem.Model.Notification.NotificationFanoutJob;
+
+@Repository
+public interface NotificationFanoutJobRepository extends JpaRepository<NotificationFanoutJob, Long> {
+
+    boolean existsByKindAndEventIdAndDedupeKey(FanoutKind kind, Long eventId, String dedupeKey);
+
+    @Query("select j.id from NotificationFanoutJob j where j.completedAt is null order by j.id")
+    List<Long> findIncompleteIds();
+
+    /** Creates the job unless another node already planned it; returns the number of rows inserted. */
+    @Modifying
+    @Query(value = """
+        insert into notification_fanout_jobs
+            (kind, event_id, dedupe_key, subject_template, body_template, window_start, window_end, last_booking_id, sent_count, created_at)
+        values (:kind, :eventId, :dedupeKey, :subjectTemplate, :bodyTemplate, :windowStart, :windowEnd, 0, 0, :now)
+        on conflict (kind, event_id, dedupe_key) do nothing
+        """, nativeQuery = true)
+    int insertIfAbsent(@Param("kind") String kind,
+                       @Param("eventId") Long eventId,
+                       @Param("dedupeKey") String dedupeKey,
+                       @Param("subjectTemplate") String subjectTemplate,
+                       @Param("bodyTemplate") String bodyTemplate,
+                       @Param("windowStart") LocalDateTime windowStart,
+                       @Param("windowEnd") LocalDateTime windowEnd,
+                       @Param("now") LocalDateTime now);
+
+    /** Locks an unfinished job for one page of work; empty if finished or another worker holds it. */
+    @Query(value = """
+        select * from notification_fanout_jobs
+        where id = :id and completed_at is null
+        for update skip locked
+        """, nativeQuery = true)
+    Optional<NotificationFanoutJob> lockIncomplete(@Param("id") Long id);
+}
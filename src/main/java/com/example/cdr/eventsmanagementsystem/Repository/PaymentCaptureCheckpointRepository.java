@@ -0,0 +1,75 @@
+package com.example.cdr.eventsmanagementsystem.Repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingType;
+import com.example.cdr.eventsmanagementsystem.Model.Payment.PaymentCaptureCheckpoint;
+
+@Repository
+public interface PaymentCaptureCheckpointRepository extends JpaRepository<PaymentCaptureCheckpoint, BookingType> {
+
+    @Modifying
+    @Query(value = """
+        insert into payment_capture_checkpoints (booking_type, last_booking_id)
+        values (:bookingType, 0)
+        on conflict (booking_type) do nothing
+        """, nativeQuery = true)
+    int insertIfAbsent(@Param("bookingType") String bookingType);
+
+    /** Takes the lease unless another node holds an unexpired one; returns the number of rows claimed. */
+    @Modifying
+    @Query(value = """
+        update payment_capture_checkpoints
+        set owner = :owner, leased_until = :leaseUntil
+        where booking_type = :bookingType
+        and (leased_until is null or leased_until < :now)
+        """, nativeQuery = true)
+    int claim(@Param("bookingType") String bookingType,
+              @Param("owner") String owner,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /** Moves the cursor and extends the lease; 0 if {@code owner} no longer holds it. */
+    @Modifying
+    @Query(value = """
+        update payment_capture_checkpoints
+        set last_booking_id = :lastBookingId, leased_until = :leaseUntil
+        where booking_type = :bookingType
+        and owner = :owner and leased_until > :now
+        """, nativeQuery = true)
+    int advance(@Param("bookingType") String bookingType,
+                @Param("owner") String owner,
+                @Param("lastBookingId") long lastBookingId,
+                @Param("now") LocalDateTime now,
+                @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /** Ends the pass: the next one starts from the first booking again. */
+    @Modifying
+    @Query(value = """
+        update payment_capture_checkpoints
+        set last_booking_id = 0, owner = null, leased_until = null, last_completed_at = :now
+        where booking_type = :bookingType
+        and owner = :owner and leased_until > :now
+        """, nativeQuery = true)
+    int complete(@Param("bookingType") String bookingType,
+                 @Param("owner") String owner,
+                 @Param("now") LocalDateTime now);
+
+    /** Gives up the lease but keeps the checkpoint, so the next run resumes the pass. */
+    @Modifying
+    @Query(value = """
+        update payment_capture_checkpoints
+        set owner = null, leased_until = null
+        where booking_type = :bookingType
+        and owner = :owner and leased_until > :now
+        """, nativeQuery = true)
+    int release(@Param("bookingType") String bookingType,
+                @Param("owner") String owner,
+                @Param("now") LocalDateTime now);
+}
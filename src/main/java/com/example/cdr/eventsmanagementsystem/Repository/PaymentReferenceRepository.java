@@ -0,0 +1,26 @@
+package com.example.cdr.eventsmanagementsystem.Repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.cdr.eventsmanagementsystem.Model.Payment.PaymentReference;
+
+@Repository
+public interface PaymentReferenceRepository extends JpaRepository<PaymentReference, String> {
+
+    @Modifying
+    @Query(value = """
+        insert into payment_reference (stripe_id, booking_type, booking_id, created_at)
+        values (:stripeId, :bookingType, :bookingId, :now)
+        on conflict (stripe_id) do nothing
+        """, nativeQuery = true)
+    int insertIfAbsent(@Param("stripeId") String stripeId,
+                       @Param("bookingType") String bookingType,
+                       @Param("bookingId") Long bookingId,
+                       @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,28 @@
+package com.example.cdr.eventsmanagementsystem.Repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.cdr.eventsmanagementsystem.Model.Payment.ProcessedStripeEvent;
+
+@Repository
+public interface ProcessedStripeEventRepository extends JpaRepository<ProcessedStripeEvent, String> {
+
+    /** Records the event as processed; returns 0 if it already was. */
+    @Modifying
+    @Query(value = """
+        insert into stripe_processed_events (id, event_type, processed_at)
+        values (:id, :eventType, :now)
+        on conflict (id) do nothing
+        """, nativeQuery = true)
+    int insertIfAbsent(@Param("id") String id, @Param("eventType") String eventType, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from ProcessedStripeEvent e where e.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
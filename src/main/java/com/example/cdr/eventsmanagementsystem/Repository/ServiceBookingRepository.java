@@ -3,6 +3,7 @@ package com.example.cdr.eventsmanagementsystem.Repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -29,16 +30,6 @@ public interface ServiceBookingRepository extends JpaRepository<ServiceBooking,
     
     Page<ServiceBooking> findByEventId(Long eventId, Pageable pageable);
 
-    @Query("""
-      SELECT function('date', b.createdAt) AS date, COUNT(b) AS count
-      FROM ServiceBooking b
-      WHERE b.createdAt BETWEEN :start AND :end
-      GROUP BY function('date', b.createdAt)
-      ORDER BY function('date', b.createdAt)
-    """)
-    List<LocalDateCount> countDailyBookingsBetween(@Param("start") LocalDateTime start,
-                                                  @Param("end") LocalDateTime end);
-
     @Query("""
         select count(b) from ServiceBooking b
         where b.status = :status
@@ -50,19 +41,6 @@ public interface ServiceBookingRepository extends JpaRepository<ServiceBooking,
                               @Param("start") LocalDateTime start,
                               @Param("end") LocalDateTime end);
                                               
-    @Query("""
-      SELECT function('date', COALESCE(b.cancelledAt, b.updatedAt)) AS date, COUNT(b) AS count
-      FROM ServiceBooking b
-      WHERE (b.status = :cancelled OR b.cancelledAt IS NOT NULL)
-        AND COALESCE(b.cancelledAt, b.updatedAt) BETWEEN :start AND :end
-      GROUP BY function('date', COALESCE(b.cancelledAt, b.updatedAt))
-      ORDER BY function('date', COALESCE(b.cancelledAt, b.updatedAt))
-    """)
-    List<LocalDateCount> countDailyCancellationsBetween(@Param("start") LocalDateTime start,
-                                                        @Param("end") LocalDateTime end,
-                                                        @Param("cancelled") BookingStatus cancelled);
-
-
     @Query("""
     select count(b) from ServiceBooking b
     where b.createdAt >= :start and b.createdAt < :end and b.status = :status
@@ -96,6 +74,42 @@ public interface ServiceBookingRepository extends JpaRepository<ServiceBooking,
         @Param("statuses") java.util.Collection<BookingStatus> statuses
     );
 
-    List<ServiceBooking> findBookingsByServiceId(Long serviceId);
+    // uses the partial GiST exclusion index on (service_id, period); statuses must match the constraint predicate
+    @Query(value = """
+        select exists (
+            select 1 from service_bookings b
+            where b.service_id = :serviceId
+              and b.status in ('PENDING', 'PAYMENT_PENDING', 'BOOKED', 'ACCEPTED')
+              and b.period && tsrange(:startTime, :endTime, '[)')
+        )
+    """, nativeQuery = true)
+    boolean existsActiveOverlap(@Param("serviceId") Long serviceId,
+                                @Param("startTime") LocalDateTime startTime,
+                                @Param("endTime") LocalDateTime endTime);
 
+    /** Fails PENDING reservations whose checkout session was never attached (crash between the two booking phases). */
+    @Modifying
+    @Query("""
+            update ServiceBooking b
+            set b.status = com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus.FAILED,
+                b.paymentStatus = com.example.cdr.eventsmanagementsystem.Model.Booking.PaymentStatus.FAILED
+            where b.status = com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus.PENDING
+            and b.stripeSessionId is null
+            and b.createdAt < :cutoff
+            """)
+    int failOrphanedReservations(@Param("cutoff") LocalDateTime cutoff);
+
+    /** AUTHORIZED bookings that start before {@code captureBefore} or whose hold is older than {@code authorizedBefore}, keyset-paged by id. */
+    @Query("""
+            select b.id from ServiceBooking b
+            where b.paymentStatus = com.example.cdr.eventsmanagementsystem.Model.Booking.PaymentStatus.AUTHORIZED
+            and b.stripePaymentId is not null
+            and b.id > :afterId
+            and (b.startTime <= :captureBefore or coalesce(b.authorizedAt, b.createdAt) <= :authorizedBefore)
+            order by b.id
+            """)
+    List<Long> findAuthorizedDueAfter(@Param("afterId") long afterId,
+                                      @Param("captureBefore") LocalDateTime captureBefore,
+                                      @Param("authorizedBefore") LocalDateTime authorizedBefore,
+                                      Pageable pageable);
 }
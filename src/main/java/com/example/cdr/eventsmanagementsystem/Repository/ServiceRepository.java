@@ -1,14 +1,41 @@
 package com.example.cdr.eventsmanagementsystem.Repository;
 
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Service.Availability;
 import com.example.cdr.eventsmanagementsystem.Model.Service.Services;
 import com.example.cdr.eventsmanagementsystem.Model.User.ServiceProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+
 
 @Repository
 public interface ServiceRepository extends JpaRepository<Services, Long> {
     Page<Services> findByServiceProvider(ServiceProvider serviceProvider, Pageable pageable);
+
+    // services with the given availability, optionally serving an area, and no overlapping occupying booking in [startDate, endDate)
+    @Query("""
+        select s from Services s
+        where s.availability = :availability
+          and (:area is null or :area member of s.servicesAreas)
+          and not exists (
+              select 1 from ServiceBooking sb
+              where sb.serviceId = s.id
+                and sb.status in :occupyingStatuses
+                and sb.startTime < :endDate
+                and sb.endTime > :startDate
+          )
+    """)
+    Page<Services> findAvailableBetween(@Param("startDate") LocalDateTime startDate,
+                                        @Param("endDate") LocalDateTime endDate,
+                                        @Param("availability") Availability availability,
+                                        @Param("area") String area,
+                                        @Param("occupyingStatuses") Collection<BookingStatus> occupyingStatuses,
+                                        Pageable pageable);
 }
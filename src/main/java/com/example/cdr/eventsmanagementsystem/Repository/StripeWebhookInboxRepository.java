@@ -0,0 +1,61 @@
+package com.example.cdr.eventsmanagementsystem.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.cdr.eventsmanagementsystem.Model.Payment.StripeWebhookInbox;
+import com.example.cdr.eventsmanagementsystem.Model.Payment.WebhookInboxStatus;
+
+@Repository
+public interface StripeWebhookInboxRepository extends JpaRepository<StripeWebhookInbox, Long> {
+
+    /** Appends a delivery; a Stripe retry of an event already in the inbox inserts nothing. */
+    @Modifying
+    @Query(value = """
+        insert into stripe_webhook_inbox
+            (stripe_event_id, event_type, ordering_key, payload, status, attempts, next_attempt_at, created_at)
+        values (:stripeEventId, :eventType, :orderingKey, :payload, 'PENDING', 0, :now, :now)
+        on conflict (stripe_event_id) do nothing
+        """, nativeQuery = true)
+    int insertIfAbsent(@Param("stripeEventId") String stripeEventId,
+                       @Param("eventType") String eventType,
+                       @Param("orderingKey") String orderingKey,
+                       @Param("payload") String payload,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Due deliveries, including PROCESSING rows whose lease ran out. A row is only eligible
+     * once every earlier row with its ordering key is settled, so one booking's events never
+     * overtake each other even across retries and nodes.
+     */
+    @Query(value = """
+        select * from stripe_webhook_inbox i
+        where ((i.status = 'PENDING' and i.next_attempt_at <= :now)
+            or (i.status = 'PROCESSING' and i.locked_until < :now))
+          and not exists (
+              select 1 from stripe_webhook_inbox p
+              where p.ordering_key = i.ordering_key
+                and p.id < i.id
+                and p.status in ('PENDING', 'PROCESSING'))
+        order by i.id
+        limit :limit
+        for update skip locked
+        """, nativeQuery = true)
+    List<StripeWebhookInbox> lockDueBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    long countByStatus(WebhookInboxStatus status);
+
+    @Modifying
+    @Query("""
+        delete from StripeWebhookInbox i
+        where i.status = com.example.cdr.eventsmanagementsystem.Model.Payment.WebhookInboxStatus.PROCESSED
+          and i.processedAt < :cutoff
+        """)
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
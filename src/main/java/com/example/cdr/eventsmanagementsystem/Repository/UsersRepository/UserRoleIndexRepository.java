@@ -0,0 +1,35 @@
+package com.example.cdr.eventsmanagementsystem.Repository.UsersRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.cdr.eventsmanagementsystem.DTO.projections.RoleCount;
+import com.example.cdr.eventsmanagementsystem.Model.User.UserRoleIndex;
+
+@Repository
+public interface UserRoleIndexRepository extends JpaRepository<UserRoleIndex, String> {
+
+    @Modifying
+    @Query(value = """
+        insert into user_role_index (user_id, role, synced_at)
+        values (:userId, :role, :syncedAt)
+        on conflict (user_id) do update
+        set role = excluded.role, synced_at = excluded.synced_at
+        """, nativeQuery = true)
+    void upsert(@Param("userId") String userId,
+                @Param("role") String role,
+                @Param("syncedAt") LocalDateTime syncedAt);
+
+    @Query("select u.role as role, count(u) as count from UserRoleIndex u group by u.role")
+    List<RoleCount> countByRole();
+
+    @Modifying
+    @Query("delete from UserRoleIndex u where u.syncedAt < :cutoff")
+    int deleteSyncedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
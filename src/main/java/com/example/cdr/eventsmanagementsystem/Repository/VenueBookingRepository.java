@@ -6,6 +6,7 @@ import com.example.cdr.eventsmanagementsystem.Model.Booking.VenueBooking;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -28,31 +29,6 @@ public interface VenueBookingRepository extends JpaRepository<VenueBooking, Long
     
     Page<VenueBooking> findByEventId(Long eventId, Pageable pageable);
 
-    // count new bookings per day (based on createdAt)
-    @Query("""
-      SELECT function('date', b.createdAt) AS date, COUNT(b) AS count
-      FROM VenueBooking b
-      WHERE b.createdAt BETWEEN :start AND :end
-      GROUP BY function('date', b.createdAt)
-      ORDER BY function('date', b.createdAt)
-    """)
-    List<LocalDateCount> countDailyBookingsBetween(@Param("start") LocalDateTime start,
-                                                  @Param("end") LocalDateTime end);
-
-    @Query("""
-      SELECT function('date', COALESCE(b.cancelledAt, b.updatedAt)) AS date, COUNT(b) AS count
-      FROM VenueBooking b
-      WHERE (b.status = :cancelled OR b.cancelledAt IS NOT NULL)
-        AND COALESCE(b.cancelledAt, b.updatedAt) BETWEEN :start AND :end
-      GROUP BY function('date', COALESCE(b.cancelledAt, b.updatedAt))
-      ORDER BY function('date', COALESCE(b.cancelledAt, b.updatedAt))
-    """)
-    List<LocalDateCount> countDailyCancellationsBetween(@Param("start") LocalDateTime start,
-                                                        @Param("end") LocalDateTime end,
-                                                        @Param("cancelled") BookingStatus cancelled);
-
-
-
     @Query("""
     select count(b) from VenueBooking b
     where b.status = :status
@@ -103,6 +79,42 @@ public interface VenueBookingRepository extends JpaRepository<VenueBooking, Long
         @Param("excludedStatus") BookingStatus excludedStatus
     );
 
+    // uses the partial GiST exclusion index on (venue_id, period); statuses must match the constraint predicate
+    @Query(value = """
+        select exists (
+            select 1 from venue_bookings b
+            where b.venue_id = :venueId
+              and b.status in ('PENDING', 'PAYMENT_PENDING', 'BOOKED', 'ACCEPTED')
+              and b.period && tsrange(:startTime, :endTime, '[)')
+        )
+    """, nativeQuery = true)
+    boolean existsActiveOverlap(@Param("venueId") Long venueId,
+                                @Param("startTime") LocalDateTime startTime,
+                                @Param("endTime") LocalDateTime endTime);
+
+    /** Fails PENDING reservations whose checkout session was never attached (crash between the two booking phases). */
+    @Modifying
+    @Query("""
+            update VenueBooking b
+            set b.status = com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus.FAILED,
+                b.paymentStatus = com.example.cdr.eventsmanagementsystem.Model.Booking.PaymentStatus.FAILED
+            where b.status = com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus.PENDING
+            and b.stripeSessionId is null
+            and b.createdAt < :cutoff
+            """)
+    int failOrphanedReservations(@Param("cutoff") LocalDateTime cutoff);
 
-    List<VenueBooking> findByVenueId(Long venueId);
+    /** AUTHORIZED bookings that start before {@code captureBefore} or whose hold is older than {@code authorizedBefore}, keyset-paged by id. */
+    @Query("""
+            select b.id from VenueBooking b
+            where b.paymentStatus = com.example.cdr.eventsmanagementsystem.Model.Booking.PaymentStatus.AUTHORIZED
+            and b.stripePaymentId is not null
+            and b.id > :afterId
+            and (b.startTime <= :captureBefore or coalesce(b.authorizedAt, b.createdAt) <= :authorizedBefore)
+            order by b.id
+            """)
+    List<Long> findAuthorizedDueAfter(@Param("afterId") long afterId,
+                                      @Param("captureBefore") LocalDateTime captureBefore,
+                                      @Param("authorizedBefore") LocalDateTime authorizedBefore,
+                                      Pageable pageable);
 }
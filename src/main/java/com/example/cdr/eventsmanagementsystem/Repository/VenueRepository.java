@@ -1,13 +1,35 @@
 package com.example.cdr.eventsmanagementsystem.Repository;
 
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
 import com.example.cdr.eventsmanagementsystem.Model.User.VenueProvider;
 import com.example.cdr.eventsmanagementsystem.Model.Venue.Venue;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+
 @Repository
 public interface VenueRepository extends JpaRepository<Venue,Long> {
     Page<Venue> findByVenueProvider(VenueProvider venueProvider, Pageable pageable);
+
+    // venues with no overlapping occupying booking in [startDate, endDate); filtered before paging so totals are exact
+    @Query("""
+        select v from Venue v
+        where not exists (
+            select 1 from VenueBooking vb
+            where vb.venueId = v.id
+              and vb.status in :occupyingStatuses
+              and vb.startTime < :endDate
+              and vb.endTime > :startDate
+        )
+    """)
+    Page<Venue> findAvailableBetween(@Param("startDate") LocalDateTime startDate,
+                                     @Param("endDate") LocalDateTime endDate,
+                                     @Param("occupyingStatuses") Collection<BookingStatus> occupyingStatuses,
+                                     Pageable pageable);
 }
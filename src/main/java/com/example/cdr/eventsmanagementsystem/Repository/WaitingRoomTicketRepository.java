@@ -0,0 +1,84 @@
+package com.example.cdr.eventsmanagementsystem.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.cdr.eventsmanagementsystem.Model.Booking.AdmissionStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.WaitingRoomTicket;
+
+@Repository
+public interface WaitingRoomTicketRepository extends JpaRepository<WaitingRoomTicket, Long> {
+
+    Optional<WaitingRoomTicket> findByToken(String token);
+
+    Optional<WaitingRoomTicket> findFirstByEventIdAndUserIdAndStatusInOrderByIdDesc(Long eventId, String userId, Collection<AdmissionStatus> statuses);
+
+    /** Number of tickets ahead of {@code id} in the queue. */
+    long countByEventIdAndStatusAndIdLessThan(Long eventId, AdmissionStatus status, Long id);
+
+    @Query("select distinct t.eventId from WaitingRoomTicket t where t.status = com.example.cdr.eventsmanagementsystem.Model.Booking.AdmissionStatus.WAITING")
+    List<Long> findEventIdsWithWaitingTickets();
+
+    /** Admits the {@code limit} oldest waiting tickets of an event. */
+    @Modifying
+    @Query(value = """
+        update waiting_room_tickets
+        set status = 'ADMITTED', admitted_at = :now, expires_at = :expiresAt
+        where id in (
+            select id from waiting_room_tickets
+            where event_id = :eventId and status = 'WAITING'
+            order by id
+            limit :limit
+            for update skip locked)
+        """, nativeQuery = true)
+    int admitNext(@Param("eventId") Long eventId,
+                  @Param("limit") int limit,
+                  @Param("now") LocalDateTime now,
+                  @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Spends an admission: flips it to USED only if it is still ADMITTED and unexpired and
+     * belongs to the caller, so two concurrent bookings cannot both use it.
+     */
+    @Modifying
+    @Query(value = """
+        update waiting_room_tickets set status = 'USED'
+        where token = :token and event_id = :eventId and user_id = :userId
+          and status = 'ADMITTED' and expires_at > :now
+        """, nativeQuery = true)
+    int consumeAdmitted(@Param("token") String token,
+                        @Param("eventId") Long eventId,
+                        @Param("userId") String userId,
+                        @Param("now") LocalDateTime now);
+
+    /** Gives back an admission spent by a booking that then failed, while its window is still open. */
+    @Modifying
+    @Query(value = """
+        update waiting_room_tickets set status = 'ADMITTED'
+        where token = :token and event_id = :eventId and user_id = :userId
+          and status = 'USED' and expires_at > :now
+        """, nativeQuery = true)
+    int restoreAdmission(@Param("token") String token,
+                         @Param("eventId") Long eventId,
+                         @Param("userId") String userId,
+                         @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = """
+        update waiting_room_tickets set status = 'EXPIRED'
+        where status = 'ADMITTED' and expires_at < :now
+        """, nativeQuery = true)
+    int expireAdmitted(@Param("now") LocalDateTime now);
+
+    /** Transaction-scoped leader election so only one replica admits per tick. */
+    @Query(value = "select pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryXactLock(@Param("key") long key);
+}
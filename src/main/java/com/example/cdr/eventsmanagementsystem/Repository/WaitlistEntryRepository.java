@@ -0,0 +1,57 @@
+package com.example.cdr.eventsmanagementsystem.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.cdr.eventsmanagementsystem.Model.Booking.WaitlistEntry;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.WaitlistStatus;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    Optional<WaitlistEntry> findFirstByEventIdAndUserIdAndStatusOrderByIdDesc(Long eventId, String userId, WaitlistStatus status);
+
+    /** Number of entries ahead of {@code id} in the queue. */
+    long countByEventIdAndStatusAndIdLessThan(Long eventId, WaitlistStatus status, Long id);
+
+    /**
+     * Claims the head of an event's queue; an index seek, skipping heads other replicas are
+     * promoting and entries backing off after a failed offer.
+     */
+    @Query(value = """
+        select * from event_waitlist
+        where event_id = :eventId and status = 'WAITING'
+        and (next_attempt_at is null or next_attempt_at <= :now)
+        order by id
+        limit 1
+        for update skip locked
+        """, nativeQuery = true)
+    Optional<WaitlistEntry> lockNextWaiting(@Param("eventId") Long eventId, @Param("now") LocalDateTime now);
+
+    /** Events with people waiting and at least one free ticket, for the periodic catch-up sweep. */
+    @Query("""
+        select distinct w.eventId from WaitlistEntry w, Event e
+        where e.id = w.eventId
+        and w.status = com.example.cdr.eventsmanagementsystem.Model.Booking.WaitlistStatus.WAITING
+        and (w.nextAttemptAt is null or w.nextAttemptAt <= :now)
+        and e.capacity is not null and e.ticketsSold < e.capacity
+        """)
+    List<Long> findEventIdsReadyForPromotion(@Param("now") LocalDateTime now);
+
+    /** Settles the offers made with these bookings; entries no longer OFFERED are left alone. */
+    @Modifying
+    @Query("""
+        update WaitlistEntry w set w.status = :status
+        where w.bookingId in :bookingIds
+        and w.status = com.example.cdr.eventsmanagementsystem.Model.Booking.WaitlistStatus.OFFERED
+        """)
+    int settleOffers(@Param("bookingIds") Collection<Long> bookingIds, @Param("status") WaitlistStatus status);
+}
@@ -4,6 +4,7 @@ import com.example.cdr.eventsmanagementsystem.Model.User.Admin;
 import com.example.cdr.eventsmanagementsystem.Model.User.BaseRoleEntity;
 import com.example.cdr.eventsmanagementsystem.Model.User.VenueProvider;
 import com.example.cdr.eventsmanagementsystem.Repository.UsersRepository.AdminRepository;
+import com.example.cdr.eventsmanagementsystem.Service.User.UserRoleIndexService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,6 +22,7 @@ import java.util.Optional;
 public class AdminHandler implements UserRoleHandler<Admin> {
 
     private final AdminRepository adminRepository;
+    private final UserRoleIndexService userRoleIndexService;
 
     @Override
     public boolean supports(String role) {
@@ -36,6 +38,8 @@ public class AdminHandler implements UserRoleHandler<Admin> {
     @Override
     @Transactional
     public Admin createNewUser(String userId, String email, String firstName, String lastName) {
+        userRoleIndexService.record(userId, "admin");
+
         Optional<Admin> existingUser = adminRepository.findByEmail(email);
 
         if (existingUser.isPresent()) {
@@ -4,6 +4,7 @@ import com.example.cdr.eventsmanagementsystem.Model.User.Attendee;
 import com.example.cdr.eventsmanagementsystem.Model.User.BaseRoleEntity;
 import com.example.cdr.eventsmanagementsystem.Model.User.VenueProvider;
 import com.example.cdr.eventsmanagementsystem.Repository.UsersRepository.AttendeeRepository;
+import com.example.cdr.eventsmanagementsystem.Service.User.UserRoleIndexService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,6 +22,7 @@ import java.util.Optional;
 public class AttendeeHandler implements UserRoleHandler<Attendee> {
 
     private final AttendeeRepository attendeeRepository;
+    private final UserRoleIndexService userRoleIndexService;
 
     @Override
     public boolean supports(String role) {
@@ -36,6 +38,8 @@ public class AttendeeHandler implements UserRoleHandler<Attendee> {
     @Override
     @Transactional
     public Attendee createNewUser(String userId, String email, String firstName, String lastName) {
+        userRoleIndexService.record(userId, "attendee");
+
         Optional<Attendee> existingUser = attendeeRepository.findByEmail(email);
 
         if (existingUser.isPresent()) {
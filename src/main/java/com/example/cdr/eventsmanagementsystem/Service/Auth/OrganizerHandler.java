@@ -4,6 +4,7 @@ import com.example.cdr.eventsmanagementsystem.Model.User.Organizer;
 import com.example.cdr.eventsmanagementsystem.Model.User.BaseRoleEntity;
 import com.example.cdr.eventsmanagementsystem.Model.User.VenueProvider;
 import com.example.cdr.eventsmanagementsystem.Repository.UsersRepository.OrganizerRepository;
+import com.example.cdr.eventsmanagementsystem.Service.User.UserRoleIndexService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,6 +22,7 @@ import java.util.Optional;
 public class OrganizerHandler implements UserRoleHandler<Organizer> {
 
     private final OrganizerRepository organizerRepository;
+    private final UserRoleIndexService userRoleIndexService;
 
     @Override
     public boolean supports(String role) {
@@ -36,6 +38,8 @@ public class OrganizerHandler implements UserRoleHandler<Organizer> {
     @Override
     @Transactional
     public Organizer createNewUser(String userId, String email, String firstName, String lastName) {
+        userRoleIndexService.record(userId, "organizer");
+
         Optional<Organizer> existingUser = organizerRepository.findByEmail(email);
 
         if (existingUser.isPresent()) {
@@ -4,6 +4,7 @@ import com.example.cdr.eventsmanagementsystem.Model.User.ServiceProvider;
 import com.example.cdr.eventsmanagementsystem.Model.User.BaseRoleEntity;
 import com.example.cdr.eventsmanagementsystem.Model.User.VenueProvider;
 import com.example.cdr.eventsmanagementsystem.Repository.UsersRepository.ServiceProviderRepository;
+import com.example.cdr.eventsmanagementsystem.Service.User.UserRoleIndexService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,6 +22,7 @@ import java.util.Optional;
 public class ServiceProviderHandler implements UserRoleHandler<ServiceProvider> {
 
     private final ServiceProviderRepository serviceProviderRepository;
+    private final UserRoleIndexService userRoleIndexService;
 
     @Override
     public boolean supports(String role) {
@@ -36,6 +38,8 @@ public class ServiceProviderHandler implements UserRoleHandler<ServiceProvider>
     @Override
     @Transactional
     public ServiceProvider createNewUser(String userId, String email, String firstName, String lastName) {
+        userRoleIndexService.record(userId, "service_provider");
+
         Optional<ServiceProvider> existingUser = serviceProviderRepository.findByEmail(email);
 
         if (existingUser.isPresent()) {
@@ -3,6 +3,7 @@ package com.example.cdr.eventsmanagementsystem.Service.Auth;
 import com.example.cdr.eventsmanagementsystem.Model.User.BaseRoleEntity;
 import com.example.cdr.eventsmanagementsystem.Model.User.VenueProvider;
 import com.example.cdr.eventsmanagementsystem.Repository.UsersRepository.VenueProviderRepository;
+import com.example.cdr.eventsmanagementsystem.Service.User.UserRoleIndexService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,6 +21,7 @@ import java.util.Optional;
 public class VenueProviderHandler implements UserRoleHandler<VenueProvider> {
 
     private final VenueProviderRepository venueProviderRepository;
+    private final UserRoleIndexService userRoleIndexService;
 
     @Override
     public boolean supports(String role) {
@@ -35,6 +37,8 @@ public class VenueProviderHandler implements UserRoleHandler<VenueProvider> {
     @Override
     @Transactional
     public VenueProvider createNewUser(String userId, String email, String firstName, String lastName) {
+        userRoleIndexService.record(userId, "venue_provider");
+
         Optional<VenueProvider> existingUser = venueProviderRepository.findByEmail(email);
 
         if (existingUser.isPresent()) {
@@ -0,0 +1,160 @@
+package com.example.cdr.eventsmanagementsystem.Service.Booking;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.EventBooking;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.PaymentStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.WaitlistStatus;
+import com.example.cdr.eventsmanagementsystem.Repository.EventBookingRepository;
+import com.example.cdr.eventsmanagementsystem.Repository.WaitlistEntryRepository;
+import com.example.cdr.eventsmanagementsystem.Service.Event.EventInventoryService;
+import com.example.cdr.eventsmanagementsystem.Service.Payment.StripeService;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Short-lived ticket holds for unpaid event bookings. A PENDING booking keeps its ticket
+ * only until {@code holdExpiresAt}; after that its checkout session is expired at Stripe so
+ * it can no longer be paid, and only then is the booking failed and its ticket returned to
+ * inventory. A ticket is never released while its buyer can still pay for it.
+ *
+ * <p>Holds created on this node are expired promptly by an in-memory timing wheel. A periodic
+ * {@code SKIP LOCKED} sweep over the table catches holds from crashed or other nodes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingHoldService {
+    private final EventBookingRepository bookingRepository;
+    private final WaitlistEntryRepository waitlistRepository;
+    private final EventInventoryService eventInventoryService;
+    private final StripeService stripeService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService virtualThreadExecutor;
+
+    @Value("${app.booking.hold.ttl:PT10M}")
+    private Duration holdTtl;
+
+    @Value("${app.booking.hold.wheel-tick:PT1S}")
+    private Duration wheelTick;
+
+    @Value("${app.booking.hold.wheel-slots:1024}")
+    private int wheelSlots;
+
+    @Value("${app.booking.hold.sweep-batch-size:200}")
+    private int sweepBatchSize;
+
+    private HoldExpiryWheel wheel;
+
+    @PostConstruct
+    void init() {
+        wheel = new HoldExpiryWheel(wheelTick, wheelSlots, System.currentTimeMillis());
+    }
+
+    public LocalDateTime newHoldDeadline() {
+        return LocalDateTime.now().plus(holdTtl);
+    }
+
+    /** Arms the in-memory timer for a committed hold. */
+    public void track(EventBooking booking) {
+        if (booking.getHoldExpiresAt() != null) {
+            wheel.schedule(booking.getId(), booking.getHoldExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.booking.hold.wheel-tick:PT1S}")
+    public void advanceWheel() {
+        List<Long> due = wheel.advance(System.currentTimeMillis());
+        if (!due.isEmpty()) {
+            expire(() -> bookingRepository.lockExpiredHolds(due, LocalDateTime.now()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.booking.hold.sweep-interval:PT1M}")
+    public void sweep() {
+        int expired;
+        do {
+            expired = expire(() -> bookingRepository.lockNextExpiredHolds(LocalDateTime.now(), sweepBatchSize));
+        } while (expired == sweepBatchSize);
+    }
+
+    private interface HoldQuery {
+        List<EventBooking> lock();
+    }
+
+    /**
+     * Expires one batch of holds. Each hold's checkout session is closed at Stripe first, with
+     * no transaction open; only holds whose checkout can no longer be paid are then failed and
+     * their tickets released, in one short transaction that re-checks them under lock. A
+     * session the buyer completed meanwhile is left for its webhook to settle.
+     *
+     * @return the number of holds released
+     */
+    private int expire(HoldQuery query) {
+        List<EventBooking> candidates = transactionTemplate.execute(status -> query.lock());
+        if (candidates == null || candidates.isEmpty()) {
+            return 0;
+        }
+        List<CompletableFuture<Long>> checks = candidates.stream()
+                .map(hold -> CompletableFuture.supplyAsync(() -> closeCheckout(hold) ? hold.getId() : null, virtualThreadExecutor))
+                .toList();
+        List<Long> unpayable = checks.stream().map(CompletableFuture::join).filter(Objects::nonNull).toList();
+        if (unpayable.isEmpty()) {
+            return 0;
+        }
+
+        Integer expired = transactionTemplate.execute(status -> {
+            List<EventBooking> holds = bookingRepository.lockExpiredHolds(unpayable, LocalDateTime.now());
+            for (EventBooking booking : holds) {
+                booking.setStatus(BookingStatus.FAILED);
+                booking.setPaymentStatus(PaymentStatus.EXPIRED);
+                eventInventoryService.sync(booking);
+            }
+            if (!holds.isEmpty()) {
+                waitlistRepository.settleOffers(holds.stream().map(EventBooking::getId).toList(), WaitlistStatus.EXPIRED);
+            }
+            return holds.size();
+        });
+        log.info("Released {} expired ticket holds", expired);
+        return expired == null ? 0 : expired;
+    }
+
+    /** True once the hold's checkout can no longer be paid; false keeps the hold for the webhook or the next sweep. */
+    private boolean closeCheckout(EventBooking hold) {
+        String sessionId = hold.getStripeSessionId();
+        if (sessionId == null) {
+            return true;
+        }
+        try {
+            stripeService.expireCheckoutSession(sessionId);
+            return true;
+        } catch (RuntimeException e) {
+            // Stripe refuses to expire a session that is no longer open; find out why
+            try {
+                String state = stripeService.retrieveSession(sessionId).getStatus();
+                if ("expired".equals(state)) {
+                    return true;
+                }
+                log.info("Checkout session {} of booking {} is {}; leaving the hold to its webhook", sessionId, hold.getId(), state);
+            } catch (RuntimeException retrieveFailed) {
+                log.warn("Could not expire checkout session {}; booking {} keeps its hold until the next sweep: {}",
+                        sessionId, hold.getId(), e.getMessage());
+            }
+            return false;
+        }
+    }
+}
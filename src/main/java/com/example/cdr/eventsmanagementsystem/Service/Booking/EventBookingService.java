@@ -1,7 +1,11 @@
 package com.example.cdr.eventsmanagementsystem.Service.Booking;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Optional;
 
+import com.example.cdr.eventsmanagementsystem.Service.Notifications.NotificationUtil;
+import com.example.cdr.eventsmanagementsystem.Service.Payment.AutoPayService;
 import com.example.cdr.eventsmanagementsystem.Service.Payment.StripeService;
 import com.example.cdr.eventsmanagementsystem.Util.BookingUtil;
 import org.springframework.context.ApplicationEventPublisher;
@@ -13,6 +17,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import static com.example.cdr.eventsmanagementsystem.Constants.ControllerConstants.RoleConstants.ADMIN_ROLE;
 import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.BOOKING_NOT_FOUND;
@@ -26,6 +31,7 @@ import com.example.cdr.eventsmanagementsystem.DTO.Booking.Request.EventBookingRe
 import com.example.cdr.eventsmanagementsystem.DTO.Booking.Response.EventBookingResponse;
 import com.example.cdr.eventsmanagementsystem.Mapper.EventBookingMapper;
 import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.PaymentStatus;
 import com.example.cdr.eventsmanagementsystem.Model.Booking.EventBooking;
 import com.example.cdr.eventsmanagementsystem.Model.Event.Event;
 import com.example.cdr.eventsmanagementsystem.Model.User.Attendee;
@@ -36,8 +42,10 @@ import com.example.cdr.eventsmanagementsystem.NotificationEvent.BookingCreation.
 import com.example.cdr.eventsmanagementsystem.Repository.EventBookingRepository;
 import com.example.cdr.eventsmanagementsystem.Repository.EventRepository;
 import com.example.cdr.eventsmanagementsystem.Service.Auth.UserSyncService;
+import com.example.cdr.eventsmanagementsystem.Service.Event.EventInventoryService;
 import com.example.cdr.eventsmanagementsystem.Util.AuthUtil;
-import com.stripe.model.Customer;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.checkout.Session;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -57,6 +65,14 @@ public class EventBookingService {
     private final EventBookingMapper bookingMapper;
     private final ApplicationEventPublisher eventPublisher;
     private final BookingUtil bookingUtil;
+    private final TransactionTemplate transactionTemplate;
+    private final AutoPayService autoPayService;
+    private final NotificationUtil notificationUtil;
+    private final EventInventoryService eventInventoryService;
+    private final WaitingRoomService waitingRoomService;
+    private final BookingHoldService bookingHoldService;
+
+    private record Reservation(Event event, Attendee attendee, EventBooking booking) {}
 
     public Page<EventBookingResponse> getAllEventBookings(Pageable pageable) {
         Page<EventBooking> bookings = bookingRepository.findAll(pageable);
@@ -97,38 +113,128 @@ public class EventBookingService {
         return bookingMapper.toEventBookingResponse(booking);
     }
 
-    @Transactional
+    /**
+     * Books in two short transactions so no JDBC connection is held across Stripe calls:
+     * the PENDING reservation commits first (claiming the slot), Stripe is called with no
+     * transaction open, and the checkout session is attached in a second transaction.
+     * With auto-pay on, the default card is charged off-session instead and the booking is
+     * confirmed in the attach transaction; checkout remains the fallback.
+     * A failed Stripe call releases the reservation and gives back the waiting-room
+     * admission it spent; a crash in between is cleaned up by
+     * {@link PendingReservationReaper}. The ticket is only held until the deadline set by
+     * {@link BookingHoldService}.
+     * <p>
+     * Free events never reach Stripe: the booking is confirmed in the reservation
+     * transaction itself.
+     */
     public EventBookingResponse createBooking(EventBookingRequest request) {
-        Event event = eventRepository.findById(request.getEventId()).orElseThrow(() -> new EntityNotFoundException(EVENT_NOT_FOUND));
-
-        Attendee attendee = userSyncService.ensureUserExists(Attendee.class);
-        if (attendee.getStripeCustomerId() == null) {
-            Customer createdCustomer = stripeService.createCustomer(attendee.getEmail(), attendee.getFullName(), null);
-            attendee.setStripeCustomerId(createdCustomer.getId());
-            userSyncService.getHandlerForRole(userSyncService.getCurrentUserRole(SecurityContextHolder.getContext().getAuthentication())).saveUser(attendee);
+        Reservation reservation = transactionTemplate.execute(status -> {
+            Event event = eventRepository.findById(request.getEventId()).orElseThrow(() -> new EntityNotFoundException(EVENT_NOT_FOUND));
+            waitingRoomService.consumeAdmission(event, request.getAdmissionToken());
+            Attendee attendee = userSyncService.ensureUserExists(Attendee.class);
+            EventBooking booking = bookingMapper.toEventBooking(request);
+            if (isFree(event)) {
+                return new Reservation(event, attendee, confirmFreeBooking(booking));
+            }
+            booking.setHoldExpiresAt(bookingHoldService.newHoldDeadline());
+            eventInventoryService.reserve(booking);
+            booking = bookingRepository.save(booking);
+            return new Reservation(event, attendee, booking);
+        });
+        if (isFree(reservation.event())) {
+            return bookingMapper.toEventBookingResponse(reservation.booking());
+        }
+        Long bookingId = reservation.booking().getId();
+
+        String newCustomerId = null;
+        Optional<PaymentIntent> autoPaid;
+        Session session;
+        try {
+            String customerId = reservation.attendee().getStripeCustomerId();
+            if (customerId == null) {
+                Attendee attendee = reservation.attendee();
+                newCustomerId = stripeService.createCustomer(attendee.getEmail(), attendee.getFullName(), null).getId();
+                customerId = newCustomerId;
+            }
+            BigDecimal amount = reservation.event().getRetailPrice();
+            String description = "Event ticket for: " + reservation.event().getName();
+            boolean manualCapture = request.getIsCaptured() != null ? request.getIsCaptured() : false;
+            autoPaid = autoPayService.tryCharge(reservation.attendee(), bookingId, BookingType.EVENT,
+                    amount, request.getCurrency(), manualCapture, description);
+            session = autoPaid.isPresent() ? null : stripeService.createCheckoutSession(
+                    customerId,
+                    amount,
+                    request.getCurrency(),
+                    description,
+                    bookingId,
+                    SETUP_FUTURE_USAGE_ON_SESSION,
+                    manualCapture,
+                    BookingType.EVENT
+            );
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status -> bookingRepository.findById(bookingId).ifPresent(booking -> {
+                booking.setStatus(BookingStatus.FAILED);
+                booking.setPaymentStatus(PaymentStatus.FAILED);
+                eventInventoryService.sync(booking);
+                waitingRoomService.restoreAdmission(reservation.event(), request.getAdmissionToken());
+            }));
+            throw e;
         }
 
-        EventBooking booking = bookingMapper.toEventBooking(request);
-        var session = stripeService.createCheckoutSession(
-                attendee.getStripeCustomerId(),
-                event.getRetailPrice(),
-                request.getCurrency(),
-                "Event ticket for: " + event.getName(),
-                booking.getId(),
-                SETUP_FUTURE_USAGE_ON_SESSION,
-                request.getIsCaptured() != null ? request.getIsCaptured() : false,
-                BookingType.EVENT
-        );
-        booking.setStripeSessionId(session.getId());
-
-        bookingRepository.save(booking);
-        eventPublisher.publishEvent(new EventBookingCreated(booking));
+        String createdCustomerId = newCustomerId;
+        EventBooking booking;
+        try {
+            booking = transactionTemplate.execute(status -> {
+                if (createdCustomerId != null) {
+                    Attendee attendee = reservation.attendee();
+                    attendee.setStripeCustomerId(createdCustomerId);
+                    userSyncService.getHandlerForRole(userSyncService.getCurrentUserRole(SecurityContextHolder.getContext().getAuthentication())).saveUser(attendee);
+                }
+                EventBooking attached = bookingRepository.findById(bookingId).orElseThrow(() -> new EntityNotFoundException(BOOKING_NOT_FOUND));
+                if (autoPaid.isPresent()) {
+                    autoPayService.applyPayment(attached, autoPaid.get());
+                    eventInventoryService.sync(attached);
+                    eventPublisher.publishEvent(new EventBookingCreated(attached));
+                    notificationUtil.publishEvent(attached);
+                    return attached;
+                }
+                attached.setStripeSessionId(session.getId());
+                bookingUtil.registerPaymentReference(session.getId(), attached);
+                eventPublisher.publishEvent(new EventBookingCreated(attached));
+                return attached;
+            });
+        } catch (RuntimeException e) {
+            // the card is already charged for a booking that was not saved
+            autoPaid.ifPresent(autoPayService::reverse);
+            throw e;
+        }
+        if (autoPaid.isPresent()) {
+            return bookingMapper.toEventBookingResponse(booking);
+        }
+        bookingHoldService.track(booking);
 
         EventBookingResponse response = bookingMapper.toEventBookingResponse(booking);
         response.setPaymentUrl(session.getUrl());
         return response;
     }
 
+    private boolean isFree(Event event) {
+        return event.getRetailPrice() == null || event.getRetailPrice().signum() == 0;
+    }
+
+    /** Books a free ticket outright: nothing to pay, so no hold, checkout session or webhook. */
+    private EventBooking confirmFreeBooking(EventBooking booking) {
+        booking.setAmount(BigDecimal.ZERO);
+        booking.setStatus(BookingStatus.BOOKED);
+        booking.setPaymentStatus(PaymentStatus.CAPTURED);
+        eventInventoryService.reserve(booking);
+        booking = bookingRepository.save(booking);
+        // Created feeds the daily booking stats; the listener sends no payment request for a BOOKED booking
+        eventPublisher.publishEvent(new EventBookingCreated(booking));
+        eventPublisher.publishEvent(new EventBookingConfirmed(booking));
+        return booking;
+    }
+
     @Transactional
     public EventBookingResponse updateBookingStatus(Long bookingId, BookingStatus status) {
         EventBooking booking = bookingRepository.findById(bookingId).orElseThrow(() -> new EntityNotFoundException(BOOKING_NOT_FOUND));
@@ -147,6 +253,7 @@ public class EventBookingService {
 
         BookingStatus oldStatus = booking.getStatus();
         booking.setStatus(status);
+        eventInventoryService.sync(booking);
 
         if (oldStatus == BookingStatus.PENDING && status == BookingStatus.BOOKED) {
             eventPublisher.publishEvent(new EventBookingConfirmed(booking));
@@ -183,6 +290,7 @@ public class EventBookingService {
         booking.setCancellationReason(request.getReason());
         booking.setCancelledAt(LocalDateTime.now(utc));
         booking.setCancelledBy(currentUserId);
+        eventInventoryService.sync(booking);
 
         bookingRepository.save(booking);
         eventPublisher.publishEvent(new EventBookingCancelled(booking, request.getReason()));
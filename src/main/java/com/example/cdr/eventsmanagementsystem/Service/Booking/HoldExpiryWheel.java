@@ -0,0 +1,62 @@
+package com.example.cdr.eventsmanagementsystem.Service.Booking;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Hashed timing wheel for booking-hold deadlines. Scheduling and expiry are O(1) per hold
+ * regardless of how many are outstanding; a deadline further out than one revolution simply
+ * stays in its slot until the pass on which it is due.
+ *
+ * <p>In-memory only: it makes expiry prompt on the node that created the hold, while
+ * {@link BookingHoldService}'s database sweep remains the source of truth after a restart.
+ */
+class HoldExpiryWheel {
+    private record Timeout(Long bookingId, long deadlineMillis) {}
+
+    private final long tickMillis;
+    private final List<List<Timeout>> slots;
+    private long lastTick;
+
+    HoldExpiryWheel(Duration tick, int slotCount, long nowMillis) {
+        this.tickMillis = tick.toMillis();
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(new ArrayList<>());
+        }
+        this.lastTick = nowMillis / tickMillis;
+    }
+
+    synchronized void schedule(Long bookingId, long deadlineMillis) {
+        // round up: the slot is only visited once its tick has started, so a timeout in it is
+        // always due then; never place a timeout in a slot the wheel has already passed
+        long tick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), lastTick + 1);
+        slots.get(slotIndex(tick)).add(new Timeout(bookingId, deadlineMillis));
+    }
+
+    /** Advances the wheel to {@code nowMillis} and returns the bookings whose holds are due. */
+    synchronized List<Long> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<Long> due = new ArrayList<>();
+        // after a long pause one revolution visits every slot; further passes would repeat them
+        long firstTick = Math.max(lastTick + 1, targetTick - slots.size() + 1);
+        for (long tick = firstTick; tick <= targetTick; tick++) {
+            Iterator<Timeout> it = slots.get(slotIndex(tick)).iterator();
+            while (it.hasNext()) {
+                Timeout timeout = it.next();
+                if (timeout.deadlineMillis() <= nowMillis) {
+                    due.add(timeout.bookingId());
+                    it.remove();
+                }
+            }
+        }
+        lastTick = Math.max(lastTick, targetTick);
+        return due;
+    }
+
+    private int slotIndex(long tick) {
+        return (int) Math.floorMod(tick, (long) slots.size());
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.cdr.eventsmanagementsystem.Service.Booking;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.EventBooking;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.PaymentStatus;
+import com.example.cdr.eventsmanagementsystem.Repository.EventBookingRepository;
+import com.example.cdr.eventsmanagementsystem.Repository.ServiceBookingRepository;
+import com.example.cdr.eventsmanagementsystem.Repository.VenueBookingRepository;
+import com.example.cdr.eventsmanagementsystem.Service.Event.EventInventoryService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compensates reservations left behind when a node dies between committing the PENDING
+ * booking and attaching its checkout session, so they stop holding venue/service slots.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PendingReservationReaper {
+    private final EventBookingRepository eventBookingRepository;
+    private final VenueBookingRepository venueBookingRepository;
+    private final ServiceBookingRepository serviceBookingRepository;
+    private final EventInventoryService eventInventoryService;
+
+    @Value("${app.booking.reservation-timeout:PT10M}")
+    private Duration reservationTimeout;
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${app.booking.reservation-sweep-interval:PT1M}")
+    public void failOrphanedReservations() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(reservationTimeout);
+        int failed = venueBookingRepository.failOrphanedReservations(cutoff)
+                + serviceBookingRepository.failOrphanedReservations(cutoff);
+        // event bookings go through the entity so their ticket is handed back to inventory
+        for (EventBooking booking : eventBookingRepository.findOrphanedReservations(cutoff)) {
+            booking.setStatus(BookingStatus.FAILED);
+            booking.setPaymentStatus(PaymentStatus.FAILED);
+            eventInventoryService.sync(booking);
+            failed++;
+        }
+        if (failed > 0) {
+            log.warn("Failed {} orphaned booking reservations without a checkout session", failed);
+        }
+    }
+}
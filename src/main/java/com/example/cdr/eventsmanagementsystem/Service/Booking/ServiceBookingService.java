@@ -2,9 +2,12 @@ package com.example.cdr.eventsmanagementsystem.Service.Booking;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Optional;
 
 import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingType;
 
+import com.example.cdr.eventsmanagementsystem.Service.Notifications.NotificationUtil;
+import com.example.cdr.eventsmanagementsystem.Service.Payment.AutoPayService;
 import com.example.cdr.eventsmanagementsystem.Service.Payment.StripeService;
 import com.example.cdr.eventsmanagementsystem.Util.BookingUtil;
 import org.springframework.context.ApplicationEventPublisher;
@@ -14,9 +17,11 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import static com.example.cdr.eventsmanagementsystem.Constants.ControllerConstants.RoleConstants.ADMIN_ROLE;
 import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.BOOKING_NOT_FOUND;
+import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.SERVICE_ALREADY_BOOKED;
 import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.SERVICE_NOT_FOUND;
 import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.YOU_CAN_ONLY_CANCEL_YOUR_OWN_BOOKINGS;
 import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.YOU_CAN_ONLY_UPDATE_YOUR_OWN_BOOKINGS;
@@ -27,6 +32,7 @@ import com.example.cdr.eventsmanagementsystem.DTO.Booking.Request.ServiceBooking
 import com.example.cdr.eventsmanagementsystem.DTO.Booking.Response.ServiceBookingResponse;
 import com.example.cdr.eventsmanagementsystem.Mapper.ServiceBookingMapper;
 import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.PaymentStatus;
 import com.example.cdr.eventsmanagementsystem.Model.Booking.ServiceBooking;
 import com.example.cdr.eventsmanagementsystem.Model.Service.Services;
 import com.example.cdr.eventsmanagementsystem.Model.User.Organizer;
@@ -38,7 +44,8 @@ import com.example.cdr.eventsmanagementsystem.Repository.ServiceBookingRepositor
 import com.example.cdr.eventsmanagementsystem.Repository.ServiceRepository;
 import com.example.cdr.eventsmanagementsystem.Service.Auth.UserSyncService;
 import com.example.cdr.eventsmanagementsystem.Util.AuthUtil;
-import com.stripe.model.Customer;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.checkout.Session;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -58,6 +65,11 @@ public class ServiceBookingService {
     private final ServiceBookingMapper bookingMapper;
     private final ApplicationEventPublisher eventPublisher;
     private final BookingUtil bookingUtil;
+    private final TransactionTemplate transactionTemplate;
+    private final AutoPayService autoPayService;
+    private final NotificationUtil notificationUtil;
+
+    private record Reservation(Services service, Organizer organizer, ServiceBooking booking) {}
 
     public Page<ServiceBookingResponse> getAllServiceBookings(Pageable pageable) {
         Page<ServiceBooking> bookings = bookingRepository.findAll(pageable);
@@ -95,35 +107,92 @@ public class ServiceBookingService {
         return bookingMapper.toServiceBookingResponse(booking);
     }
 
-    @Transactional
+    /**
+     * Books in two short transactions so no JDBC connection is held across Stripe calls:
+     * the PENDING reservation commits first (claiming the slot), Stripe is called with no
+     * transaction open, and the checkout session is attached in a second transaction.
+     * With auto-pay on, the default card is charged off-session instead and the booking is
+     * confirmed in the attach transaction; checkout remains the fallback.
+     * A failed Stripe call releases the reservation; a crash in between is cleaned up by
+     * {@link PendingReservationReaper}.
+     */
     public ServiceBookingResponse createBooking(ServiceBookingRequest request) {
-        Services service = serviceRepository.findById(request.getServiceId()).orElseThrow(() -> new EntityNotFoundException(SERVICE_NOT_FOUND));
+        Reservation reservation = transactionTemplate.execute(status -> {
+            Services service = serviceRepository.findById(request.getServiceId()).orElseThrow(() -> new EntityNotFoundException(SERVICE_NOT_FOUND));
+            // fail fast with a clear message; the exclusion constraint still guards concurrent inserts
+            if (bookingRepository.existsActiveOverlap(service.getId(), request.getStartTime(), request.getEndTime())) {
+                throw new IllegalArgumentException(SERVICE_ALREADY_BOOKED);
+            }
+            Organizer organizer = userSyncService.ensureUserExists(Organizer.class);
+            ServiceBooking booking = bookingRepository.save(bookingMapper.toServiceBooking(request));
+            return new Reservation(service, organizer, booking);
+        });
+        Long bookingId = reservation.booking().getId();
 
-        Organizer organizer = userSyncService.ensureUserExists(Organizer.class);
-        if (organizer.getStripeCustomerId() == null) {
-            Customer createdCustomer = stripeService.createCustomer(organizer.getEmail(), organizer.getFullName(), null);
-            organizer.setStripeCustomerId(createdCustomer.getId());
-            userSyncService.getHandlerForRole(userSyncService.getCurrentUserRole(SecurityContextHolder.getContext().getAuthentication())).saveUser(organizer);
+        String newCustomerId = null;
+        Optional<PaymentIntent> autoPaid;
+        Session session;
+        try {
+            String customerId = reservation.organizer().getStripeCustomerId();
+            if (customerId == null) {
+                Organizer organizer = reservation.organizer();
+                newCustomerId = stripeService.createCustomer(organizer.getEmail(), organizer.getFullName(), null).getId();
+                customerId = newCustomerId;
+            }
+            BigDecimal amount = BigDecimal.valueOf(reservation.service().getPrice());
+            String description = "Service booking for: " + reservation.service().getName();
+            boolean manualCapture = request.getIsCaptured() != null ? request.getIsCaptured() : false;
+            autoPaid = autoPayService.tryCharge(reservation.organizer(), bookingId, BookingType.SERVICE,
+                    amount, request.getCurrency(), manualCapture, description);
+            session = autoPaid.isPresent() ? null : stripeService.createCheckoutSession(
+                    customerId,
+                    amount,
+                    request.getCurrency(),
+                    description,
+                    bookingId,
+                    SETUP_FUTURE_USAGE_ON_SESSION,
+                    manualCapture,
+                    BookingType.SERVICE
+            );
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status -> bookingRepository.findById(bookingId).ifPresent(booking -> {
+                booking.setStatus(BookingStatus.FAILED);
+                booking.setPaymentStatus(PaymentStatus.FAILED);
+            }));
+            throw e;
         }
 
-        ServiceBooking booking = bookingMapper.toServiceBooking(request);
-        var session = stripeService.createCheckoutSession(
-                organizer.getStripeCustomerId(),
-                BigDecimal.valueOf(service.getPrice()),
-                request.getCurrency(),
-                "Service booking for: " + service.getName(),
-                booking.getId(),
-                SETUP_FUTURE_USAGE_ON_SESSION,
-                request.getIsCaptured() != null ? request.getIsCaptured() : false,
-                BookingType.SERVICE
-        );
-        booking.setStripeSessionId(session.getId());
-
-        bookingRepository.save(booking);
-        eventPublisher.publishEvent(new ServiceBookingCreated(booking));
+        String createdCustomerId = newCustomerId;
+        ServiceBooking booking;
+        try {
+            booking = transactionTemplate.execute(status -> {
+                if (createdCustomerId != null) {
+                    Organizer organizer = reservation.organizer();
+                    organizer.setStripeCustomerId(createdCustomerId);
+                    userSyncService.getHandlerForRole(userSyncService.getCurrentUserRole(SecurityContextHolder.getContext().getAuthentication())).saveUser(organizer);
+                }
+                ServiceBooking attached = bookingRepository.findById(bookingId).orElseThrow(() -> new EntityNotFoundException(BOOKING_NOT_FOUND));
+                if (autoPaid.isPresent()) {
+                    autoPayService.applyPayment(attached, autoPaid.get());
+                    eventPublisher.publishEvent(new ServiceBookingCreated(attached));
+                    notificationUtil.publishEvent(attached);
+                    return attached;
+                }
+                attached.setStripeSessionId(session.getId());
+                bookingUtil.registerPaymentReference(session.getId(), attached);
+                eventPublisher.publishEvent(new ServiceBookingCreated(attached));
+                return attached;
+            });
+        } catch (RuntimeException e) {
+            // the card is already charged for a booking that was not saved
+            autoPaid.ifPresent(autoPayService::reverse);
+            throw e;
+        }
 
         ServiceBookingResponse response = bookingMapper.toServiceBookingResponse(booking);
-        response.setPaymentUrl(session.getUrl());
+        if (autoPaid.isEmpty()) {
+            response.setPaymentUrl(session.getUrl());
+        }
         return response;
     }
 
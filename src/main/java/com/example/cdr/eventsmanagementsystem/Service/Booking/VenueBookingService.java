@@ -2,7 +2,10 @@ package com.example.cdr.eventsmanagementsystem.Service.Booking;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Optional;
 
+import com.example.cdr.eventsmanagementsystem.Service.Notifications.NotificationUtil;
+import com.example.cdr.eventsmanagementsystem.Service.Payment.AutoPayService;
 import com.example.cdr.eventsmanagementsystem.Service.Payment.StripeService;
 import com.example.cdr.eventsmanagementsystem.Util.BookingUtil;
 import org.springframework.context.ApplicationEventPublisher;
@@ -14,10 +17,12 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import static com.example.cdr.eventsmanagementsystem.Constants.ControllerConstants.RoleConstants.ADMIN_ROLE;
 import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.BOOKING_NOT_FOUND;
 import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.UNKNOWN_PROVIDER;
+import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.VENUE_ALREADY_BOOKED;
 import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.VENUE_NOT_FOUND;
 import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.YOU_CAN_ONLY_CANCEL_YOUR_OWN_BOOKINGS;
 import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.YOU_CAN_ONLY_UPDATE_YOUR_OWN_BOOKINGS;
@@ -28,6 +33,7 @@ import com.example.cdr.eventsmanagementsystem.DTO.Booking.Request.VenueBookingRe
 import com.example.cdr.eventsmanagementsystem.DTO.Booking.Response.VenueBookingResponse;
 import com.example.cdr.eventsmanagementsystem.Mapper.VenueBookingMapper;
 import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.PaymentStatus;
 import com.example.cdr.eventsmanagementsystem.Model.Booking.VenueBooking;
 import com.example.cdr.eventsmanagementsystem.Model.User.Organizer;
 import com.example.cdr.eventsmanagementsystem.Model.Venue.Venue;
@@ -38,7 +44,8 @@ import com.example.cdr.eventsmanagementsystem.Repository.VenueBookingRepository;
 import com.example.cdr.eventsmanagementsystem.Repository.VenueRepository;
 import com.example.cdr.eventsmanagementsystem.Service.Auth.UserSyncService;
 import com.example.cdr.eventsmanagementsystem.Util.AuthUtil;
-import com.stripe.model.Customer;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.checkout.Session;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -58,6 +65,11 @@ public class VenueBookingService {
     private final VenueBookingMapper bookingMapper;
     private final ApplicationEventPublisher eventPublisher;
     private final BookingUtil bookingUtil;
+    private final TransactionTemplate transactionTemplate;
+    private final AutoPayService autoPayService;
+    private final NotificationUtil notificationUtil;
+
+    private record Reservation(Venue venue, Organizer organizer, VenueBooking booking) {}
 
     public Page<VenueBookingResponse> getAllVenueBookings(Pageable pageable) {
         Page<VenueBooking> bookings = bookingRepository.findAll(pageable);
@@ -94,36 +106,92 @@ public class VenueBookingService {
         return bookingMapper.toVenueBookingResponse(booking);
     }
 
-    @Transactional
+    /**
+     * Books in two short transactions so no JDBC connection is held across Stripe calls:
+     * the PENDING reservation commits first (claiming the slot), Stripe is called with no
+     * transaction open, and the checkout session is attached in a second transaction.
+     * With auto-pay on, the default card is charged off-session instead and the booking is
+     * confirmed in the attach transaction; checkout remains the fallback.
+     * A failed Stripe call releases the reservation; a crash in between is cleaned up by
+     * {@link PendingReservationReaper}.
+     */
     public VenueBookingResponse createBooking(VenueBookingRequest request) {
-        Venue venue = venueRepository.findById(request.getVenueId()).orElseThrow(() -> new EntityNotFoundException(VENUE_NOT_FOUND));
-
-        Organizer organizer = userSyncService.ensureUserExists(Organizer.class);
-        if (organizer.getStripeCustomerId() == null) {
-            Customer createdCustomer = stripeService.createCustomer(organizer.getEmail(), organizer.getFullName(), null);
-            organizer.setStripeCustomerId(createdCustomer.getId());
-            userSyncService.getHandlerForRole(userSyncService.getCurrentUserRole(SecurityContextHolder.getContext().getAuthentication())).saveUser(organizer);
+        Reservation reservation = transactionTemplate.execute(status -> {
+            Venue venue = venueRepository.findById(request.getVenueId()).orElseThrow(() -> new EntityNotFoundException(VENUE_NOT_FOUND));
+            // fail fast with a clear message; the exclusion constraint still guards concurrent inserts
+            if (bookingRepository.existsActiveOverlap(venue.getId(), request.getStartTime(), request.getEndTime())) {
+                throw new IllegalArgumentException(VENUE_ALREADY_BOOKED);
+            }
+            Organizer organizer = userSyncService.ensureUserExists(Organizer.class);
+            VenueBooking booking = bookingRepository.save(bookingMapper.toVenueBooking(request));
+            return new Reservation(venue, organizer, booking);
+        });
+        Long bookingId = reservation.booking().getId();
+
+        String newCustomerId = null;
+        Optional<PaymentIntent> autoPaid;
+        Session session;
+        try {
+            String customerId = reservation.organizer().getStripeCustomerId();
+            if (customerId == null) {
+                Organizer organizer = reservation.organizer();
+                newCustomerId = stripeService.createCustomer(organizer.getEmail(), organizer.getFullName(), null).getId();
+                customerId = newCustomerId;
+            }
+            BigDecimal amount = BigDecimal.valueOf(reservation.venue().getPricing().getPerEvent());
+            String description = "Venue booking for: " + reservation.venue().getName();
+            boolean manualCapture = request.getIsCaptured() != null ? request.getIsCaptured() : false;
+            autoPaid = autoPayService.tryCharge(reservation.organizer(), bookingId, BookingType.VENUE,
+                    amount, request.getCurrency(), manualCapture, description);
+            session = autoPaid.isPresent() ? null : stripeService.createCheckoutSession(
+                    customerId,
+                    amount,
+                    request.getCurrency(),
+                    description,
+                    bookingId,
+                    SETUP_FUTURE_USAGE_ON_SESSION,
+                    manualCapture,
+                    BookingType.VENUE
+            );
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status -> bookingRepository.findById(bookingId).ifPresent(booking -> {
+                booking.setStatus(BookingStatus.FAILED);
+                booking.setPaymentStatus(PaymentStatus.FAILED);
+            }));
+            throw e;
         }
 
-        BigDecimal amount = BigDecimal.valueOf(venue.getPricing().getPerEvent());
-        VenueBooking booking = bookingMapper.toVenueBooking(request);
-        var session = stripeService.createCheckoutSession(
-                organizer.getStripeCustomerId(),
-                amount,
-                request.getCurrency(),
-                "Venue booking for: " + venue.getName(),
-                booking.getId(),
-                SETUP_FUTURE_USAGE_ON_SESSION,
-                request.getIsCaptured() != null ? request.getIsCaptured() : false,
-                BookingType.VENUE
-        );
-        booking.setStripeSessionId(session.getId());
-
-        bookingRepository.save(booking);
-        eventPublisher.publishEvent(new VenueBookingCreated(booking));
+        String createdCustomerId = newCustomerId;
+        VenueBooking booking;
+        try {
+            booking = transactionTemplate.execute(status -> {
+                if (createdCustomerId != null) {
+                    Organizer organizer = reservation.organizer();
+                    organizer.setStripeCustomerId(createdCustomerId);
+                    userSyncService.getHandlerForRole(userSyncService.getCurrentUserRole(SecurityContextHolder.getContext().getAuthentication())).saveUser(organizer);
+                }
+                VenueBooking attached = bookingRepository.findById(bookingId).orElseThrow(() -> new EntityNotFoundException(BOOKING_NOT_FOUND));
+                if (autoPaid.isPresent()) {
+                    autoPayService.applyPayment(attached, autoPaid.get());
+                    eventPublisher.publishEvent(new VenueBookingCreated(attached));
+                    notificationUtil.publishEvent(attached);
+                    return attached;
+                }
+                attached.setStripeSessionId(session.getId());
+                bookingUtil.registerPaymentReference(session.getId(), attached);
+                eventPublisher.publishEvent(new VenueBookingCreated(attached));
+                return attached;
+            });
+        } catch (RuntimeException e) {
+            // the card is already charged for a booking that was not saved
+            autoPaid.ifPresent(autoPayService::reverse);
+            throw e;
+        }
 
         VenueBookingResponse response = bookingMapper.toVenueBookingResponse(booking);
-        response.setPaymentUrl(session.getUrl());
+        if (autoPaid.isEmpty()) {
+            response.setPaymentUrl(session.getUrl());
+        }
         return response;
     }
 
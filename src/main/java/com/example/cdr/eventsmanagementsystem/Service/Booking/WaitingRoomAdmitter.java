@@ -0,0 +1,65 @@
+package com.example.cdr.eventsmanagementsystem.Service.Booking;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.cdr.eventsmanagementsystem.Model.Event.Event;
+import com.example.cdr.eventsmanagementsystem.Repository.EventRepository;
+import com.example.cdr.eventsmanagementsystem.Repository.WaitingRoomTicketRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Releases waiting-room tickets at each event's admit rate. Runs on every replica, but an
+ * advisory lock lets only one of them admit per tick so the rate holds cluster-wide.
+ * Fractional admissions carry over between ticks, which keeps low rates smooth; the carry
+ * lives on the event row so whichever replica wins the next tick picks it up.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WaitingRoomAdmitter {
+    private static final long ADMITTER_LOCK_KEY = 0x5741_4954_524FL;
+
+    private final WaitingRoomTicketRepository ticketRepository;
+    private final EventRepository eventRepository;
+
+    @Value("${app.booking.waiting-room.tick:PT1S}")
+    private Duration tick;
+
+    @Value("${app.booking.waiting-room.admission-window:PT10M}")
+    private Duration admissionWindow;
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${app.booking.waiting-room.tick:PT1S}")
+    public void admit() {
+        if (!ticketRepository.tryAdvisoryXactLock(ADMITTER_LOCK_KEY)) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        ticketRepository.expireAdmitted(now);
+
+        List<Long> eventIds = ticketRepository.findEventIdsWithWaitingTickets();
+        for (Event event : eventRepository.findAllById(eventIds)) {
+            Integer perMinute = event.getWaitingRoomAdmitRate();
+            if (perMinute == null || perMinute <= 0) {
+                continue;
+            }
+            double allowance = event.getWaitingRoomCarry() + perMinute * tick.toMillis() / 60_000.0;
+            int batch = (int) allowance;
+            int admitted = batch == 0 ? 0 : ticketRepository.admitNext(event.getId(), batch, now, now.plus(admissionWindow));
+            // an emptied queue does not bank unused allowance for a later burst
+            eventRepository.setWaitingRoomCarry(event.getId(), admitted < batch ? 0.0 : allowance - batch);
+            if (admitted > 0) {
+                log.debug("Admitted {} buyers from the waiting room of event {}", admitted, event.getId());
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.cdr.eventsmanagementsystem.Service.Booking;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.ADMISSION_REQUIRED;
+import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.EVENT_NOT_FOUND;
+import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.WAITING_ROOM_NOT_ENABLED;
+import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.WAITING_ROOM_TICKET_NOT_FOUND;
+import com.example.cdr.eventsmanagementsystem.DTO.Booking.Response.WaitingRoomResponse;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.AdmissionStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.WaitingRoomTicket;
+import com.example.cdr.eventsmanagementsystem.Model.Event.Event;
+import com.example.cdr.eventsmanagementsystem.Repository.EventRepository;
+import com.example.cdr.eventsmanagementsystem.Repository.WaitingRoomTicketRepository;
+import com.example.cdr.eventsmanagementsystem.Util.AuthUtil;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Admission control in front of event booking. Events with a {@code waitingRoomAdmitRate}
+ * only accept bookings carrying an admitted token; {@link WaitingRoomAdmitter} releases
+ * tokens in FIFO order at that rate, so checkout traffic stays bounded during on-sales.
+ */
+@Service
+@RequiredArgsConstructor
+public class WaitingRoomService {
+    private final WaitingRoomTicketRepository ticketRepository;
+    private final EventRepository eventRepository;
+
+    @Value("${app.booking.waiting-room.poll-interval:PT5S}")
+    private Duration pollInterval;
+
+    /** Places the current user in the event's queue, or returns their existing place. */
+    @Transactional
+    public WaitingRoomResponse join(Long eventId) {
+        Event event = eventRepository.findById(eventId).orElseThrow(() -> new EntityNotFoundException(EVENT_NOT_FOUND));
+        if (event.getWaitingRoomAdmitRate() == null) {
+            throw new IllegalArgumentException(WAITING_ROOM_NOT_ENABLED);
+        }
+        String userId = AuthUtil.getCurrentUserId();
+        WaitingRoomTicket ticket = ticketRepository
+                .findFirstByEventIdAndUserIdAndStatusInOrderByIdDesc(eventId, userId, EnumSet.of(AdmissionStatus.WAITING, AdmissionStatus.ADMITTED))
+                .orElseGet(() -> {
+                    WaitingRoomTicket created = new WaitingRoomTicket();
+                    created.setToken(UUID.randomUUID().toString());
+                    created.setEventId(eventId);
+                    created.setUserId(userId);
+                    created.setStatus(AdmissionStatus.WAITING);
+                    created.setCreatedAt(LocalDateTime.now());
+                    return ticketRepository.save(created);
+                });
+        return toResponse(ticket);
+    }
+
+    public WaitingRoomResponse getStatus(String token) {
+        WaitingRoomTicket ticket = ticketRepository.findByToken(token)
+                .filter(t -> Objects.equals(t.getUserId(), AuthUtil.getCurrentUserId()))
+                .orElseThrow(() -> new EntityNotFoundException(WAITING_ROOM_TICKET_NOT_FOUND));
+        return toResponse(ticket);
+    }
+
+    /**
+     * Spends the caller's admission for a booking of {@code event}; a no-op for events
+     * without a waiting room. Joins the booking's reservation transaction.
+     */
+    @Transactional
+    public void consumeAdmission(Event event, String token) {
+        if (event.getWaitingRoomAdmitRate() == null) {
+            return;
+        }
+        if (token == null
+                || ticketRepository.consumeAdmitted(token, event.getId(), AuthUtil.getCurrentUserId(), LocalDateTime.now()) != 1) {
+            throw new IllegalArgumentException(ADMISSION_REQUIRED);
+        }
+    }
+
+    /**
+     * Returns the admission spent on a booking whose payment could not be started, so the
+     * caller can retry without rejoining the queue. Expired admissions stay spent.
+     */
+    @Transactional
+    public void restoreAdmission(Event event, String token) {
+        if (event.getWaitingRoomAdmitRate() == null || token == null) {
+            return;
+        }
+        ticketRepository.restoreAdmission(token, event.getId(), AuthUtil.getCurrentUserId(), LocalDateTime.now());
+    }
+
+    private WaitingRoomResponse toResponse(WaitingRoomTicket ticket) {
+        Long position = ticket.getStatus() == AdmissionStatus.WAITING
+                ? ticketRepository.countByEventIdAndStatusAndIdLessThan(ticket.getEventId(), AdmissionStatus.WAITING, ticket.getId())
+                : null;
+        return WaitingRoomResponse.builder()
+                .token(ticket.getToken())
+                .eventId(ticket.getEventId())
+                .status(ticket.getStatus())
+                .position(position)
+                .admittedUntil(ticket.getExpiresAt())
+                .pollAfterSeconds(ticket.getStatus() == AdmissionStatus.WAITING ? pollInterval.toSeconds() : 0)
+                .build();
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.cdr.eventsmanagementsystem.Service.Booking;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Currency;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.EVENT_NOT_FOUND;
+import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.EVENT_NOT_SOLD_OUT;
+import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.INVALID_CURRENCY;
+import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.WAITLIST_ENTRY_NOT_FOUND;
+import static com.example.cdr.eventsmanagementsystem.Constants.PaymentConstants.SETUP_FUTURE_USAGE_ON_SESSION;
+import com.example.cdr.eventsmanagementsystem.Constants.NotificationConstants.EmailConstants;
+import com.example.cdr.eventsmanagementsystem.DTO.Booking.Response.WaitlistResponse;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingType;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.EventBooking;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.PaymentStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.WaitlistEntry;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.WaitlistStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Event.Event;
+import com.example.cdr.eventsmanagementsystem.Model.User.Attendee;
+import com.example.cdr.eventsmanagementsystem.NotificationEvent.BookingConfirmation.EventBookingConfirmed;
+import com.example.cdr.eventsmanagementsystem.NotificationEvent.BookingCreation.EventBookingCreated;
+import com.example.cdr.eventsmanagementsystem.NotificationEvent.Inventory.EventTicketReleased;
+import com.example.cdr.eventsmanagementsystem.Repository.EventBookingRepository;
+import com.example.cdr.eventsmanagementsystem.Repository.EventRepository;
+import com.example.cdr.eventsmanagementsystem.Repository.UsersRepository.AttendeeRepository;
+import com.example.cdr.eventsmanagementsystem.Repository.WaitlistEntryRepository;
+import com.example.cdr.eventsmanagementsystem.Service.Event.EventInventoryService;
+import com.example.cdr.eventsmanagementsystem.Service.Notifications.NotificationUtil;
+import com.example.cdr.eventsmanagementsystem.Service.Payment.StripeService;
+import com.example.cdr.eventsmanagementsystem.Util.AuthUtil;
+import com.example.cdr.eventsmanagementsystem.Util.BookingUtil;
+import com.stripe.model.checkout.Session;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Waitlist for sold-out events. Every released ticket triggers one promotion after commit:
+ * the head of the queue is claimed with {@code SKIP LOCKED}, a ticket is taken with the same
+ * conditional update as a normal sale, and the attendee gets a held booking plus a checkout
+ * link (a free event's ticket is confirmed on the spot, like a direct free booking, without
+ * touching Stripe). Unpaid offers expire like any other hold, which frees the ticket for the next entry.
+ * An entry whose offer fails (Stripe unavailable) backs off so the entries behind it are
+ * served, and after {@code max-attempts} failures it is FAILED rather than retried forever.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WaitlistService {
+    private static final DateTimeFormatter OFFER_DEADLINE_FORMAT = DateTimeFormatter.ofPattern("MMM dd yyyy 'at' hh:mm a");
+
+    private final WaitlistEntryRepository waitlistRepository;
+    private final EventRepository eventRepository;
+    private final EventBookingRepository bookingRepository;
+    private final AttendeeRepository attendeeRepository;
+    private final EventInventoryService eventInventoryService;
+    private final BookingHoldService bookingHoldService;
+    private final StripeService stripeService;
+    private final BookingUtil bookingUtil;
+    private final NotificationUtil notificationUtil;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService virtualThreadExecutor;
+
+    @Value("${app.booking.waitlist.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.booking.waitlist.retry-backoff:PT1M}")
+    private Duration retryBackoff;
+
+    @Transactional
+    public WaitlistResponse join(Long eventId, String currency) {
+        String checkoutCurrency = normalizeCurrency(currency);
+        Event event = eventRepository.findById(eventId).orElseThrow(() -> new EntityNotFoundException(EVENT_NOT_FOUND));
+        if (event.getCapacity() == null || event.getTicketsSold() < event.getCapacity()) {
+            throw new IllegalArgumentException(EVENT_NOT_SOLD_OUT);
+        }
+        String userId = AuthUtil.getCurrentUserId();
+        WaitlistEntry entry = waitlistRepository.findFirstByEventIdAndUserIdAndStatusOrderByIdDesc(eventId, userId, WaitlistStatus.WAITING)
+                .orElseGet(() -> {
+                    WaitlistEntry created = new WaitlistEntry();
+                    created.setEventId(eventId);
+                    created.setUserId(userId);
+                    created.setCurrency(checkoutCurrency);
+                    created.setStatus(WaitlistStatus.WAITING);
+                    created.setCreatedAt(LocalDateTime.now());
+                    return waitlistRepository.save(created);
+                });
+        return toResponse(entry);
+    }
+
+    public WaitlistResponse getStatus(Long eventId) {
+        return toResponse(findOwnEntry(eventId));
+    }
+
+    @Transactional
+    public void leave(Long eventId) {
+        WaitlistEntry entry = findOwnEntry(eventId);
+        if (entry.getStatus() == WaitlistStatus.WAITING) {
+            entry.setStatus(WaitlistStatus.LEFT);
+        }
+    }
+
+    /** Joins the confirming transaction, so the offer is ACCEPTED exactly when its booking is BOOKED. */
+    @EventListener
+    @Transactional
+    public void onBookingConfirmed(EventBookingConfirmed confirmed) {
+        waitlistRepository.settleOffers(List.of(confirmed.booking().getId()), WaitlistStatus.ACCEPTED);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTicketReleased(EventTicketReleased released) {
+        virtualThreadExecutor.execute(() -> promoteNext(released.eventId()));
+    }
+
+    /** Catches releases whose promotion was lost (crash, Stripe outage) or happened on a stopped node. */
+    @Scheduled(fixedDelayString = "${app.booking.waitlist.sweep-interval:PT1M}")
+    public void promoteWaiting() {
+        for (Long eventId : waitlistRepository.findEventIdsReadyForPromotion(LocalDateTime.now())) {
+            while (promoteNext(eventId)) {
+                // keep offering while tickets are free and people are waiting
+            }
+        }
+    }
+
+    private record Offer(WaitlistEntry entry, Event event, EventBooking booking) {}
+
+    /** Offers one free ticket to the head of the event's waitlist; false if there was nothing to do. */
+    public boolean promoteNext(Long eventId) {
+        Offer offer;
+        try {
+            offer = transactionTemplate.execute(status -> claimOffer(eventId));
+        } catch (RuntimeException e) {
+            log.error("Waitlist promotion for event {} failed", eventId, e);
+            return false;
+        }
+        if (offer == null) {
+            return false;
+        }
+        if (offer.booking().getStatus() == BookingStatus.BOOKED) {
+            log.info("Booked free ticket {} for event {} to waitlist entry {}", offer.booking().getId(), eventId, offer.entry().getId());
+            return true;
+        }
+        Long bookingId = offer.booking().getId();
+        Attendee attendee = attendeeRepository.findById(offer.entry().getUserId()).orElse(null);
+
+        String newCustomerId = null;
+        Session session;
+        try {
+            if (attendee == null) {
+                throw new IllegalStateException("Attendee " + offer.entry().getUserId() + " no longer exists");
+            }
+            String customerId = attendee.getStripeCustomerId();
+            if (customerId == null) {
+                newCustomerId = stripeService.createCustomer(attendee.getEmail(), attendee.getFullName(), null).getId();
+                customerId = newCustomerId;
+            }
+            session = stripeService.createCheckoutSession(
+                    customerId,
+                    offer.event().getRetailPrice(),
+                    offer.entry().getCurrency(),
+                    "Event ticket for: " + offer.event().getName(),
+                    bookingId,
+                    SETUP_FUTURE_USAGE_ON_SESSION,
+                    false,
+                    BookingType.EVENT
+            );
+        } catch (RuntimeException e) {
+            boolean attendeeGone = attendee == null;
+            transactionTemplate.executeWithoutResult(status -> {
+                bookingRepository.findById(bookingId).ifPresent(booking -> {
+                    booking.setStatus(BookingStatus.FAILED);
+                    booking.setPaymentStatus(PaymentStatus.FAILED);
+                    // no immediate re-promotion: the sweep retries, so a Stripe outage cannot spin this loop
+                    eventInventoryService.sync(booking, false);
+                });
+                waitlistRepository.findById(offer.entry().getId()).ifPresent(entry -> requeueOrFail(entry, attendeeGone, e));
+            });
+            return false;
+        }
+
+        String createdCustomerId = newCustomerId;
+        EventBooking booking = transactionTemplate.execute(status -> {
+            if (createdCustomerId != null) {
+                attendee.setStripeCustomerId(createdCustomerId);
+                attendeeRepository.save(attendee);
+            }
+            EventBooking attached = bookingRepository.findById(bookingId).orElseThrow();
+            attached.setStripeSessionId(session.getId());
+            bookingUtil.registerPaymentReference(session.getId(), attached);
+            eventPublisher.publishEvent(new EventBookingCreated(attached));
+            String content = String.format(EmailConstants.WAITLIST_OFFER, attendee.getFirstName(), offer.event().getName(),
+                    bookingId, attached.getHoldExpiresAt().format(OFFER_DEADLINE_FORMAT), session.getUrl());
+            notificationUtil.send(attendee.getEmail(), "A ticket is waiting for you: " + offer.event().getName(), content);
+            return attached;
+        });
+        bookingHoldService.track(booking);
+        log.info("Offered booking {} for event {} to waitlist entry {}", bookingId, eventId, offer.entry().getId());
+        return true;
+    }
+
+    /** Puts a failed offer back in the queue behind a backoff, or gives up on it for good. */
+    private void requeueOrFail(WaitlistEntry entry, boolean attendeeGone, RuntimeException cause) {
+        entry.setAttempts(entry.getAttempts() + 1);
+        entry.setBookingId(null);
+        entry.setOfferedAt(null);
+        if (attendeeGone || entry.getAttempts() >= maxAttempts) {
+            entry.setStatus(WaitlistStatus.FAILED);
+            entry.setNextAttemptAt(null);
+            log.warn("Giving up on waitlist entry {} after {} failed offer(s): {}", entry.getId(), entry.getAttempts(), cause.getMessage());
+            return;
+        }
+        entry.setStatus(WaitlistStatus.WAITING);
+        entry.setNextAttemptAt(LocalDateTime.now().plus(retryBackoff.multipliedBy(1L << (entry.getAttempts() - 1))));
+        log.warn("Could not open checkout for waitlist entry {}; retrying after {}: {}", entry.getId(), entry.getNextAttemptAt(), cause.getMessage());
+    }
+
+    private Offer claimOffer(Long eventId) {
+        WaitlistEntry entry = waitlistRepository.lockNextWaiting(eventId, LocalDateTime.now()).orElse(null);
+        if (entry == null) {
+            return null;
+        }
+        Event event = eventRepository.findById(eventId).orElseThrow(() -> new EntityNotFoundException(EVENT_NOT_FOUND));
+        EventBooking booking = new EventBooking();
+        booking.setEventId(eventId);
+        booking.setStatus(BookingStatus.PENDING);
+        booking.setStartTime(event.getStartTime());
+        booking.setEndTime(event.getEndTime());
+        booking.setAmount(event.getRetailPrice());
+        booking.setCurrency(entry.getCurrency());
+        // promotions run without a request, so the booking is attributed to the waitlisted attendee explicitly
+        booking.setCreatedBy(entry.getUserId());
+        boolean free = isFree(event);
+        if (free) {
+            // nothing to pay, so no hold or checkout: confirmed here, as EventBookingService does for free events
+            booking.setAmount(BigDecimal.ZERO);
+            booking.setStatus(BookingStatus.BOOKED);
+            booking.setPaymentStatus(PaymentStatus.CAPTURED);
+        } else {
+            booking.setHoldExpiresAt(bookingHoldService.newHoldDeadline());
+        }
+        if (!eventInventoryService.tryReserve(booking)) {
+            return null;
+        }
+        booking = bookingRepository.save(booking);
+        entry.setStatus(free ? WaitlistStatus.ACCEPTED : WaitlistStatus.OFFERED);
+        entry.setOfferedAt(LocalDateTime.now());
+        entry.setBookingId(booking.getId());
+        if (free) {
+            eventPublisher.publishEvent(new EventBookingCreated(booking));
+            eventPublisher.publishEvent(new EventBookingConfirmed(booking));
+        }
+        return new Offer(entry, event, booking);
+    }
+
+    private static boolean isFree(Event event) {
+        return event.getRetailPrice() == null || event.getRetailPrice().signum() == 0;
+    }
+
+    /** Stripe takes lower-case ISO 4217 codes; rejecting others here keeps a bad entry from failing every offer. */
+    private static String normalizeCurrency(String currency) {
+        try {
+            return Currency.getInstance(currency.trim().toUpperCase(Locale.ROOT)).getCurrencyCode().toLowerCase(Locale.ROOT);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException(INVALID_CURRENCY);
+        }
+    }
+
+    private WaitlistEntry findOwnEntry(Long eventId) {
+        return waitlistRepository.findFirstByEventIdAndUserIdAndStatusOrderByIdDesc(eventId, AuthUtil.getCurrentUserId(), WaitlistStatus.WAITING)
+                .or(() -> waitlistRepository.findFirstByEventIdAndUserIdAndStatusOrderByIdDesc(eventId, AuthUtil.getCurrentUserId(), WaitlistStatus.OFFERED))
+                .orElseThrow(() -> new EntityNotFoundException(WAITLIST_ENTRY_NOT_FOUND));
+    }
+
+    private WaitlistResponse toResponse(WaitlistEntry entry) {
+        Long position = entry.getStatus() == WaitlistStatus.WAITING
+                ? waitlistRepository.countByEventIdAndStatusAndIdLessThan(entry.getEventId(), WaitlistStatus.WAITING, entry.getId())
+                : null;
+        return WaitlistResponse.builder()
+                .eventId(entry.getEventId())
+                .status(entry.getStatus())
+                .position(position)
+                .bookingId(entry.getBookingId())
+                .build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.cdr.eventsmanagementsystem.Service.Event;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.EVENT_SOLD_OUT;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.Booking;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.EventBooking;
+import com.example.cdr.eventsmanagementsystem.NotificationEvent.Inventory.EventTicketReleased;
+import com.example.cdr.eventsmanagementsystem.Repository.EventRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Ticket inventory for events. Selling is a single conditional {@code UPDATE} on the event
+ * row, so concurrent buyers serialize on that row lock and capacity can never be exceeded.
+ * Each booking's {@code ticketHeld} flag records whether it is counted, which keeps
+ * releases idempotent however many paths touch the booking's status.
+ */
+@Service
+@RequiredArgsConstructor
+public class EventInventoryService {
+    /** Statuses that occupy a ticket; mirrors the active statuses of the venue/service overlap constraints. */
+    private static final Set<BookingStatus> HOLDS_TICKET =
+            EnumSet.of(BookingStatus.PENDING, BookingStatus.PAYMENT_PENDING, BookingStatus.BOOKED, BookingStatus.ACCEPTED);
+
+    private final EventRepository eventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** Takes a ticket for a new booking, failing if the event is sold out. */
+    @Transactional
+    public void reserve(EventBooking booking) {
+        if (!tryReserve(booking)) {
+            throw new IllegalArgumentException(EVENT_SOLD_OUT);
+        }
+    }
+
+    /** Takes a ticket for a new booking if one is left. */
+    @Transactional
+    public boolean tryReserve(EventBooking booking) {
+        if (eventRepository.reserveTicket(booking.getEventId()) == 0) {
+            return false;
+        }
+        booking.setTicketHeld(true);
+        return true;
+    }
+
+    /**
+     * Reconciles the ticket count with the booking's current status: releases the ticket of a
+     * booking that left the active statuses and re-takes one for a booking that came back
+     * (e.g. a late payment after its session expired). The re-take goes through the same
+     * conditional update as a sale, so it fails with {@code EVENT_SOLD_OUT} once the event is
+     * full. Paths where Stripe has already taken the money use {@link #trySync} instead and
+     * refund. No-op for venue and service bookings.
+     */
+    @Transactional
+    public void sync(Booking booking) {
+        sync(booking, true);
+    }
+
+    /**
+     * As {@link #sync(Booking)}; a released ticket is offered to the event's waitlist after
+     * commit unless {@code promoteWaitlist} is false.
+     */
+    @Transactional
+    public void sync(Booking booking, boolean promoteWaitlist) {
+        if (!reconcile(booking, promoteWaitlist)) {
+            throw new IllegalArgumentException(EVENT_SOLD_OUT);
+        }
+    }
+
+    /** As {@link #sync(Booking)}, but reports a re-take the event has no ticket left for by returning false. */
+    @Transactional
+    public boolean trySync(Booking booking) {
+        return reconcile(booking, true);
+    }
+
+    private boolean reconcile(Booking booking, boolean promoteWaitlist) {
+        if (!(booking instanceof EventBooking eventBooking)) {
+            return true;
+        }
+        boolean shouldHold = HOLDS_TICKET.contains(eventBooking.getStatus());
+        if (shouldHold == eventBooking.isTicketHeld()) {
+            return true;
+        }
+        if (shouldHold) {
+            return tryReserve(eventBooking);
+        }
+        eventRepository.adjustTicketsSold(eventBooking.getEventId(), -1);
+        eventBooking.setTicketHeld(false);
+        if (promoteWaitlist) {
+            eventPublisher.publishEvent(new EventTicketReleased(eventBooking.getEventId()));
+        }
+        return true;
+    }
+}
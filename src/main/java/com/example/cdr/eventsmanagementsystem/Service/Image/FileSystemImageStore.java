@@ -0,0 +1,140 @@
+package com.example.cdr.eventsmanagementsystem.Service.Image;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link ImageStore} on the local filesystem. Blobs live at {@code <root>/<aa>/<hash>}
+ * and are written to a temp file first, then moved into place, so readers never
+ * see a partially written image.
+ */
+@Slf4j
+@Component
+public class FileSystemImageStore implements ImageStore {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern VARIANT = Pattern.compile("[a-z0-9]+");
+
+    @Value("${app.images.storage-dir:./data/images}")
+    private Path root;
+
+    private Path tmp;
+
+    @PostConstruct
+    void init() throws IOException {
+        root = root.toAbsolutePath().normalize();
+        tmp = Files.createDirectories(root.resolve("tmp"));
+        log.info("Image store rooted at {}", root);
+    }
+
+    @Override
+    public String put(InputStream content) throws IOException {
+        Path staged = Files.createTempFile(tmp, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            try (DigestInputStream in = new DigestInputStream(content, digest)) {
+                Files.copy(in, staged, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            moveIntoPlace(staged, blobPath(hash, null));
+            return hash;
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+    }
+
+    @Override
+    public void putVariant(String hash, String variant, InputStream content) throws IOException {
+        Path target = blobPath(hash, variant);
+        Path staged = Files.createTempFile(tmp, "variant-", ".part");
+        try {
+            Files.copy(content, staged, StandardCopyOption.REPLACE_EXISTING);
+            moveIntoPlace(staged, target);
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+    }
+
+    @Override
+    public Optional<StoredImage> get(String hash) {
+        return open(hash, null);
+    }
+
+    @Override
+    public Optional<StoredImage> getVariant(String hash, String variant) {
+        return open(hash, variant);
+    }
+
+    private Optional<StoredImage> open(String hash, String variant) {
+        if (!isValidKey(hash, variant)) {
+            return Optional.empty();
+        }
+        Path path = blobPath(hash, variant);
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new StoredImage(new FileSystemResource(path), Files.size(path), probeContentType(path)));
+        } catch (IOException e) {
+            log.warn("Failed to open image {}: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void moveIntoPlace(Path staged, Path target) throws IOException {
+        if (Files.exists(target)) {
+            return; // same content already stored
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException ignored) {
+            // a concurrent upload of the same bytes won the race
+        }
+    }
+
+    private Path blobPath(String hash, String variant) {
+        String name = variant == null ? hash : hash + "." + variant;
+        return root.resolve(hash.substring(0, 2)).resolve(name);
+    }
+
+    private static boolean isValidKey(String hash, String variant) {
+        return hash != null && HASH.matcher(hash).matches()
+                && (variant == null || VARIANT.matcher(variant).matches());
+    }
+
+    private static String probeContentType(Path path) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            String type = URLConnection.guessContentTypeFromStream(in);
+            return type != null ? type : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
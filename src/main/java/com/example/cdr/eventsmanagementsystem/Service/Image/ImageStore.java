@@ -0,0 +1,29 @@
+package com.example.cdr.eventsmanagementsystem.Service.Image;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * Content-addressed blob storage for uploaded images. Blobs are keyed by the
+ * SHA-256 of their bytes, so identical uploads are stored once and a key never
+ * changes meaning. Derived renditions (e.g. thumbnails) are stored as named
+ * variants of the original key.
+ */
+public interface ImageStore {
+
+    String THUMBNAIL = "thumb";
+
+    /** Streams {@code content} into the store and returns its hex SHA-256 key. */
+    String put(InputStream content) throws IOException;
+
+    void putVariant(String hash, String variant, InputStream content) throws IOException;
+
+    Optional<StoredImage> get(String hash);
+
+    Optional<StoredImage> getVariant(String hash, String variant);
+
+    record StoredImage(Resource resource, long size, String contentType) {}
+}
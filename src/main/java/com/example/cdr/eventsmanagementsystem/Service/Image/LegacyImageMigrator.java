@@ -0,0 +1,77 @@
+package com.example.cdr.eventsmanagementsystem.Service.Image;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.cdr.eventsmanagementsystem.Util.ImageUtil;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One-off move of images stored as bytea element collections ({@code venue_images},
+ * {@code services_images}) into the image store. Rows are streamed, their hashes
+ * written to the new ref tables, and the old table is renamed to {@code *_legacy}
+ * so the migration never runs twice and the originals remain until dropped by hand.
+ * Rows that do not decode as images are logged and left behind in the legacy table.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LegacyImageMigrator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ImageUtil imageUtil;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        migrateTable("venue_images", "venue_id", "venue_image_refs", "venue_id");
+        migrateTable("services_images", "services_id", "service_image_refs", "service_id");
+    }
+
+    private void migrateTable(String legacyTable, String legacyOwnerColumn, String refTable, String refOwnerColumn) {
+        Boolean exists = jdbcTemplate.queryForObject("select to_regclass(?) is not null", Boolean.class, legacyTable);
+        if (!Boolean.TRUE.equals(exists)) {
+            return;
+        }
+        try {
+            Integer migrated = transactionTemplate.execute(status -> {
+                JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+                streaming.setFetchSize(50); // cursor-based fetch inside the transaction, not the whole table in heap
+                int[] count = {0, 0};
+                streaming.query("select " + legacyOwnerColumn + ", images from " + legacyTable, rs -> {
+                    try (InputStream in = rs.getBinaryStream("images")) {
+                        if (in == null) {
+                            return;
+                        }
+                        String hash = imageUtil.storeImage(in);
+                        jdbcTemplate.update("insert into " + refTable + " (" + refOwnerColumn + ", image_hash) values (?, ?)",
+                                rs.getLong(legacyOwnerColumn), hash);
+                        count[0]++;
+                    } catch (IllegalArgumentException e) {
+                        log.warn("Skipping undecodable image of {} {} in {}", legacyOwnerColumn, rs.getLong(legacyOwnerColumn), legacyTable);
+                        count[1]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                jdbcTemplate.execute("alter table " + legacyTable + " rename to " + legacyTable + "_legacy");
+                if (count[1] > 0) {
+                    log.warn("Left {} undecodable images in {}_legacy", count[1], legacyTable);
+                }
+                return count[0];
+            });
+            log.info("Migrated {} images from {} into the image store", migrated, legacyTable);
+        } catch (Exception e) {
+            log.error("Migrating legacy images from {} failed, will retry on next startup: {}", legacyTable, e.getMessage());
+        }
+    }
+}
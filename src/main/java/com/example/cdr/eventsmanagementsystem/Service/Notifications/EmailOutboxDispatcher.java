@@ -0,0 +1,173 @@
+package com.example.cdr.eventsmanagementsystem.Service.Notifications;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.cdr.eventsmanagementsystem.Model.Notification.EmailOutbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains the email outbox. Each poll leases a batch, splits it across a small fixed
+ * worker pool, and every worker sends its chunk over a single SMTP connection
+ * ({@link JavaMailSender#send(SimpleMailMessage...)}). Failures are retried with
+ * backoff by {@link EmailOutboxService#markFailed}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxService outboxService;
+    private final JavaMailSender mailSender;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.mail.outbox.workers:2}")
+    private int workers;
+
+    private final AtomicLong pendingDepth = new AtomicLong();
+    private ExecutorService workerPool;
+    private Timer sendLatency;
+    private Timer deliveryLag;
+    private Counter sent;
+    private Counter retried;
+    private Counter failed;
+
+    @PostConstruct
+    void init() {
+        workerPool = Executors.newFixedThreadPool(workers);
+        Gauge.builder("email.outbox.depth", pendingDepth, AtomicLong::get)
+                .description("Emails waiting in the outbox")
+                .register(meterRegistry);
+        sendLatency = Timer.builder("email.outbox.send.latency")
+                .description("Time to deliver one batch over a single SMTP connection")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        deliveryLag = Timer.builder("email.outbox.delivery.lag")
+                .description("Time from enqueue to successful delivery")
+                .register(meterRegistry);
+        sent = meterRegistry.counter("email.outbox.sent");
+        retried = meterRegistry.counter("email.outbox.retried");
+        failed = meterRegistry.counter("email.outbox.failed");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workerPool.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval:PT2S}")
+    public void dispatch() {
+        try {
+            List<EmailOutbox> batch;
+            do {
+                batch = outboxService.claimBatch(batchSize);
+                if (!batch.isEmpty()) {
+                    sendInParallel(batch);
+                }
+            } while (batch.size() == batchSize);
+        } catch (Exception e) {
+            log.error("Email outbox dispatch failed: {}", e.getMessage(), e);
+        } finally {
+            pendingDepth.set(outboxService.pendingCount());
+        }
+    }
+
+    private void sendInParallel(List<EmailOutbox> batch) throws InterruptedException {
+        int chunkSize = Math.max(1, (batch.size() + workers - 1) / workers);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i += chunkSize) {
+            List<EmailOutbox> chunk = batch.subList(i, Math.min(i + chunkSize, batch.size()));
+            futures.add(workerPool.submit(() -> sendChunk(chunk)));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                log.error("Email worker failed: {}", e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+
+    private void sendChunk(List<EmailOutbox> chunk) {
+        SimpleMailMessage[] messages = new SimpleMailMessage[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            messages[i] = toMessage(chunk.get(i));
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                failures = allFailed(messages, e);
+            }
+        } catch (MailException e) {
+            failures = allFailed(messages, e);
+        } finally {
+            sample.stop(sendLatency);
+        }
+
+        List<Long> delivered = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            EmailOutbox email = chunk.get(i);
+            Exception error = failures.get(messages[i]);
+            if (error == null) {
+                delivered.add(email.getId());
+                deliveryLag.record(Duration.between(email.getCreatedAt(), LocalDateTime.now()));
+            } else if (outboxService.markFailed(email.getId(), error.getMessage())) {
+                retried.increment();
+            } else {
+                failed.increment();
+            }
+        }
+        if (!delivered.isEmpty()) {
+            outboxService.markSent(delivered);
+            sent.increment(delivered.size());
+        }
+    }
+
+    private static SimpleMailMessage toMessage(EmailOutbox email) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(email.getRecipient());
+        message.setSubject(email.getSubject());
+        message.setText(email.getBody());
+        return message;
+    }
+
+    private static Map<Object, Exception> allFailed(SimpleMailMessage[] messages, Exception e) {
+        Map<Object, Exception> failures = new java.util.IdentityHashMap<>();
+        for (SimpleMailMessage message : messages) {
+            failures.put(message, e);
+        }
+        return failures;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.cdr.eventsmanagementsystem.Service.Notifications;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.cdr.eventsmanagementsystem.Model.Notification.EmailOutbox;
+import com.example.cdr.eventsmanagementsystem.Model.Notification.OutboxStatus;
+import com.example.cdr.eventsmanagementsystem.Repository.EmailOutboxRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Durable queue of outbound emails. {@link #enqueue} joins the caller's transaction,
+ * so an email exists if and only if the change that triggered it committed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmailOutboxService {
+
+    private final EmailOutboxRepository outboxRepository;
+
+    @Value("${app.mail.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${app.mail.outbox.backoff-base:PT30S}")
+    private Duration backoffBase;
+
+    @Value("${app.mail.outbox.backoff-max:PT1H}")
+    private Duration backoffMax;
+
+    @Value("${app.mail.outbox.lease:PT5M}")
+    private Duration lease;
+
+    @Value("${app.mail.outbox.retention:P7D}")
+    private Duration retention;
+
+    @Transactional
+    public EmailOutbox enqueue(String to, String subject, String body) {
+        LocalDateTime now = LocalDateTime.now();
+        EmailOutbox email = new EmailOutbox();
+        email.setRecipient(to);
+        email.setSubject(subject);
+        email.setBody(body);
+        email.setStatus(OutboxStatus.PENDING);
+        email.setAttempts(0);
+        email.setNextAttemptAt(now);
+        email.setCreatedAt(now);
+        return outboxRepository.save(email);
+    }
+
+    /** Leases up to {@code limit} due emails to the calling dispatcher. */
+    @Transactional
+    public List<EmailOutbox> claimBatch(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> batch = outboxRepository.lockDueBatch(now, limit);
+        for (EmailOutbox email : batch) {
+            email.setStatus(OutboxStatus.SENDING);
+            email.setAttempts(email.getAttempts() + 1);
+            email.setLockedUntil(now.plus(lease));
+        }
+        return outboxRepository.saveAll(batch);
+    }
+
+    @Transactional
+    public void markSent(Collection<Long> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        for (EmailOutbox email : outboxRepository.findAllById(ids)) {
+            email.setStatus(OutboxStatus.SENT);
+            email.setSentAt(now);
+            email.setLockedUntil(null);
+            email.setLastError(null);
+        }
+    }
+
+    /** Schedules a retry with exponential backoff, or gives up after the last attempt. Returns true if retried. */
+    @Transactional
+    public boolean markFailed(Long id, String error) {
+        EmailOutbox email = outboxRepository.findById(id).orElse(null);
+        if (email == null) {
+            return false;
+        }
+        email.setLastError(error);
+        email.setLockedUntil(null);
+        if (email.getAttempts() >= maxAttempts) {
+            email.setStatus(OutboxStatus.FAILED);
+            log.error("Giving up on email {} to {} after {} attempts: {}", id, email.getRecipient(), email.getAttempts(), error);
+            return false;
+        }
+        email.setStatus(OutboxStatus.PENDING);
+        email.setNextAttemptAt(LocalDateTime.now().plus(backoff(email.getAttempts())));
+        return true;
+    }
+
+    @Transactional(readOnly = true)
+    public long pendingCount() {
+        return outboxRepository.countByStatus(OutboxStatus.PENDING);
+    }
+
+    /** Sent emails are only kept for troubleshooting; FAILED rows stay until handled by hand. */
+    @Transactional
+    @Scheduled(fixedDelayString = "${app.mail.outbox.purge-interval:PT1H}")
+    public void purgeSent() {
+        int deleted = outboxRepository.deleteSentBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Purged {} sent emails from the outbox", deleted);
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        long factor = 1L << Math.min(attempts - 1, 20);
+        long millis = Math.min(backoffBase.toMillis() * factor, backoffMax.toMillis());
+        // +/-20% jitter so a burst of failures does not retry in lockstep
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return Duration.ofMillis((long) (millis * jitter));
+    }
+}
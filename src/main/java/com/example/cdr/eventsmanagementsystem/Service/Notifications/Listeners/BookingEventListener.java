@@ -12,6 +12,8 @@ import com.example.cdr.eventsmanagementsystem.NotificationEvent.BookingCreation.
 import com.example.cdr.eventsmanagementsystem.NotificationEvent.BookingUpdates.ServiceBookingUpdate;
 import com.example.cdr.eventsmanagementsystem.NotificationEvent.Payment.BookingPaymentFailed;
 import com.example.cdr.eventsmanagementsystem.Service.Notifications.EmailNotificationService;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.Booking;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
@@ -24,21 +26,28 @@ public class BookingEventListener {
 
     @EventListener
     public void handleEventBookingCreated(EventBookingCreated event) {
-        notificationService.sendPaymentRequestEmail(event.booking(), event.booking().getStripePaymentId());
+        requestPayment(event.booking());
     }
 
     @EventListener
     public void handleVenueBookingCreated(VenueBookingCreated event) {
-        notificationService.sendPaymentRequestEmail(event.booking(), event.booking().getStripePaymentId());
+        requestPayment(event.booking());
         notificationService.sendProviderBookingEmail(event.booking());
     }
 
     @EventListener
     public void handleServiceBookingCreated(ServiceBookingCreated event) {
-        notificationService.sendPaymentRequestEmail(event.booking(), event.booking().getStripePaymentId());
+        requestPayment(event.booking());
         notificationService.sendProviderBookingEmail(event.booking());
     }
 
+    /** Free and already-paid bookings are created BOOKED; there is nothing to ask for. */
+    private void requestPayment(Booking booking) {
+        if (booking.getStatus() != BookingStatus.BOOKED) {
+            notificationService.sendPaymentRequestEmail(booking, booking.getStripePaymentId());
+        }
+    }
+
     @EventListener
     public void handleProviderServiceBookingConfirmed(ServiceBookingConfirmed event) {
         notificationService.sendProviderConfirmationEmail(event.booking());
@@ -0,0 +1,129 @@
+package com.example.cdr.eventsmanagementsystem.Service.Notifications;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.cdr.eventsmanagementsystem.Constants.NotificationConstants.EmailConstants;
+import com.example.cdr.eventsmanagementsystem.DTO.projections.BookingRecipient;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Event.Event;
+import com.example.cdr.eventsmanagementsystem.Model.Notification.FanoutKind;
+import com.example.cdr.eventsmanagementsystem.Model.Notification.NotificationFanoutJob;
+import com.example.cdr.eventsmanagementsystem.Repository.EventBookingRepository;
+import com.example.cdr.eventsmanagementsystem.Repository.EventRepository;
+import com.example.cdr.eventsmanagementsystem.Repository.NotificationFanoutJobRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bookkeeping for bulk attendee notifications (event cancellations, day-ahead reminders).
+ * Each page of recipients is queued to the email outbox in the same transaction that
+ * advances the job's checkpoint, so a crash between pages neither loses nor duplicates
+ * emails, and the row lock keeps replicas off each other's jobs.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationFanoutService {
+    private static final DateTimeFormatter REMINDER_DATE_FORMAT = DateTimeFormatter.ofPattern("EEEE, MMM dd yyyy 'at' hh:mm a");
+
+    private final NotificationFanoutJobRepository jobRepository;
+    private final EventBookingRepository bookingRepository;
+    private final EventRepository eventRepository;
+    private final EmailOutboxService emailOutboxService;
+
+    /** Joins the cancelling transaction; returns empty if a job for this trigger already exists. */
+    @Transactional
+    public Optional<NotificationFanoutJob> createCancellationJob(Long eventId, Long triggerBookingId, String eventName) {
+        String dedupeKey = "booking:" + triggerBookingId;
+        if (jobRepository.existsByKindAndEventIdAndDedupeKey(FanoutKind.EVENT_CANCELLED, eventId, dedupeKey)) {
+            return Optional.empty();
+        }
+        NotificationFanoutJob job = new NotificationFanoutJob();
+        job.setKind(FanoutKind.EVENT_CANCELLED);
+        job.setEventId(eventId);
+        job.setDedupeKey(dedupeKey);
+        job.setSubjectTemplate("Event Cancelled: " + escape(eventName));
+        job.setBodyTemplate(EmailConstants.BOOKING_CANCELLED);
+        job.setLastBookingId(0L);
+        job.setSentCount(0L);
+        job.setCreatedAt(LocalDateTime.now());
+        return Optional.of(jobRepository.save(job));
+    }
+
+    /**
+     * Creates one reminder job per event with bookings starting on {@code day}. Safe to run
+     * on every replica: a job that another node already planned is skipped.
+     */
+    @Transactional
+    public int planReminders(LocalDate day) {
+        LocalDateTime start = day.atStartOfDay();
+        LocalDateTime end = day.atTime(23, 59, 59);
+        List<Long> eventIds = bookingRepository.findEventIdsWithBookingsBetween(BookingStatus.BOOKED, start, end);
+        LocalDateTime now = LocalDateTime.now();
+        int planned = 0;
+        for (Event event : eventRepository.findAllById(eventIds)) {
+            String body = String.format(EmailConstants.EVENT_REMINDER, "%1$s",
+                    escape(event.getName()), escape(event.getStartTime().format(REMINDER_DATE_FORMAT)));
+            planned += jobRepository.insertIfAbsent(FanoutKind.EVENT_REMINDER.name(), event.getId(), "day:" + day,
+                    "Event Reminder #%2$d", body, start, end, now);
+        }
+        return planned;
+    }
+
+    public List<Long> incompleteJobIds() {
+        return jobRepository.findIncompleteIds();
+    }
+
+    /**
+     * Queues the next page of recipients for the job.
+     *
+     * @return {@code true} if more pages remain; {@code false} once the job is finished
+     *         or currently being processed by another worker
+     */
+    @Transactional
+    public boolean processNextPage(Long jobId, int pageSize) {
+        Optional<NotificationFanoutJob> locked = jobRepository.lockIncomplete(jobId);
+        if (locked.isEmpty()) {
+            return false;
+        }
+        NotificationFanoutJob job = locked.get();
+        List<BookingRecipient> page = nextRecipients(job, PageRequest.of(0, pageSize));
+        for (BookingRecipient recipient : page) {
+            String subject = String.format(job.getSubjectTemplate(), recipient.getFirstName(), recipient.getBookingId());
+            String content = String.format(job.getBodyTemplate(), recipient.getFirstName(), recipient.getBookingId());
+            emailOutboxService.enqueue(recipient.getEmail(), subject, content);
+        }
+        if (!page.isEmpty()) {
+            job.setLastBookingId(page.get(page.size() - 1).getBookingId());
+            job.setSentCount(job.getSentCount() + page.size());
+        }
+        boolean more = page.size() == pageSize;
+        if (!more) {
+            job.setCompletedAt(LocalDateTime.now());
+            log.info("{} fan-out {} for event {} finished: {} emails queued", job.getKind(), job.getId(), job.getEventId(), job.getSentCount());
+        }
+        return more;
+    }
+
+    private List<BookingRecipient> nextRecipients(NotificationFanoutJob job, PageRequest page) {
+        return switch (job.getKind()) {
+            case EVENT_CANCELLED -> bookingRepository.findRecipientsAfter(job.getEventId(), job.getLastBookingId(), page);
+            case EVENT_REMINDER -> bookingRepository.findRecipientsBetweenAfter(job.getEventId(), BookingStatus.BOOKED,
+                    job.getWindowStart(), job.getWindowEnd(), job.getLastBookingId(), page);
+        };
+    }
+
+    /** Literal text baked into a template must not be read as a format specifier later. */
+    private static String escape(String text) {
+        return text == null ? "" : text.replace("%", "%%");
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.cdr.eventsmanagementsystem.Service.Notifications;
+
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs fan-out jobs page by page off the request thread. Cancellation jobs start as soon
+ * as the cancelling transaction commits; reminder jobs are planned by the daily cron.
+ * The periodic sweep drains whatever is unfinished, a few jobs in parallel, and resumes
+ * jobs interrupted by a crash or restart from their last checkpoint.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationFanoutWorker {
+    private final NotificationFanoutService fanoutService;
+    private final ExecutorService virtualThreadExecutor;
+
+    @Value("${app.mail.fanout.page-size:500}")
+    private int pageSize;
+
+    @Value("${app.mail.fanout.parallelism:4}")
+    private int parallelism;
+
+    /** Starts the job after the current transaction commits, or immediately if there is none. */
+    public void startAfterCommit(Long jobId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    virtualThreadExecutor.execute(() -> run(jobId));
+                }
+            });
+        } else {
+            virtualThreadExecutor.execute(() -> run(jobId));
+        }
+    }
+
+    @Scheduled(cron = "${app.mail.fanout.reminder-cron:0 0 9 * * ?}")
+    public void sendUpcomingEventReminders() {
+        int planned = fanoutService.planReminders(LocalDate.now().plusDays(1));
+        log.info("Planned {} event reminder fan-outs", planned);
+        drainIncomplete();
+    }
+
+    @Scheduled(initialDelayString = "${app.mail.fanout.resume-interval:PT1M}", fixedDelayString = "${app.mail.fanout.resume-interval:PT1M}")
+    public void drainIncomplete() {
+        Semaphore permits = new Semaphore(parallelism);
+        try {
+            for (Long jobId : fanoutService.incompleteJobIds()) {
+                permits.acquire();
+                virtualThreadExecutor.execute(() -> {
+                    try {
+                        run(jobId);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+            permits.acquire(parallelism);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void run(Long jobId) {
+        try {
+            while (fanoutService.processNextPage(jobId, pageSize)) {
+                // keep paging until the job completes or another worker takes it
+            }
+        } catch (RuntimeException e) {
+            log.error("Fan-out {} stopped; it will resume from its checkpoint", jobId, e);
+        }
+    }
+}
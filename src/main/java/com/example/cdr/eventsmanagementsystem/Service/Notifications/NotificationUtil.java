@@ -2,6 +2,7 @@ package com.example.cdr.eventsmanagementsystem.Service.Notifications;
 
 import com.example.cdr.eventsmanagementsystem.Model.Booking.Booking;
 import com.example.cdr.eventsmanagementsystem.Model.Booking.EventBooking;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
 import com.example.cdr.eventsmanagementsystem.Model.Booking.ServiceBooking;
 import com.example.cdr.eventsmanagementsystem.Model.Booking.VenueBooking;
 import com.example.cdr.eventsmanagementsystem.NotificationEvent.BookingConfirmation.EventBookingConfirmed;
@@ -10,18 +11,20 @@ import com.example.cdr.eventsmanagementsystem.NotificationEvent.BookingConfirmat
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Component;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class NotificationUtil {
-    private final JavaMailSender mailSender;
+    private final EmailOutboxService emailOutboxService;
     private final ApplicationEventPublisher eventPublisher;
 
+    /** Announces a confirmed booking; a no-op unless it is BOOKED, so callers may publish after any status change. */
     public void publishEvent(Booking booking) {
+        if (booking.getStatus() != BookingStatus.BOOKED) {
+            return;
+        }
         switch (booking) {
             case EventBooking eventBooking ->
                     eventPublisher.publishEvent(new EventBookingConfirmed(eventBooking));
@@ -35,12 +38,8 @@ public class NotificationUtil {
         }
     }
 
+    /** Queues the email in the outbox; delivery happens after the surrounding transaction commits. */
     public void send(String to, String subject, String content) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(content);
-
-        mailSender.send(message);
+        emailOutboxService.enqueue(to, subject, content);
     }
 }
@@ -0,0 +1,160 @@
+package com.example.cdr.eventsmanagementsystem.Service.Payment;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.AUTOPAY_OUTCOME_UNKNOWN;
+
+import com.example.cdr.eventsmanagementsystem.Constants.RefundConstants;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.Booking;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingType;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.PaymentStatus;
+import com.example.cdr.eventsmanagementsystem.Model.User.BaseRoleEntity;
+import com.example.cdr.eventsmanagementsystem.Util.BookingUtil;
+import com.stripe.exception.CardException;
+import com.stripe.model.PaymentIntent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pays new bookings with the customer's default card when they turned auto-pay on, so
+ * repeat customers skip the hosted checkout and the wait for its webhook. The caller falls
+ * back to checkout only on a definite "not charged": a decline, 3DS, or the gateway refusing
+ * the call before it reached Stripe. A timeout or 5xx may have charged the card, so the
+ * create is replayed under the same idempotency key until Stripe says what happened.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AutoPayService {
+    private final StripeService stripeService;
+    private final BookingUtil bookingUtil;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.payment.autopay.outcome-retries:3}")
+    private int outcomeRetries;
+
+    @Value("${app.payment.autopay.outcome-retry-backoff:PT0.5S}")
+    private Duration outcomeRetryBackoff;
+
+    /**
+     * Charges, or with {@code manualCapture} authorizes, the payer's default card off-session.
+     * Called with no transaction open, between the reservation and attach phases of booking.
+     *
+     * @return the settled intent, or empty if the booking should go through checkout instead
+     * @throws IllegalStateException if Stripe's answer is still unknown after the retries;
+     *         opening checkout then could charge the customer twice
+     */
+    public Optional<PaymentIntent> tryCharge(BaseRoleEntity payer, Long bookingId, BookingType type,
+                                             BigDecimal amount, String currency, boolean manualCapture, String description) {
+        if (!payer.isAutoPayEnabled() || Objects.isNull(payer.getStripeCustomerId()) || Objects.isNull(payer.getDefaultPaymentMethodId())) {
+            return Optional.empty();
+        }
+        // keyed by booking: a replay returns the intent the first attempt created, if any
+        String idempotencyKey = "autopay:" + type + ":" + bookingId;
+        PaymentIntent intent = null;
+        RuntimeException ambiguous = null;
+        for (int attempt = 0; Objects.isNull(intent); attempt++) {
+            try {
+                intent = stripeService.createOffSessionPaymentIntent(amount, currency, payer.getStripeCustomerId(),
+                        payer.getDefaultPaymentMethodId(), manualCapture, description, bookingId, type, idempotencyKey);
+            } catch (RuntimeException e) {
+                if (e.getCause() instanceof CardException) {
+                    log.info("Auto-pay declined for {} booking {}; falling back to checkout: {}", type, bookingId, e.getMessage());
+                    record("declined");
+                    return Optional.empty();
+                }
+                if (e instanceof IllegalStateException && Objects.isNull(ambiguous)) {
+                    // breaker open or bulkhead full: nothing was sent, so nothing can have been charged
+                    log.info("Auto-pay unavailable for {} booking {}; falling back to checkout: {}", type, bookingId, e.getMessage());
+                    record("unavailable");
+                    return Optional.empty();
+                }
+                ambiguous = e;
+                if (attempt >= outcomeRetries) {
+                    log.error("Auto-pay outcome for {} booking {} still unknown after {} attempt(s); reconcile idempotency key {}",
+                            type, bookingId, attempt + 1, idempotencyKey, e);
+                    record("unknown");
+                    throw new IllegalStateException(AUTOPAY_OUTCOME_UNKNOWN, e);
+                }
+                log.warn("Auto-pay call for {} booking {} failed without an answer; replaying: {}", type, bookingId, e.getMessage());
+                backOff(attempt);
+            }
+        }
+
+        if ("succeeded".equals(intent.getStatus()) || "requires_capture".equals(intent.getStatus())) {
+            record("paid");
+            return Optional.of(intent);
+        }
+        // requires_action: the bank wants the customer present, which only checkout can do
+        log.info("Auto-pay for {} booking {} needs the customer ({}); falling back to checkout", type, bookingId, intent.getStatus());
+        cancelQuietly(intent.getId());
+        record("requires_action");
+        return Optional.empty();
+    }
+
+    /**
+     * Records the off-session payment on the booking; joins the caller's attach transaction.
+     * The booking keeps the amount it was priced at, which is what the intent was created for.
+     */
+    public void applyPayment(Booking booking, PaymentIntent intent) {
+        booking.setStripePaymentId(intent.getId());
+        bookingUtil.registerPaymentReference(intent.getId(), booking);
+        if ("requires_capture".equals(intent.getStatus())) {
+            booking.setPaymentStatus(PaymentStatus.AUTHORIZED);
+            booking.setAuthorizedAt(LocalDateTime.now());
+        } else {
+            booking.setPaymentStatus(PaymentStatus.CAPTURED);
+        }
+        booking.setStatus(BookingStatus.BOOKED);
+    }
+
+    /**
+     * Gives the money back when the booking could not be saved after the card was charged:
+     * an authorization is voided, a captured payment refunded. Best effort; a failure is
+     * logged for manual follow-up and the caller's original error still propagates.
+     */
+    public void reverse(PaymentIntent intent) {
+        try {
+            if ("requires_capture".equals(intent.getStatus())) {
+                stripeService.cancelPaymentIntent(intent.getId(), "abandoned");
+            } else {
+                stripeService.createRefund(intent.getId(), null, RefundConstants.REQUESTED_BY_CUSTOMER);
+            }
+            record("reversed");
+        } catch (RuntimeException e) {
+            log.error("Could not reverse auto-pay intent {} for a booking that was not saved", intent.getId(), e);
+            record("reverse_failed");
+        }
+    }
+
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(outcomeRetryBackoff.multipliedBy(1L << attempt));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(AUTOPAY_OUTCOME_UNKNOWN, e);
+        }
+    }
+
+    private void cancelQuietly(String paymentIntentId) {
+        try {
+            stripeService.cancelPaymentIntent(paymentIntentId, "abandoned");
+        } catch (RuntimeException e) {
+            log.warn("Could not cancel auto-pay intent {}: {}", paymentIntentId, e.getMessage());
+        }
+    }
+
+    private void record(String result) {
+        meterRegistry.counter("payment.autopay", "result", result).increment();
+    }
+}
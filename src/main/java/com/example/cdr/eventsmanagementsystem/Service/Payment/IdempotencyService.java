@@ -0,0 +1,201 @@
+package com.example.cdr.eventsmanagementsystem.Service.Payment;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.IDEMPOTENCY_KEY_IN_PROGRESS;
+import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.IDEMPOTENCY_KEY_REUSED;
+import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.IDEMPOTENCY_KEY_TOO_LONG;
+import com.example.cdr.eventsmanagementsystem.Model.Payment.IdempotencyRecord;
+import com.example.cdr.eventsmanagementsystem.Model.Payment.IdempotencyStatus;
+import com.example.cdr.eventsmanagementsystem.Repository.IdempotencyRecordRepository;
+import com.example.cdr.eventsmanagementsystem.Util.AuthUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Makes booking and payment calls safe to retry. The first request with a given
+ * {@code Idempotency-Key} claims it in {@code idempotency_keys} and runs; replays get the
+ * stored response without reaching Stripe or the booking write path. Finished keys are
+ * also kept in a small in-process LRU so hot retries skip the database entirely. A claim
+ * is leased; if its request dies without finishing, a retry takes the key over once the
+ * lease has passed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.idempotency.ttl:PT24H}")
+    private Duration ttl;
+
+    @Value("${app.idempotency.lease:PT2M}")
+    private Duration lease;
+
+    @Value("${app.idempotency.lru-size:10000}")
+    private int lruSize;
+
+    private Map<String, StoredResponse> recent;
+
+    private record StoredResponse(String requestHash, String responseType, String responseBody, LocalDateTime expiresAt) {}
+
+    @PostConstruct
+    void init() {
+        recent = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > lruSize;
+            }
+        });
+    }
+
+    /**
+     * Runs {@code action} once per caller, scope and key. Without a key the action simply runs.
+     *
+     * @param scope   operation name, so one key cannot replay across endpoints
+     * @param request everything that identifies the request (path variables and body)
+     */
+    public <T> T execute(String key, String scope, Object request, Class<T> responseType, Supplier<T> action) {
+        if (Objects.isNull(key) || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(IDEMPOTENCY_KEY_TOO_LONG);
+        }
+        String id = AuthUtil.getCurrentUserId() + ":" + scope + ":" + key.trim();
+        String requestHash = hash(request);
+        // whole microseconds, as Postgres stores them: the claim time doubles as the claim's fence
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+        Optional<T> replay = replay(id, requestHash, responseType, now);
+        if (replay.isPresent()) {
+            return replay.get();
+        }
+
+        LocalDateTime expiresAt = now.plus(ttl);
+        Integer claimed = transactionTemplate.execute(status ->
+                idempotencyRecordRepository.claim(id, requestHash, now, expiresAt, now.plus(lease)));
+        if (claimed == null || claimed == 0) {
+            // lost the race to a concurrent request with the same key
+            return replay(id, requestHash, responseType, now)
+                    .orElseThrow(() -> new DataIntegrityViolationException(IDEMPOTENCY_KEY_IN_PROGRESS));
+        }
+
+        T response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            // a failed attempt leaves nothing to replay; release the key so the client can retry
+            transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.release(id, now));
+            throw e;
+        }
+
+        String type = response.getClass().getName();
+        String body = write(response);
+        Integer completed = transactionTemplate.execute(status -> idempotencyRecordRepository.complete(id, now, type, body));
+        if (completed == null || completed == 0) {
+            // the lease ran out mid-request and a retry owns the key now; its response is the one to keep
+            log.warn("Idempotency key {} was reclaimed before its first request finished", id);
+            return response;
+        }
+        recent.put(id, new StoredResponse(requestHash, type, body, expiresAt));
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval:PT1H}")
+    public void deleteExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer deleted = transactionTemplate.execute(status -> idempotencyRecordRepository.deleteExpired(now));
+        recent.values().removeIf(stored -> stored.expiresAt().isBefore(now));
+        if (deleted != null && deleted > 0) {
+            log.info("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+
+    private <T> Optional<T> replay(String id, String requestHash, Class<T> responseType, LocalDateTime now) {
+        StoredResponse stored = recent.get(id);
+        if (Objects.isNull(stored)) {
+            Optional<IdempotencyRecord> record = idempotencyRecordRepository.findById(id)
+                    .filter(r -> !r.getExpiresAt().isBefore(now));
+            if (record.isEmpty()) {
+                return Optional.empty();
+            }
+            if (record.get().getStatus() == IdempotencyStatus.IN_PROGRESS) {
+                if (Objects.nonNull(record.get().getLockedUntil()) && record.get().getLockedUntil().isBefore(now)) {
+                    // abandoned claim: let the caller take it over
+                    return Optional.empty();
+                }
+                throw new DataIntegrityViolationException(IDEMPOTENCY_KEY_IN_PROGRESS);
+            }
+            stored = toStored(record.get());
+            recent.put(id, stored);
+        }
+        if (stored.expiresAt().isBefore(now)) {
+            recent.remove(id);
+            return Optional.empty();
+        }
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IllegalArgumentException(IDEMPOTENCY_KEY_REUSED);
+        }
+        return Optional.of(read(stored, responseType));
+    }
+
+    private StoredResponse toStored(IdempotencyRecord record) {
+        return new StoredResponse(record.getRequestHash(), record.getResponseType(), record.getResponseBody(), record.getExpiresAt());
+    }
+
+    private <T> T read(StoredResponse stored, Class<T> responseType) {
+        try {
+            Class<?> type = Class.forName(stored.responseType());
+            if (!responseType.isAssignableFrom(type)) {
+                throw new IllegalArgumentException(IDEMPOTENCY_KEY_REUSED);
+            }
+            return responseType.cast(objectMapper.readValue(stored.responseBody(), type));
+        } catch (ClassNotFoundException | JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response cannot be read", e);
+        }
+    }
+
+    private String write(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response cannot be stored for idempotent replay", e);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] json = objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Request cannot be fingerprinted", e);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.cdr.eventsmanagementsystem.Service.Payment;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingType;
+import com.example.cdr.eventsmanagementsystem.Service.Payment.PaymentCaptureService.Outcome;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Periodic pass over AUTHORIZED bookings, one booking table at a time. Due bookings are read
+ * in keyset pages, settled a few at a time under a per-second budget so the pass never
+ * crowds out interactive Stripe traffic, and the checkpoint advances after every page.
+ * Failed bookings stay AUTHORIZED and are retried on the next pass. A pass paces itself
+ * with sleeps, so it runs on its own thread rather than the shared scheduler's.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaymentCaptureScheduler {
+    private final PaymentCaptureService captureService;
+    private final ExecutorService virtualThreadExecutor;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.payment.capture.lead-time:P2D}")
+    private Duration leadTime;
+
+    @Value("${app.payment.capture.reauthorize-after:P6D}")
+    private Duration reauthorizeAfter;
+
+    @Value("${app.payment.capture.page-size:100}")
+    private int pageSize;
+
+    @Value("${app.payment.capture.parallelism:4}")
+    private int parallelism;
+
+    @Value("${app.payment.capture.rate-per-second:10}")
+    private double ratePerSecond;
+
+    @Value("${app.payment.capture.lease:PT10M}")
+    private Duration lease;
+
+    private final Map<Outcome, Counter> outcomes = new EnumMap<>(Outcome.class);
+    private final AtomicBoolean running = new AtomicBoolean();
+    private ExecutorService passExecutor;
+    private Counter failed;
+    private long nextSlotAt;
+
+    @PostConstruct
+    void init() {
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, meterRegistry.counter("payment.capture.batch", "outcome", outcome.name().toLowerCase()));
+        }
+        failed = meterRegistry.counter("payment.capture.batch", "outcome", "failed");
+        passExecutor = Executors.newSingleThreadExecutor();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        passExecutor.shutdownNow();
+    }
+
+    /** Hands the pass to its own thread and returns; a tick is skipped while the last pass still runs. */
+    @Scheduled(initialDelayString = "${app.payment.capture.interval:PT15M}", fixedDelayString = "${app.payment.capture.interval:PT15M}")
+    public void schedule() {
+        if (running.compareAndSet(false, true)) {
+            passExecutor.execute(() -> {
+                try {
+                    run();
+                } finally {
+                    running.set(false);
+                }
+            });
+        }
+    }
+
+    void run() {
+        for (BookingType type : BookingType.values()) {
+            try {
+                runPass(type);
+            } catch (RuntimeException e) {
+                log.error("Batch capture of {} bookings stopped; it will resume from its checkpoint", type, e);
+            }
+        }
+    }
+
+    void runPass(BookingType type) {
+        Optional<Long> checkpoint = captureService.claim(type, lease);
+        if (checkpoint.isEmpty()) {
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long lastBookingId = checkpoint.get();
+        try {
+            List<Long> page;
+            do {
+                LocalDateTime now = LocalDateTime.now();
+                LocalDateTime captureBefore = now.plus(leadTime);
+                page = captureService.nextDue(type, lastBookingId, captureBefore, now.minus(reauthorizeAfter), pageSize);
+                settlePage(type, page, captureBefore);
+                if (!page.isEmpty()) {
+                    lastBookingId = page.getLast();
+                    captureService.advance(type, lastBookingId, lease);
+                }
+            } while (page.size() == pageSize);
+            captureService.complete(type);
+        } catch (RuntimeException e) {
+            captureService.release(type);
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("payment.capture.pass")
+                    .description("Duration of one batch capture pass over a booking table")
+                    .tag("type", type.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    private void settlePage(BookingType type, List<Long> bookingIds, LocalDateTime captureBefore) {
+        Semaphore permits = new Semaphore(parallelism);
+        try {
+            for (Long bookingId : bookingIds) {
+                awaitBudget();
+                permits.acquire();
+                virtualThreadExecutor.execute(() -> {
+                    try {
+                        settle(type, bookingId, captureBefore);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+            // the checkpoint may only pass this page once every booking on it is settled
+            permits.acquire(parallelism);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during batch capture", e);
+        }
+    }
+
+    private void settle(BookingType type, Long bookingId, LocalDateTime captureBefore) {
+        try {
+            outcomes.get(captureService.settle(type, bookingId, captureBefore)).increment();
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Batch capture of {} booking {} failed: {}", type, bookingId, e.getMessage());
+        }
+    }
+
+    /** Spaces bookings {@code 1 / rate-per-second} apart; only the pass thread calls this. */
+    private void awaitBudget() throws InterruptedException {
+        long now = System.nanoTime();
+        long slot = Math.max(now, nextSlotAt);
+        nextSlotAt = slot + (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        TimeUnit.NANOSECONDS.sleep(slot - now);
+    }
+}
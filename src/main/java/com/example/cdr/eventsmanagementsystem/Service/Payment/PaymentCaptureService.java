@@ -0,0 +1,207 @@
+package com.example.cdr.eventsmanagementsystem.Service.Payment;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.cdr.eventsmanagementsystem.Model.Booking.Booking;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingType;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.PaymentStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Payment.PaymentCaptureCheckpoint;
+import com.example.cdr.eventsmanagementsystem.NotificationEvent.Payment.BookingPaymentFailed;
+import com.example.cdr.eventsmanagementsystem.Repository.EventBookingRepository;
+import com.example.cdr.eventsmanagementsystem.Repository.PaymentCaptureCheckpointRepository;
+import com.example.cdr.eventsmanagementsystem.Repository.ServiceBookingRepository;
+import com.example.cdr.eventsmanagementsystem.Repository.VenueBookingRepository;
+import com.example.cdr.eventsmanagementsystem.Service.Notifications.NotificationUtil;
+import com.example.cdr.eventsmanagementsystem.Util.BookingUtil;
+import com.stripe.exception.CardException;
+import com.stripe.model.PaymentIntent;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Settles authorized payments in bulk. Bookings about to start are captured; holds that
+ * Stripe would void before the booking starts are renewed off-session with the saved card,
+ * or flagged for the customer when that is not possible. Driven page by page by
+ * {@link PaymentCaptureScheduler}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PaymentCaptureService {
+
+    public enum Outcome { CAPTURED, REAUTHORIZED, FLAGGED, SKIPPED }
+
+    private final PaymentCaptureCheckpointRepository checkpointRepository;
+    private final EventBookingRepository eventBookingRepository;
+    private final VenueBookingRepository venueBookingRepository;
+    private final ServiceBookingRepository serviceBookingRepository;
+    private final BookingUtil bookingUtil;
+    private final StripeService stripeService;
+    private final NotificationUtil notificationUtil;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final String owner = UUID.randomUUID().toString();
+
+    /** Leases the pass over {@code type}; returns its checkpoint, or empty if another node holds it. */
+    @Transactional
+    public Optional<Long> claim(BookingType type, Duration lease) {
+        checkpointRepository.insertIfAbsent(type.name());
+        LocalDateTime now = LocalDateTime.now();
+        if (checkpointRepository.claim(type.name(), owner, now, now.plus(lease)) == 0) {
+            return Optional.empty();
+        }
+        return checkpointRepository.findById(type).map(PaymentCaptureCheckpoint::getLastBookingId);
+    }
+
+    /** Moves the cursor past a settled page; throws if the lease lapsed and another node may own the pass. */
+    @Transactional
+    public void advance(BookingType type, long lastBookingId, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        if (checkpointRepository.advance(type.name(), owner, lastBookingId, now, now.plus(lease)) == 0) {
+            throw new IllegalStateException("Lost the batch capture lease for " + type + " bookings");
+        }
+    }
+
+    @Transactional
+    public void complete(BookingType type) {
+        if (checkpointRepository.complete(type.name(), owner, LocalDateTime.now()) == 0) {
+            log.warn("Batch capture lease for {} bookings lapsed before the pass completed", type);
+        }
+    }
+
+    @Transactional
+    public void release(BookingType type) {
+        checkpointRepository.release(type.name(), owner, LocalDateTime.now());
+    }
+
+    public List<Long> nextDue(BookingType type, long afterId, LocalDateTime captureBefore, LocalDateTime authorizedBefore, int pageSize) {
+        PageRequest page = PageRequest.of(0, pageSize);
+        return switch (type) {
+            case EVENT -> eventBookingRepository.findAuthorizedDueAfter(afterId, captureBefore, authorizedBefore, page);
+            case VENUE -> venueBookingRepository.findAuthorizedDueAfter(afterId, captureBefore, authorizedBefore, page);
+            case SERVICE -> serviceBookingRepository.findAuthorizedDueAfter(afterId, captureBefore, authorizedBefore, page);
+        };
+    }
+
+    /**
+     * Captures the booking if it starts before {@code captureBefore}, otherwise renews its hold.
+     * Like booking creation, the booking is read in one short transaction, Stripe is called with
+     * none open, and the result is applied in a second one.
+     */
+    public Outcome settle(BookingType type, Long bookingId, LocalDateTime captureBefore) {
+        Booking snapshot = transactionTemplate.execute(status -> bookingUtil.findBookingByTypeAndId(bookingId, type));
+        if (snapshot.getPaymentStatus() != PaymentStatus.AUTHORIZED) {
+            // captured, voided or refunded since the page was read
+            return Outcome.SKIPPED;
+        }
+        String intentId = snapshot.getStripePaymentId();
+        return snapshot.getStartTime().isAfter(captureBefore)
+                ? reauthorize(type, bookingId, intentId)
+                : capture(type, bookingId, intentId);
+    }
+
+    private Outcome capture(BookingType type, Long bookingId, String intentId) {
+        PaymentIntent captured = stripeService.capturePaymentIntent(intentId, null);
+        if (!"succeeded".equals(captured.getStatus())) {
+            throw new IllegalStateException("Capture failed. Status: " + captured.getStatus());
+        }
+        return apply(type, bookingId, intentId, booking -> {
+            booking.setPaymentStatus(PaymentStatus.CAPTURED);
+            booking.setStatus(BookingStatus.BOOKED);
+            bookingUtil.saveBooking(booking);
+            notificationUtil.publishEvent(booking);
+            return Outcome.CAPTURED;
+        }).orElseGet(() -> {
+            log.warn("Booking {} changed while {} was being captured; leaving it to the webhook", bookingId, intentId);
+            return Outcome.SKIPPED;
+        });
+    }
+
+    private Outcome reauthorize(BookingType type, Long bookingId, String intentId) {
+        PaymentIntent current = stripeService.retrievePaymentIntent(intentId);
+        if (Objects.isNull(current.getCustomer()) || Objects.isNull(current.getPaymentMethod())) {
+            return flag(type, bookingId, intentId, "no saved payment method to renew it with");
+        }
+
+        PaymentIntent renewed;
+        try {
+            // scale 2 is the inverse of StripeService.toCents, so the renewed hold matches the old one exactly
+            renewed = stripeService.createOffSessionPaymentIntent(BigDecimal.valueOf(current.getAmount(), 2), current.getCurrency(),
+                    current.getCustomer(), current.getPaymentMethod(), true,
+                    "Re-authorization for booking " + bookingId, bookingId, type, "reauthorize:" + current.getId());
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof CardException) {
+                return flag(type, bookingId, intentId, e.getCause().getMessage());
+            }
+            throw e;
+        }
+        if (!"requires_capture".equals(renewed.getStatus())) {
+            // typically requires_action: the bank wants the customer present
+            cancelQuietly(renewed.getId());
+            return flag(type, bookingId, intentId, "the bank asked for the card holder to confirm");
+        }
+
+        Optional<Outcome> applied = apply(type, bookingId, intentId, booking -> {
+            booking.setStripePaymentId(renewed.getId());
+            booking.setAuthorizedAt(LocalDateTime.now());
+            bookingUtil.registerPaymentReference(renewed.getId(), booking);
+            bookingUtil.saveBooking(booking);
+            return Outcome.REAUTHORIZED;
+        });
+        if (applied.isEmpty()) {
+            cancelQuietly(renewed.getId());
+            return Outcome.SKIPPED;
+        }
+        // only now that the booking points at the new intent, so the old intent's cancellation webhook is ignored
+        cancelQuietly(current.getId());
+        log.info("Renewed authorization of booking {}: {} -> {}", bookingId, current.getId(), renewed.getId());
+        return Outcome.REAUTHORIZED;
+    }
+
+    private Outcome flag(BookingType type, Long bookingId, String intentId, String reason) {
+        return apply(type, bookingId, intentId, booking -> {
+            log.warn("Authorization of booking {} expires before it starts and cannot be renewed: {}", bookingId, reason);
+            booking.setPaymentStatus(PaymentStatus.REQUIRES_ACTION);
+            bookingUtil.saveBooking(booking);
+            eventPublisher.publishEvent(new BookingPaymentFailed(booking,
+                    "Your card authorization expires before your booking starts and could not be renewed (" + reason + ")."));
+            return Outcome.FLAGGED;
+        }).orElse(Outcome.SKIPPED);
+    }
+
+    /** Applies {@code change} in a new transaction if the booking is still AUTHORIZED on {@code intentId}. */
+    private Optional<Outcome> apply(BookingType type, Long bookingId, String intentId, Function<Booking, Outcome> change) {
+        return Optional.ofNullable(transactionTemplate.execute(status -> {
+            Booking booking = bookingUtil.findBookingByTypeAndId(bookingId, type);
+            if (booking.getPaymentStatus() != PaymentStatus.AUTHORIZED || !intentId.equals(booking.getStripePaymentId())) {
+                return null;
+            }
+            return change.apply(booking);
+        }));
+    }
+
+    private void cancelQuietly(String paymentIntentId) {
+        try {
+            stripeService.cancelPaymentIntent(paymentIntentId, "duplicate");
+        } catch (RuntimeException e) {
+            // an uncancelled hold simply lapses when Stripe voids it
+            log.warn("Could not cancel payment intent {}: {}", paymentIntentId, e.getMessage());
+        }
+    }
+}
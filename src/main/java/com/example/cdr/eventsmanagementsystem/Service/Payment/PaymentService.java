@@ -2,12 +2,12 @@ package com.example.cdr.eventsmanagementsystem.Service.Payment;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 
 import com.example.cdr.eventsmanagementsystem.DTO.Booking.Response.BookingResponse;
 import com.example.cdr.eventsmanagementsystem.Model.Booking.*;
 import com.example.cdr.eventsmanagementsystem.Service.Notifications.NotificationUtil;
 import com.example.cdr.eventsmanagementsystem.Util.BookingUtil;
-import com.stripe.param.PaymentIntentConfirmParams;
 import com.example.cdr.eventsmanagementsystem.DTO.Booking.Response.CheckoutSessionResponse;
 import com.example.cdr.eventsmanagementsystem.DTO.Payment.AuthorizePaymentRequest;
 import com.example.cdr.eventsmanagementsystem.DTO.Payment.CapturePaymentRequest;
@@ -15,6 +15,7 @@ import com.example.cdr.eventsmanagementsystem.DTO.Payment.PaymentConfirmationRes
 import com.example.cdr.eventsmanagementsystem.DTO.Payment.RefundRequest;
 import com.example.cdr.eventsmanagementsystem.Model.User.BaseRoleEntity;
 import com.example.cdr.eventsmanagementsystem.NotificationEvent.Payment.BookingPaymentFailed;
+import com.example.cdr.eventsmanagementsystem.NotificationEvent.Payment.BookingPaymentVoided;
 import com.example.cdr.eventsmanagementsystem.Service.Auth.UserSyncService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +38,7 @@ public class PaymentService {
     private final ApplicationEventPublisher eventPublisher;
     private final NotificationUtil notificationUtil;
     private final BookingUtil bookingUtil;
+    private final StripeObjectCache stripeObjectCache;
 
     @Transactional
     public BookingResponse authorizePayment(Long bookingId, BookingType type, AuthorizePaymentRequest request) {
@@ -64,19 +66,18 @@ public class PaymentService {
                 }
                 intent = stripeService.createManualCapturePaymentIntent(amount, currency, null, "Authorization for booking " + booking.getId());
                 booking.setStripePaymentId(intent.getId());
+                bookingUtil.registerPaymentReference(intent.getId(), booking);
                 booking.setAmount(amount);
                 booking.setCurrency(currency);
             }
             
             if (request.getPaymentMethodId() != null) {
-                PaymentIntentConfirmParams confirmParams = PaymentIntentConfirmParams.builder()
-                        .setPaymentMethod(request.getPaymentMethodId())
-                        .build();
-                intent = intent.confirm(confirmParams);
+                intent = stripeService.confirmPaymentIntent(intent.getId(), request.getPaymentMethodId());
             }
             
             if ("requires_capture".equals(intent.getStatus())) {
                 booking.setPaymentStatus(PaymentStatus.AUTHORIZED);
+                booking.setAuthorizedAt(LocalDateTime.now());
                 booking.setAmount(request.getAmount() != null ? request.getAmount() : booking.getAmount());
                 booking.setCurrency(request.getCurrency() != null ? request.getCurrency() : booking.getCurrency());
                 bookingUtil.saveBooking(booking);
@@ -126,7 +127,9 @@ public class PaymentService {
             if ("canceled".equals(cancelled.getStatus())) {
                 booking.setPaymentStatus(PaymentStatus.VOIDED);
                 booking.setStatus(BookingStatus.CANCELLED);
+                booking.setCancelledAt(LocalDateTime.now(ZoneOffset.UTC));
                 bookingUtil.saveBooking(booking);
+                eventPublisher.publishEvent(new BookingPaymentVoided(booking));
                 return bookingUtil.toBookingResponse(booking);
             }
             throw new RuntimeException("Void failed. Status: " + cancelled.getStatus());
@@ -188,7 +191,7 @@ public class PaymentService {
     }
 
     @Transactional
-    public PaymentConfirmationResponse confirmPayment(BookingType type, String sessionId, String setupSessionId, Boolean canceled, Boolean setupCanceled) {
+    public PaymentConfirmationResponse confirmPayment(String sessionId, String setupSessionId, Boolean canceled, Boolean setupCanceled) {
         log.info("Processing payment confirmation - sessionId: {}, setupSessionId: {}, canceled: {}, setupCanceled: {}", 
                 sessionId, setupSessionId, canceled, setupCanceled);
 
@@ -231,19 +234,30 @@ public class PaymentService {
         // Handle payment session completion
         if (sessionId != null) {
             try {
-                Session session = stripeService.retrieveSession(sessionId);
+                // by the time the customer is redirected the webhook has usually settled the booking
+                Booking booking = bookingUtil.findBookingByStripeId(sessionId);
+                if (booking == null) {
+                    throw new IllegalStateException("No booking found for session: " + sessionId);
+                }
+                if (booking.getStatus() == BookingStatus.BOOKED
+                        && (booking.getPaymentStatus() == PaymentStatus.AUTHORIZED || booking.getPaymentStatus() == PaymentStatus.CAPTURED)) {
+                    log.info("Payment confirmation for session {} answered from booking {}: {} / {}",
+                            sessionId, booking.getId(), booking.getStatus(), booking.getPaymentStatus());
+                    return buildConfirmation(booking, localPaymentDetails(booking), booking.getPaymentStatus() == PaymentStatus.AUTHORIZED, true);
+                }
+
+                Session session = stripeObjectCache.getSession(sessionId).orElseGet(() -> stripeService.retrieveSession(sessionId));
                 log.info("Payment session retrieved: {}, status: {}, payment_status: {}", 
                         sessionId, session.getStatus(), session.getPaymentStatus());
 
-                Booking booking = bookingUtil.findBookingByStripeSessionIdAndType(sessionId, type);
-
                 PaymentConfirmationResponse.PaymentDetails paymentDetails = null;
                 boolean requiresCapture = false;
                 boolean paymentSucceeded = false;
                 
                 if (session.getPaymentIntent() != null) {
                     try {
-                        PaymentIntent paymentIntent = stripeService.retrievePaymentIntent(session.getPaymentIntent());
+                        PaymentIntent paymentIntent = stripeObjectCache.getPaymentIntent(session.getPaymentIntent())
+                                .orElseGet(() -> stripeService.retrievePaymentIntent(session.getPaymentIntent()));
                         requiresCapture = "manual".equals(paymentIntent.getCaptureMethod()) && 
                                         "requires_capture".equals(paymentIntent.getStatus());
                         paymentSucceeded = "succeeded".equals(paymentIntent.getStatus()) || 
@@ -262,6 +276,7 @@ public class PaymentService {
                         
                         if (booking.getStripePaymentId() == null) {
                             booking.setStripePaymentId(paymentIntent.getId());
+                            bookingUtil.registerPaymentReference(paymentIntent.getId(), booking);
                         }
                     } catch (Exception e) {
                         log.warn("Could not retrieve payment intent details: {}", e.getMessage());
@@ -275,6 +290,7 @@ public class PaymentService {
                         // Authorization-only flow
                         if (booking.getPaymentStatus() != PaymentStatus.AUTHORIZED) {
                             booking.setPaymentStatus(PaymentStatus.AUTHORIZED);
+                            booking.setAuthorizedAt(LocalDateTime.now());
                             booking.setStatus(BookingStatus.BOOKED);
                             shouldUpdateBooking = true;
                         }
@@ -302,36 +318,8 @@ public class PaymentService {
                             booking.getId(), booking.getStatus(), booking.getPaymentStatus());
                 }
 
-                PaymentConfirmationResponse.PaymentConfirmationResponseBuilder responseBuilder = PaymentConfirmationResponse.builder()
-                        .bookingReference("#" + booking.getId())
-                        .bookingStatus(booking.getStatus())
-                        .paymentStatus(booking.getPaymentStatus())
-                        .payment(paymentDetails)
-                        .requiresCapture(requiresCapture);
-
-                if (requiresCapture) {
-                    // Authorization-only flow
-                    responseBuilder
-                            .status("success")
-                            .message("Booking confirmed! Your payment method has been authorized.")
-                            .nextAction("No payment has been charged yet. You'll be charged closer to your booking date.")
-                            .redirectUrl("/bookings/" + booking.getId());
-                } else if (paymentSucceeded || "paid".equalsIgnoreCase(session.getPaymentStatus()) || booking.getStatus() == BookingStatus.BOOKED) {
-                    // Immediate payment flow
-                    responseBuilder
-                            .status("success")
-                            .message("Booking confirmed and payment successful!")
-                            .nextAction("You should receive a confirmation email shortly with your booking details.")
-                            .redirectUrl("/bookings/" + booking.getId());
-                } else {
-                    // Payment is processing
-                    responseBuilder
-                            .status("processing")
-                            .message("Payment completed successfully! We're confirming your booking.")
-                            .nextAction("You should receive a confirmation email within a few minutes.");
-                }
-
-                return responseBuilder.build();
+                boolean paid = paymentSucceeded || "paid".equalsIgnoreCase(session.getPaymentStatus());
+                return buildConfirmation(booking, paymentDetails, requiresCapture, paid);
 
             } catch (Exception e) {
                 log.error("Error processing payment confirmation for session: {}", sessionId, e);
@@ -349,6 +337,56 @@ public class PaymentService {
                 .nextAction("Please check the link or contact support if you need assistance.")
                 .build();
     }
-}
 
+    private PaymentConfirmationResponse buildConfirmation(Booking booking, PaymentConfirmationResponse.PaymentDetails paymentDetails,
+                                                          boolean requiresCapture, boolean paid) {
+        PaymentConfirmationResponse.PaymentConfirmationResponseBuilder responseBuilder = PaymentConfirmationResponse.builder()
+                .bookingReference("#" + booking.getId())
+                .bookingStatus(booking.getStatus())
+                .paymentStatus(booking.getPaymentStatus())
+                .payment(paymentDetails)
+                .requiresCapture(requiresCapture);
 
+        if (booking.getStatus() == BookingStatus.CANCELLED) {
+            // paid, but the event sold out first; SoldOutRefundService returned the money
+            return responseBuilder
+                    .status("cancelled")
+                    .message("Sorry, the event sold out before your payment completed.")
+                    .nextAction("Your payment has been returned; it will show on your statement within a few business days.")
+                    .build();
+        }
+        if (requiresCapture) {
+            // Authorization-only flow
+            responseBuilder
+                    .status("success")
+                    .message("Booking confirmed! Your payment method has been authorized.")
+                    .nextAction("No payment has been charged yet. You'll be charged closer to your booking date.")
+                    .redirectUrl("/bookings/" + booking.getId());
+        } else if (paid || booking.getStatus() == BookingStatus.BOOKED) {
+            // Immediate payment flow
+            responseBuilder
+                    .status("success")
+                    .message("Booking confirmed and payment successful!")
+                    .nextAction("You should receive a confirmation email shortly with your booking details.")
+                    .redirectUrl("/bookings/" + booking.getId());
+        } else {
+            // Payment is processing
+            responseBuilder
+                    .status("processing")
+                    .message("Payment completed successfully! We're confirming your booking.")
+                    .nextAction("You should receive a confirmation email within a few minutes.");
+        }
+
+        return responseBuilder.build();
+    }
+
+    private PaymentConfirmationResponse.PaymentDetails localPaymentDetails(Booking booking) {
+        return PaymentConfirmationResponse.PaymentDetails.builder()
+                .paymentIntentId(booking.getStripePaymentId())
+                .amount(booking.getAmount() != null ? booking.getAmount().toPlainString() : null)
+                .currency(booking.getCurrency() != null ? booking.getCurrency().toUpperCase() : null)
+                .method("card")
+                .authorizationOnly(booking.getPaymentStatus() == PaymentStatus.AUTHORIZED)
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.cdr.eventsmanagementsystem.Service.Payment;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import com.example.cdr.eventsmanagementsystem.Constants.RefundConstants;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.EventBooking;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.PaymentStatus;
+import com.example.cdr.eventsmanagementsystem.NotificationEvent.BookingCancellation.EventBookingCancelled;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Unwinds an event booking that Stripe reports as paid but that can no longer get a ticket,
+ * e.g. a checkout completed just as its hold expired and the event sold out. The customer
+ * gets their money back and a cancellation email instead of an error, and the caller's
+ * transaction (a webhook or the confirmation page) commits normally.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SoldOutRefundService {
+    public static final String SOLD_OUT_REASON = "The event sold out before your payment completed; your payment has been returned.";
+
+    private final StripeService stripeService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    /** Voids or refunds the booking's payment and cancels it. Never throws; a failed refund is logged for follow-up. */
+    public void cancelAndRefund(EventBooking booking) {
+        String intentId = booking.getStripePaymentId();
+        try {
+            if (Objects.isNull(intentId)) {
+                log.error("Sold-out booking {} has no payment intent to refund; refund it manually", booking.getId());
+            } else if (booking.getPaymentStatus() == PaymentStatus.CAPTURED) {
+                stripeService.createRefund(intentId, null, RefundConstants.REQUESTED_BY_CUSTOMER);
+                booking.setPaymentStatus(PaymentStatus.REFUNDED);
+                booking.setRefundAmount(booking.getAmount());
+                booking.setRefundProcessedAt(LocalDateTime.now());
+            } else {
+                // authorized or still payable: void it so it can never be charged
+                stripeService.cancelPaymentIntent(intentId, "abandoned");
+                booking.setPaymentStatus(PaymentStatus.VOIDED);
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not return the payment {} of sold-out booking {}; refund it manually", intentId, booking.getId(), e);
+        }
+        booking.setStatus(BookingStatus.CANCELLED);
+        booking.setCancellationReason(SOLD_OUT_REASON);
+        booking.setCancelledAt(LocalDateTime.now());
+        booking.setCancelledBy("system");
+        eventPublisher.publishEvent(new EventBookingCancelled(booking, SOLD_OUT_REASON));
+        meterRegistry.counter("booking.sold_out_refund").increment();
+        log.warn("Cancelled paid booking {} of event {}: sold out", booking.getId(), booking.getEventId());
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.cdr.eventsmanagementsystem.Service.Payment;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.cdr.eventsmanagementsystem.Repository.ProcessedStripeEventRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Remembers which Stripe events were already applied. Recently processed ids are held in
+ * an in-memory LRU, so most redeliveries are turned away without a query; older ones are
+ * caught by {@code stripe_processed_events}, whose row is written in the same transaction
+ * that applies the event.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StripeEventLedger {
+    private final ProcessedStripeEventRepository processedEventRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.payment.webhook.ledger.lru-size:50000}")
+    private int lruSize;
+
+    @Value("${app.payment.webhook.ledger.retention:P30D}")
+    private Duration retention;
+
+    private Set<String> recent;
+    private Counter accepted;
+    private Counter duplicateInMemory;
+    private Counter duplicateInLedger;
+    private Counter duplicateInInbox;
+
+    @PostConstruct
+    void init() {
+        recent = Collections.newSetFromMap(Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > lruSize;
+            }
+        }));
+        accepted = meterRegistry.counter("stripe.webhook.deliveries", "result", "accepted");
+        duplicateInMemory = meterRegistry.counter("stripe.webhook.deliveries", "result", "duplicate", "source", "memory");
+        duplicateInLedger = meterRegistry.counter("stripe.webhook.deliveries", "result", "duplicate", "source", "ledger");
+        duplicateInInbox = meterRegistry.counter("stripe.webhook.deliveries", "result", "duplicate", "source", "inbox");
+        Gauge.builder("stripe.webhook.duplicate.ratio", this, StripeEventLedger::duplicateRatio)
+                .description("Share of webhook deliveries that were redeliveries of a known event")
+                .register(meterRegistry);
+    }
+
+    /** True if the event was already processed; checked before a delivery is queued. */
+    public boolean isDuplicate(String eventId) {
+        if (recent.contains(eventId)) {
+            duplicateInMemory.increment();
+            return true;
+        }
+        if (processedEventRepository.existsById(eventId)) {
+            recent.add(eventId);
+            duplicateInLedger.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /** Counts the outcome of queueing a delivery that was not known to the ledger. */
+    public void recordQueued(boolean inserted) {
+        if (inserted) {
+            accepted.increment();
+        } else {
+            duplicateInInbox.increment();
+        }
+    }
+
+    /**
+     * Marks the event processed within the caller's transaction; false if another delivery
+     * already did. The id joins the in-memory front only once that transaction commits.
+     */
+    @Transactional
+    public boolean markProcessed(String eventId, String eventType) {
+        if (processedEventRepository.insertIfAbsent(eventId, eventType, LocalDateTime.now()) == 0) {
+            recent.add(eventId);
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recent.add(eventId);
+                }
+            });
+        } else {
+            recent.add(eventId);
+        }
+        return true;
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${app.payment.webhook.purge-interval:PT1H}")
+    public void purgeExpired() {
+        int deleted = processedEventRepository.deleteProcessedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Purged {} Stripe event ids from the processed ledger", deleted);
+        }
+    }
+
+    private double duplicateRatio() {
+        double duplicates = duplicateInMemory.count() + duplicateInLedger.count() + duplicateInInbox.count();
+        double total = duplicates + accepted.count();
+        return total == 0 ? 0 : duplicates / total;
+    }
+}
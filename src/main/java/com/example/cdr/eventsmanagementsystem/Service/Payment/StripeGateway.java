@@ -0,0 +1,171 @@
+package com.example.cdr.eventsmanagementsystem.Service.Payment;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.stripe.StripeClient;
+import com.stripe.exception.StripeException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The only path to Stripe. Every call goes through a bounded bulkhead and a circuit
+ * breaker and is timed per operation, so a slow or failing Stripe holds at most
+ * {@code max-concurrent} request threads. When the breaker is open, callers fail fast
+ * instead of queueing behind read timeouts.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StripeGateway {
+
+    @FunctionalInterface
+    public interface StripeCall<T> {
+        T execute(StripeClient client) throws StripeException;
+    }
+
+    private enum BreakerState { CLOSED, OPEN, HALF_OPEN }
+
+    private final StripeClient stripeClient;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.payment.stripe.bulkhead.max-concurrent:20}")
+    private int maxConcurrent;
+
+    @Value("${app.payment.stripe.bulkhead.max-wait:PT0.5S}")
+    private Duration maxWait;
+
+    @Value("${app.payment.stripe.breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${app.payment.stripe.breaker.open-duration:PT30S}")
+    private Duration openDuration;
+
+    private Semaphore bulkhead;
+    private BreakerState state = BreakerState.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    @PostConstruct
+    void init() {
+        bulkhead = new Semaphore(maxConcurrent);
+        Gauge.builder("stripe.bulkhead.in-use", bulkhead, b -> maxConcurrent - b.availablePermits())
+                .description("Stripe calls currently in flight")
+                .register(meterRegistry);
+        Gauge.builder("stripe.breaker.open", this, g -> g.currentState() == BreakerState.CLOSED ? 0 : 1)
+                .description("1 while the Stripe circuit breaker is rejecting or probing")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs one Stripe operation. Throws {@link IllegalStateException} without calling Stripe
+     * when the breaker is open or the bulkhead stays full for {@code max-wait}.
+     */
+    public <T> T call(String operation, StripeCall<T> call) throws StripeException {
+        if (!allowRequest()) {
+            meterRegistry.counter("stripe.calls.rejected", "operation", operation, "reason", "circuit_open").increment();
+            throw new IllegalStateException("Stripe is temporarily unavailable; " + operation + " was not attempted");
+        }
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a Stripe slot", e);
+        }
+        if (!acquired) {
+            releaseProbe();
+            meterRegistry.counter("stripe.calls.rejected", "operation", operation, "reason", "bulkhead_full").increment();
+            throw new IllegalStateException("Too many concurrent Stripe calls; " + operation + " was not attempted");
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            T result = call.execute(stripeClient);
+            onSuccess();
+            return result;
+        } catch (StripeException e) {
+            if (isUpstreamFailure(e)) {
+                outcome = "upstream_error";
+                onFailure(operation, e);
+            } else {
+                // the request reached Stripe and was answered (card declined, invalid request)
+                outcome = "client_error";
+                onSuccess();
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            outcome = "upstream_error";
+            onFailure(operation, e);
+            throw e;
+        } finally {
+            bulkhead.release();
+            sample.stop(Timer.builder("stripe.call.latency")
+                    .description("Latency of Stripe API calls, including the SDK's own network retries")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private static boolean isUpstreamFailure(StripeException e) {
+        Integer status = e.getStatusCode();
+        return Objects.isNull(status) || status == 429 || status >= 500;
+    }
+
+    private synchronized BreakerState currentState() {
+        return state;
+    }
+
+    /** Closed: always. Open: only once the open period has elapsed, and then a single probe. */
+    private synchronized boolean allowRequest() {
+        if (state == BreakerState.CLOSED) {
+            return true;
+        }
+        if (state == BreakerState.OPEN && System.nanoTime() - openedAt >= openDuration.toNanos()) {
+            state = BreakerState.HALF_OPEN;
+            return true;
+        }
+        return false;
+    }
+
+    /** A probe that never reached Stripe proves nothing; let the next caller probe instead. */
+    private synchronized void releaseProbe() {
+        if (state == BreakerState.HALF_OPEN) {
+            state = BreakerState.OPEN;
+            openedAt = System.nanoTime() - openDuration.toNanos();
+        }
+    }
+
+    private synchronized void onSuccess() {
+        if (state != BreakerState.CLOSED) {
+            log.info("Stripe circuit breaker closed");
+        }
+        state = BreakerState.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    private synchronized void onFailure(String operation, Exception e) {
+        consecutiveFailures++;
+        if (state == BreakerState.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != BreakerState.OPEN) {
+                log.warn("Stripe circuit breaker opened after {} failure(s); last {} failed: {}",
+                        consecutiveFailures, operation, e.getMessage());
+            }
+            state = BreakerState.OPEN;
+            openedAt = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.cdr.eventsmanagementsystem.Service.Payment;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.StripeObject;
+import com.stripe.model.checkout.Session;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Short-lived copies of the checkout sessions and payment intents that Stripe pushed to us
+ * in webhooks. Lookups that would otherwise retrieve the same object again (the payment
+ * confirmation page, session completion) read it from here while it is fresh.
+ */
+@Component
+@RequiredArgsConstructor
+public class StripeObjectCache {
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.payment.stripe.object-cache.ttl:PT5M}")
+    private Duration ttl;
+
+    @Value("${app.payment.stripe.object-cache.max-size:10000}")
+    private int maxSize;
+
+    private Map<String, Entry> objects;
+    private Counter hits;
+    private Counter misses;
+
+    private record Entry(StripeObject object, long eventCreated, long expiresAt) {}
+
+    @PostConstruct
+    void init() {
+        objects = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        });
+        hits = meterRegistry.counter("stripe.object.cache", "result", "hit");
+        misses = meterRegistry.counter("stripe.object.cache", "result", "miss");
+    }
+
+    /**
+     * Keeps the webhook's copy of a session or payment intent; other objects are ignored.
+     * Deliveries can arrive out of order, so a snapshot from an older event never replaces
+     * a newer one.
+     */
+    public void put(StripeObject object, long eventCreated) {
+        String id = switch (object) {
+            case Session session -> session.getId();
+            case PaymentIntent paymentIntent -> paymentIntent.getId();
+            default -> null;
+        };
+        if (Objects.nonNull(id)) {
+            Entry fresh = new Entry(object, eventCreated, System.nanoTime() + ttl.toNanos());
+            objects.merge(id, fresh, (current, next) -> next.eventCreated() >= current.eventCreated() ? next : current);
+        }
+    }
+
+    public Optional<Session> getSession(String sessionId) {
+        return get(sessionId, Session.class);
+    }
+
+    public Optional<PaymentIntent> getPaymentIntent(String paymentIntentId) {
+        return get(paymentIntentId, PaymentIntent.class);
+    }
+
+    private <T extends StripeObject> Optional<T> get(String id, Class<T> type) {
+        Entry entry = Objects.isNull(id) ? null : objects.get(id);
+        if (Objects.isNull(entry) || System.nanoTime() - entry.expiresAt() > 0 || !type.isInstance(entry.object())) {
+            if (Objects.nonNull(entry)) {
+                objects.remove(id);
+            }
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(type.cast(entry.object()));
+    }
+}
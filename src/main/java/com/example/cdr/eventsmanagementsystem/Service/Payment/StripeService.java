@@ -1,6 +1,7 @@
 package com.example.cdr.eventsmanagementsystem.Service.Payment;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -9,22 +10,24 @@ import org.springframework.stereotype.Service;
 
 import com.example.cdr.eventsmanagementsystem.Constants.RefundConstants;
 import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingType;
-import com.stripe.Stripe;
 import com.stripe.exception.StripeException;
 
 import com.stripe.model.Customer;
 import com.stripe.model.PaymentIntent;
-import com.stripe.model.PaymentMethod;
 import com.stripe.model.Refund;
 import com.stripe.model.checkout.Session;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.CustomerCreateParams;
+import com.stripe.param.PaymentIntentCancelParams;
 import com.stripe.param.PaymentIntentCaptureParams;
+import com.stripe.param.PaymentIntentConfirmParams;
 import com.stripe.param.PaymentIntentCreateParams;
 import com.stripe.param.PaymentMethodAttachParams;
+import com.stripe.param.RefundCreateParams;
 import com.stripe.param.checkout.SessionCreateParams;
 import com.stripe.param.checkout.SessionCreateParams.LineItem.PriceData;
 import com.stripe.param.checkout.SessionCreateParams.LineItem.PriceData.ProductData;
 
-import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -32,17 +35,13 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 @RequiredArgsConstructor
 public class StripeService {
-    
-    @Value("${spring.stripe.api-key}")
-    private String stripeApiKey;
-    
+    public static final String BOOKING_ID_METADATA = "bookingId";
+    public static final String BOOKING_TYPE_METADATA = "bookingType";
+
+    private final StripeGateway stripeGateway;
+
     @Value("${app.payment.return-url}")
     private String paymentReturnUrl;
-    
-    @PostConstruct
-    public void init() {
-        Stripe.apiKey = stripeApiKey;
-    }
 
     public PaymentIntent createManualCapturePaymentIntent(BigDecimal amount, String currency, String customerId, String description) {
         try {
@@ -60,34 +59,67 @@ public class StripeService {
                     )
                     .build();
 
-            return PaymentIntent.create(params);
+            return stripeGateway.call("payment_intent.create", client -> client.paymentIntents().create(params));
         } catch (StripeException e) {
             throw new RuntimeException("Failed to create manual capture payment intent: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Charges or authorizes a saved payment method while the customer is not present. The
+     * idempotency key makes a retried call return the intent created the first time.
+     */
+    public PaymentIntent createOffSessionPaymentIntent(BigDecimal amount, String currency, String customerId, String paymentMethodId,
+                                                       boolean manualCapture, String description, Long bookingId,
+                                                       BookingType bookingType, String idempotencyKey) {
+        try {
+            PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
+                    .setAmount(toCents(amount))
+                    .setCurrency(currency)
+                    .setCustomer(customerId)
+                    .setPaymentMethod(paymentMethodId)
+                    .setDescription(description)
+                    .putAllMetadata(bookingMetadata(bookingId, bookingType))
+                    .setCaptureMethod(manualCapture ? PaymentIntentCreateParams.CaptureMethod.MANUAL : PaymentIntentCreateParams.CaptureMethod.AUTOMATIC)
+                    .setOffSession(true)
+                    .setConfirm(true)
+                    .build();
+            RequestOptions options = RequestOptions.builder().setIdempotencyKey(idempotencyKey).build();
+
+            return stripeGateway.call("payment_intent.create", client -> client.paymentIntents().create(params, options));
+        } catch (StripeException e) {
+            throw new RuntimeException("Failed to create off-session payment intent: " + e.getMessage(), e);
+        }
+    }
+
     public PaymentIntent retrievePaymentIntent(String paymentIntentId) {
         try {
-            return PaymentIntent.retrieve(paymentIntentId);
+            return stripeGateway.call("payment_intent.retrieve", client -> client.paymentIntents().retrieve(paymentIntentId));
         } catch (StripeException e) {
             throw new RuntimeException("Failed to retrieve payment intent: " + e.getMessage(), e);
         }
     }
 
+    public PaymentIntent confirmPaymentIntent(String paymentIntentId, String paymentMethodId) {
+        try {
+            PaymentIntentConfirmParams params = PaymentIntentConfirmParams.builder()
+                    .setPaymentMethod(paymentMethodId)
+                    .build();
+            return stripeGateway.call("payment_intent.confirm", client -> client.paymentIntents().confirm(paymentIntentId, params));
+        } catch (StripeException e) {
+            throw new RuntimeException("Failed to confirm payment intent: " + e.getMessage(), e);
+        }
+    }
+
     public Customer createCustomer(String email, String name, String phone) {
         try {
-            Map<String, Object> params = new HashMap<>();
-            params.put("email", email);
-            
-            if (name != null) {
-                params.put("name", name);
-            }
-            
-            if (phone != null) {
-                params.put("phone", phone);
-            }
-                        
-            return Customer.create(params);
+            CustomerCreateParams params = CustomerCreateParams.builder()
+                    .setEmail(email)
+                    .setName(name)
+                    .setPhone(phone)
+                    .build();
+
+            return stripeGateway.call("customer.create", client -> client.customers().create(params));
             
         } catch (StripeException e) {
             throw new RuntimeException("Failed to create customer: " + e.getMessage(), e);
@@ -96,18 +128,21 @@ public class StripeService {
 
     public Refund createRefund(String paymentIntentId, BigDecimal amount, String reason) {
         try {
-            Map<String, Object> params = new HashMap<>();
-            params.put("payment_intent", paymentIntentId);
+            RefundCreateParams.Builder params = RefundCreateParams.builder()
+                    .setPaymentIntent(paymentIntentId);
             
             if (amount != null) {
-                params.put("amount", toCents(amount));
+                params.setAmount(toCents(amount));
             }
             
             String normalizedReason = reason.trim().toLowerCase().replace(' ', '_');
             if (normalizedReason.equals(RefundConstants.DUPLICATE) ||
                 normalizedReason.equals(RefundConstants.FRAUDULENT) ||
                 normalizedReason.equals(RefundConstants.REQUESTED_BY_CUSTOMER)) {
-                params.put("reason", normalizedReason);
+                params.setReason(Arrays.stream(RefundCreateParams.Reason.values())
+                        .filter(r -> r.getValue().equals(normalizedReason))
+                        .findFirst()
+                        .orElseThrow());
             } else {
                 throw new IllegalArgumentException("Invalid refund reason: " + reason +
                     ". Allowed values are: " + RefundConstants.DUPLICATE + 
@@ -115,7 +150,7 @@ public class StripeService {
                     ", " + RefundConstants.REQUESTED_BY_CUSTOMER + ".");
             }
 
-            return Refund.create(params);
+            return stripeGateway.call("refund.create", client -> client.refunds().create(params.build()));
 
         } catch (StripeException e) {
             throw new RuntimeException("Failed to create refund: " + e.getMessage(), e);
@@ -124,11 +159,11 @@ public class StripeService {
 
     public PaymentIntent capturePaymentIntent(String paymentIntentId, BigDecimal amountToCapture) {
         try {
-            PaymentIntent intent = PaymentIntent.retrieve(paymentIntentId);
+            // capture is addressed by id alone, so skip the retrieve round trip
             PaymentIntentCaptureParams params = PaymentIntentCaptureParams.builder()
                 .setAmountToCapture(amountToCapture != null ? toCents(amountToCapture) : null)
                 .build();
-            return intent.capture(params);
+            return stripeGateway.call("payment_intent.capture", client -> client.paymentIntents().capture(paymentIntentId, params));
         } catch (StripeException e) {
             throw new RuntimeException("Failed to capture payment intent: " + e.getMessage(), e);
         }
@@ -136,12 +171,14 @@ public class StripeService {
 
     public PaymentIntent cancelPaymentIntent(String paymentIntentId, String cancellationReason) {
         try {
-            PaymentIntent intent = PaymentIntent.retrieve(paymentIntentId);
-            Map<String, Object> params = new HashMap<>();
+            PaymentIntentCancelParams.Builder params = PaymentIntentCancelParams.builder();
             if (cancellationReason != null && !cancellationReason.isBlank()) {
-                params.put("cancellation_reason", cancellationReason);
+                Arrays.stream(PaymentIntentCancelParams.CancellationReason.values())
+                        .filter(r -> r.getValue().equals(cancellationReason))
+                        .findFirst()
+                        .ifPresent(params::setCancellationReason);
             }
-            return intent.cancel(params);
+            return stripeGateway.call("payment_intent.cancel", client -> client.paymentIntents().cancel(paymentIntentId, params.build()));
         } catch (StripeException e) {
             throw new RuntimeException("Failed to cancel payment intent: " + e.getMessage(), e);
         }
@@ -149,11 +186,10 @@ public class StripeService {
 
     public void attachPaymentMethodToCustomer(String paymentMethodId, String customerId) {
         try {
-            PaymentMethod paymentMethod = PaymentMethod.retrieve(paymentMethodId);
             PaymentMethodAttachParams params = PaymentMethodAttachParams.builder()
                 .setCustomer(customerId)
                 .build();
-            paymentMethod.attach(params);
+            stripeGateway.call("payment_method.attach", client -> client.paymentMethods().attach(paymentMethodId, params));
         } catch (StripeException e) {
             throw new RuntimeException("Failed to attach payment method: " + e.getMessage(), e);
         }
@@ -176,8 +212,7 @@ public class StripeService {
                 .setPriceData(priceData)
                 .build();
 
-            Map<String, String> metadata = new HashMap<>();
-            metadata.put("bookingId", String.valueOf(bookingId));
+            Map<String, String> metadata = bookingMetadata(bookingId, bookingType);
 
             SessionCreateParams.Builder builder = SessionCreateParams.builder()
                 .setMode(SessionCreateParams.Mode.PAYMENT)
@@ -187,16 +222,18 @@ public class StripeService {
                 .addLineItem(lineItem)
                 .putAllMetadata(metadata);
 
+            // on the payment intent too, so its webhooks map to the booking even before the session completes
+            SessionCreateParams.PaymentIntentData.Builder paymentIntentData = SessionCreateParams.PaymentIntentData.builder()
+                .putAllMetadata(metadata);
             if (setupFutureUsage != null) {
-                builder.setPaymentIntentData(
-                    SessionCreateParams.PaymentIntentData.builder() 
-                        .setSetupFutureUsage(SessionCreateParams.PaymentIntentData.SetupFutureUsage.valueOf(setupFutureUsage))
-                        .setCaptureMethod(manualCapture ? SessionCreateParams.PaymentIntentData.CaptureMethod.MANUAL : SessionCreateParams.PaymentIntentData.CaptureMethod.AUTOMATIC)
-                        .build()
-                );
+                paymentIntentData
+                    .setSetupFutureUsage(SessionCreateParams.PaymentIntentData.SetupFutureUsage.valueOf(setupFutureUsage))
+                    .setCaptureMethod(manualCapture ? SessionCreateParams.PaymentIntentData.CaptureMethod.MANUAL : SessionCreateParams.PaymentIntentData.CaptureMethod.AUTOMATIC);
             }
+            builder.setPaymentIntentData(paymentIntentData.build());
 
-            return Session.create(builder.build());
+            SessionCreateParams params = builder.build();
+            return stripeGateway.call("checkout_session.create", client -> client.checkout().sessions().create(params));
         } catch (StripeException e) {
             throw new RuntimeException("Failed to create checkout session", e);
         }
@@ -215,7 +252,7 @@ public class StripeService {
                 .putAllMetadata(metadata)
                 .build();
 
-            return Session.create(params);
+            return stripeGateway.call("checkout_session.create", client -> client.checkout().sessions().create(params));
         } catch (StripeException e) {
             throw new RuntimeException("Failed to create setup session", e);
         }
@@ -223,12 +260,29 @@ public class StripeService {
 
     public Session retrieveSession(String sessionId) {
         try {
-            return Session.retrieve(sessionId);
+            return stripeGateway.call("checkout_session.retrieve", client -> client.checkout().sessions().retrieve(sessionId));
         } catch (StripeException e) {
             throw new RuntimeException("Failed to retrieve session: " + sessionId, e);
         }
     }
 
+    /** Expires an open checkout session so it can no longer be paid. */
+    public Session expireCheckoutSession(String sessionId) {
+        try {
+            return stripeGateway.call("checkout_session.expire", client -> client.checkout().sessions().expire(sessionId));
+        } catch (StripeException e) {
+            throw new RuntimeException("Failed to expire checkout session: " + sessionId, e);
+        }
+    }
+
+    /** Read back by {@link StripeWebhookInboxService} to order a booking's webhooks. */
+    private static Map<String, String> bookingMetadata(Long bookingId, BookingType bookingType) {
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put(BOOKING_ID_METADATA, String.valueOf(bookingId));
+        metadata.put(BOOKING_TYPE_METADATA, bookingType.name());
+        return metadata;
+    }
+
     private long toCents(BigDecimal amount) {
         return amount.multiply(new BigDecimal("100")).longValue();
     }
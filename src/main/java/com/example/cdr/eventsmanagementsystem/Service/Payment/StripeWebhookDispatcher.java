@@ -0,0 +1,147 @@
+package com.example.cdr.eventsmanagementsystem.Service.Payment;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.cdr.eventsmanagementsystem.Model.Payment.StripeWebhookInbox;
+import com.stripe.model.Event;
+import com.stripe.net.ApiResource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies inbox deliveries to bookings. Each poll leases a batch and hands every delivery
+ * to the single-threaded stripe chosen by its ordering key, so different bookings are
+ * processed in parallel while one booking's events always run on the same thread in
+ * arrival order. The inbox query holds back a key's later events until its earlier ones
+ * settle, which keeps that order across batches, retries and nodes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StripeWebhookDispatcher {
+
+    private final StripeWebhookInboxService inboxService;
+    private final StripeWebhookService webhookService;
+    private final StripeEventLedger eventLedger;
+    private final StripeObjectCache stripeObjectCache;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.payment.webhook.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.payment.webhook.stripes:8}")
+    private int stripeCount;
+
+    private final AtomicLong pendingDepth = new AtomicLong();
+    private ExecutorService[] stripes;
+    private Timer processingLag;
+    private Counter processed;
+    private Counter retried;
+    private Counter failed;
+
+    @PostConstruct
+    void init() {
+        stripes = new ExecutorService[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = Executors.newSingleThreadExecutor();
+        }
+        Gauge.builder("stripe.webhook.inbox.depth", pendingDepth, AtomicLong::get)
+                .description("Stripe webhook deliveries waiting to be applied")
+                .register(meterRegistry);
+        processingLag = Timer.builder("stripe.webhook.inbox.lag")
+                .description("Time from receipt of a webhook to applying it")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        processed = meterRegistry.counter("stripe.webhook.inbox.processed");
+        retried = meterRegistry.counter("stripe.webhook.inbox.retried");
+        failed = meterRegistry.counter("stripe.webhook.inbox.failed");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        for (ExecutorService stripe : stripes) {
+            stripe.shutdown();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.payment.webhook.poll-interval:PT1S}")
+    public void dispatch() {
+        try {
+            List<StripeWebhookInbox> batch;
+            do {
+                batch = inboxService.claimBatch(batchSize);
+                if (!batch.isEmpty()) {
+                    applyStriped(batch);
+                }
+            } while (batch.size() == batchSize);
+        } catch (Exception e) {
+            log.error("Stripe webhook dispatch failed: {}", e.getMessage(), e);
+        } finally {
+            pendingDepth.set(inboxService.pendingCount());
+        }
+    }
+
+    private void applyStriped(List<StripeWebhookInbox> batch) throws InterruptedException {
+        List<Future<?>> futures = new ArrayList<>(batch.size());
+        for (StripeWebhookInbox delivery : batch) {
+            futures.add(stripeFor(delivery.getOrderingKey()).submit(() -> apply(delivery)));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                log.error("Stripe webhook worker failed: {}", e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+
+    private ExecutorService stripeFor(String orderingKey) {
+        return stripes[Math.floorMod(orderingKey.hashCode(), stripes.length)];
+    }
+
+    private void apply(StripeWebhookInbox delivery) {
+        try {
+            Event event = ApiResource.GSON.fromJson(delivery.getPayload(), Event.class);
+            transactionTemplate.executeWithoutResult(status -> {
+                // a redelivery that outlived its first inbox row is settled without reapplying it
+                if (eventLedger.markProcessed(event.getId(), event.getType())) {
+                    webhookService.processEvent(event);
+                }
+                inboxService.markProcessed(delivery.getId());
+            });
+            event.getDataObjectDeserializer().getObject()
+                    .ifPresent(object -> stripeObjectCache.put(object, event.getCreated()));
+            processed.increment();
+            processingLag.record(Duration.between(delivery.getCreatedAt(), LocalDateTime.now()));
+        } catch (RuntimeException e) {
+            log.warn("Stripe event {} ({}) failed on attempt {}: {}",
+                    delivery.getStripeEventId(), delivery.getEventType(), delivery.getAttempts(), e.getMessage());
+            if (inboxService.markFailed(delivery.getId(), e.getMessage())) {
+                retried.increment();
+            } else {
+                failed.increment();
+            }
+        }
+    }
+}
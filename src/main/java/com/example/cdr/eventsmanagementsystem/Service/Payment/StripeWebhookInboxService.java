@@ -0,0 +1,155 @@
+package com.example.cdr.eventsmanagementsystem.Service.Payment;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.cdr.eventsmanagementsystem.Model.Payment.StripeWebhookInbox;
+import com.example.cdr.eventsmanagementsystem.Model.Payment.WebhookInboxStatus;
+import com.example.cdr.eventsmanagementsystem.Repository.PaymentReferenceRepository;
+import com.example.cdr.eventsmanagementsystem.Repository.StripeWebhookInboxRepository;
+import com.stripe.model.Event;
+import com.stripe.model.HasId;
+import com.stripe.model.MetadataStore;
+import com.stripe.model.StripeObject;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Durable inbox of Stripe webhook deliveries. The webhook endpoint only verifies and
+ * {@link #append}s; {@link StripeWebhookDispatcher} applies the events afterwards, with
+ * retries and backoff modelled on the email outbox.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StripeWebhookInboxService {
+
+    private final StripeWebhookInboxRepository inboxRepository;
+    private final PaymentReferenceRepository paymentReferenceRepository;
+
+    @Value("${app.payment.webhook.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.payment.webhook.backoff-base:PT5S}")
+    private Duration backoffBase;
+
+    @Value("${app.payment.webhook.backoff-max:PT30M}")
+    private Duration backoffMax;
+
+    @Value("${app.payment.webhook.lease:PT5M}")
+    private Duration lease;
+
+    @Value("${app.payment.webhook.retention:P7D}")
+    private Duration retention;
+
+    /** Stores a verified delivery; returns false if Stripe already delivered this event. */
+    @Transactional
+    public boolean append(Event event, String payload) {
+        int inserted = inboxRepository.insertIfAbsent(event.getId(), event.getType(),
+                orderingKey(event), payload, LocalDateTime.now());
+        return inserted > 0;
+    }
+
+    /** Leases up to {@code limit} due deliveries to the calling dispatcher. */
+    @Transactional
+    public List<StripeWebhookInbox> claimBatch(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<StripeWebhookInbox> batch = inboxRepository.lockDueBatch(now, limit);
+        for (StripeWebhookInbox delivery : batch) {
+            delivery.setStatus(WebhookInboxStatus.PROCESSING);
+            delivery.setAttempts(delivery.getAttempts() + 1);
+            delivery.setLockedUntil(now.plus(lease));
+        }
+        return inboxRepository.saveAll(batch);
+    }
+
+    /** Joins the transaction that applied the event, so the booking change and the ack commit together. */
+    @Transactional
+    public void markProcessed(Long id) {
+        inboxRepository.findById(id).ifPresent(delivery -> {
+            delivery.setStatus(WebhookInboxStatus.PROCESSED);
+            delivery.setProcessedAt(LocalDateTime.now());
+            delivery.setLockedUntil(null);
+            delivery.setLastError(null);
+        });
+    }
+
+    /** Schedules a retry with exponential backoff, or gives up after the last attempt. Returns true if retried. */
+    @Transactional
+    public boolean markFailed(Long id, String error) {
+        StripeWebhookInbox delivery = inboxRepository.findById(id).orElse(null);
+        if (delivery == null) {
+            return false;
+        }
+        delivery.setLastError(error);
+        delivery.setLockedUntil(null);
+        if (delivery.getAttempts() >= maxAttempts) {
+            delivery.setStatus(WebhookInboxStatus.FAILED);
+            log.error("Giving up on Stripe event {} ({}) after {} attempts: {}",
+                    delivery.getStripeEventId(), delivery.getEventType(), delivery.getAttempts(), error);
+            return false;
+        }
+        delivery.setStatus(WebhookInboxStatus.PENDING);
+        delivery.setNextAttemptAt(LocalDateTime.now().plus(backoff(delivery.getAttempts())));
+        return true;
+    }
+
+    @Transactional(readOnly = true)
+    public long pendingCount() {
+        return inboxRepository.countByStatus(WebhookInboxStatus.PENDING);
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${app.payment.webhook.purge-interval:PT1H}")
+    public void purgeProcessed() {
+        int deleted = inboxRepository.deleteProcessedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Purged {} processed Stripe webhook deliveries", deleted);
+        }
+    }
+
+    /**
+     * The booking behind the event's session or payment intent. A payment intent's events can
+     * arrive before the session completion that registers its reference, so the booking is
+     * also read from the metadata stamped on both objects; the Stripe object id is the last resort.
+     */
+    private String orderingKey(Event event) {
+        StripeObject object = event.getDataObjectDeserializer().getObject().orElse(null);
+        String stripeId = object instanceof HasId hasId ? hasId.getId() : null;
+        if (Objects.isNull(stripeId)) {
+            return event.getId();
+        }
+        return paymentReferenceRepository.findById(stripeId)
+                .map(reference -> reference.getBookingType() + ":" + reference.getBookingId())
+                .or(() -> metadataKey(object))
+                .orElse(stripeId);
+    }
+
+    private Optional<String> metadataKey(StripeObject object) {
+        Map<String, String> metadata = object instanceof MetadataStore<?> store ? store.getMetadata() : null;
+        if (Objects.isNull(metadata)
+                || Objects.isNull(metadata.get(StripeService.BOOKING_TYPE_METADATA))
+                || Objects.isNull(metadata.get(StripeService.BOOKING_ID_METADATA))) {
+            return Optional.empty();
+        }
+        return Optional.of(metadata.get(StripeService.BOOKING_TYPE_METADATA) + ":" + metadata.get(StripeService.BOOKING_ID_METADATA));
+    }
+
+    private Duration backoff(int attempts) {
+        long factor = 1L << Math.min(attempts - 1, 20);
+        long millis = Math.min(backoffBase.toMillis() * factor, backoffMax.toMillis());
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return Duration.ofMillis((long) (millis * jitter));
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.cdr.eventsmanagementsystem.Service.Payment;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Objects;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import static com.example.cdr.eventsmanagementsystem.Constants.StripeWebhookConstants.CHECKOUT_SESSION_COMPLETED;
@@ -13,8 +16,9 @@ import static com.example.cdr.eventsmanagementsystem.Constants.StripeWebhookCons
 import static com.example.cdr.eventsmanagementsystem.Constants.StripeWebhookConstants.PAYMENT_INTENT_SUCCEEDED;
 import com.example.cdr.eventsmanagementsystem.Model.Booking.Booking;
 import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
-import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingType;
 import com.example.cdr.eventsmanagementsystem.Model.Booking.PaymentStatus;
+import com.example.cdr.eventsmanagementsystem.NotificationEvent.Payment.BookingPaymentVoided;
+import com.example.cdr.eventsmanagementsystem.Util.BookingUtil;
 import com.example.cdr.eventsmanagementsystem.Util.WebhookHandlerUtil;
 import com.stripe.exception.SignatureVerificationException;
 import com.stripe.model.Event;
@@ -32,6 +36,8 @@ import lombok.extern.slf4j.Slf4j;
 public class StripeWebhookService {
     private final StripeService stripeService;
     private final WebhookHandlerUtil webhookHandlerUtil;
+    private final BookingUtil bookingUtil;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${app.payment.webhook-secret:}")
     private String webhookSecret;
@@ -48,20 +54,20 @@ public class StripeWebhookService {
         }
     }
 
-    public void processEvent(Event event, BookingType type) {
+    public void processEvent(Event event) {
         switch (event.getType()) {
-            case CHECKOUT_SESSION_COMPLETED -> handleCheckoutSessionCompleted(event, type);
-            case CHECKOUT_SESSION_EXPIRED -> handleCheckoutSessionExpired(event, type);
-            case PAYMENT_INTENT_SUCCEEDED -> handlePaymentIntentSucceeded(event, type);
-            case PAYMENT_INTENT_PAYMENT_FAILED -> handlePaymentIntentPaymentFailed(event, type);
-            case PAYMENT_INTENT_CANCELED -> handlePaymentIntentCanceled(event, type);
-            case PAYMENT_INTENT_REQUIRES_ACTION -> handlePaymentIntentRequiresAction(event, type);
+            case CHECKOUT_SESSION_COMPLETED -> handleCheckoutSessionCompleted(event);
+            case CHECKOUT_SESSION_EXPIRED -> handleCheckoutSessionExpired(event);
+            case PAYMENT_INTENT_SUCCEEDED -> handlePaymentIntentSucceeded(event);
+            case PAYMENT_INTENT_PAYMENT_FAILED -> handlePaymentIntentPaymentFailed(event);
+            case PAYMENT_INTENT_CANCELED -> handlePaymentIntentCanceled(event);
+            case PAYMENT_INTENT_REQUIRES_ACTION -> handlePaymentIntentRequiresAction(event);
             default -> log.warn("Unhandled event type: " + event.getType());
         }
     }
 
-    private void handleCheckoutSessionCompleted(Event event, BookingType type) {
-        webhookHandlerUtil.handleSessionEvent(event, type, (booking, session) -> {
+    private void handleCheckoutSessionCompleted(Event event) {
+        webhookHandlerUtil.handleSessionEvent(event, (booking, session) -> {
             String paymentIntentId = session.getPaymentIntent();
             if (Objects.nonNull(paymentIntentId)) {
                 processBookingWithPaymentIntent(booking, paymentIntentId, session);
@@ -74,6 +80,7 @@ public class StripeWebhookService {
     private void processBookingWithPaymentIntent(Booking booking, String paymentIntentId, Session session) {
         PaymentIntent pi = stripeService.retrievePaymentIntent(paymentIntentId);
         booking.setStripePaymentId(paymentIntentId);
+        bookingUtil.registerPaymentReference(paymentIntentId, booking);
         
         log.info("Processing booking with payment intent - Booking ID: " + booking.getId() + 
                           ", Payment Intent Status: " + pi.getStatus() + 
@@ -84,6 +91,9 @@ public class StripeWebhookService {
             booking.setPaymentStatus(PaymentStatus.CAPTURED);
             booking.setStatus(BookingStatus.BOOKED);
         } else if ("requires_capture".equals(pi.getStatus())) {
+            if (booking.getPaymentStatus() != PaymentStatus.AUTHORIZED) {
+                booking.setAuthorizedAt(LocalDateTime.now());
+            }
             booking.setPaymentStatus(PaymentStatus.AUTHORIZED);
             booking.setStatus(BookingStatus.BOOKED);
         } else if ("requires_action".equals(pi.getStatus())) {
@@ -99,38 +109,44 @@ public class StripeWebhookService {
         }
     }
 
-    private void handlePaymentIntentSucceeded(Event event, BookingType type) {
-        webhookHandlerUtil.handlePaymentIntentEvent(event, type, (booking, paymentIntent) -> {
-            if (booking.getStatus() != BookingStatus.BOOKED) {
+    private void handlePaymentIntentSucceeded(Event event) {
+        webhookHandlerUtil.handlePaymentIntentEvent(event, (booking, paymentIntent) -> {
+            // an authorized booking is already BOOKED; its capture still has to be recorded
+            if (booking.getStatus() != BookingStatus.BOOKED || booking.getPaymentStatus() == PaymentStatus.AUTHORIZED) {
                 booking.setPaymentStatus(PaymentStatus.CAPTURED);
                 booking.setStatus(BookingStatus.BOOKED);
             }
         });
     }
 
-    private void handleCheckoutSessionExpired(Event event, BookingType type) {
-        webhookHandlerUtil.handleSessionEvent(event, type, (booking, session) -> {
+    private void handleCheckoutSessionExpired(Event event) {
+        webhookHandlerUtil.handleSessionEvent(event, (booking, session) -> {
             booking.setStatus(BookingStatus.FAILED);
             booking.setPaymentStatus(PaymentStatus.EXPIRED);
         });
     }
 
-    private void handlePaymentIntentPaymentFailed(Event event, BookingType type) {
-        webhookHandlerUtil.handlePaymentIntentEvent(event, type, (booking, paymentIntent) -> {
+    private void handlePaymentIntentPaymentFailed(Event event) {
+        webhookHandlerUtil.handlePaymentIntentEvent(event, (booking, paymentIntent) -> {
             booking.setStatus(BookingStatus.FAILED);
             booking.setPaymentStatus(PaymentStatus.FAILED);
         });
     }
 
-    private void handlePaymentIntentCanceled(Event event, BookingType type) {
-        webhookHandlerUtil.handlePaymentIntentEvent(event, type, (booking, paymentIntent) -> {
+    private void handlePaymentIntentCanceled(Event event) {
+        webhookHandlerUtil.handlePaymentIntentEvent(event, (booking, paymentIntent) -> {
+            boolean newlyCancelled = booking.getStatus() != BookingStatus.CANCELLED;
             booking.setStatus(BookingStatus.CANCELLED);
             booking.setPaymentStatus(PaymentStatus.VOIDED);
+            if (newlyCancelled) {
+                booking.setCancelledAt(LocalDateTime.now(ZoneOffset.UTC));
+                eventPublisher.publishEvent(new BookingPaymentVoided(booking));
+            }
         });
     }
 
-    private void handlePaymentIntentRequiresAction(Event event, BookingType type) {
-        webhookHandlerUtil.handlePaymentIntentEvent(event, type, (booking, paymentIntent) -> {
+    private void handlePaymentIntentRequiresAction(Event event) {
+        webhookHandlerUtil.handlePaymentIntentEvent(event, (booking, paymentIntent) -> {
             booking.setPaymentStatus(PaymentStatus.REQUIRES_ACTION);
             booking.setStatus(BookingStatus.PAYMENT_PENDING);
         });
@@ -6,11 +6,8 @@ import java.util.List;
 import java.util.Objects;
 
 import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
-import com.example.cdr.eventsmanagementsystem.Model.Booking.ServiceBooking;
-import com.example.cdr.eventsmanagementsystem.Repository.EventRepository;
-import com.example.cdr.eventsmanagementsystem.Repository.ServiceBookingRepository;
+import com.example.cdr.eventsmanagementsystem.Model.Service.Availability;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
@@ -43,16 +40,13 @@ public class ServicesService {
     private final UserSyncService userSyncService;
     private final ServiceMapper serviceMapper;
     private final ImageUtil imageUtil;
-    private final ServiceBookingRepository serviceBookingRepository ;
-    private final EventRepository eventRepository;
 
     public ServicesDTO getServiceById(Long serviceId) {
         Services service = getService(serviceId);
         return serviceMapper.toServiceDTO(service);
     }
 
-    public Page<ServicesDTO> getAvailableServices(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
-
+    public Page<ServicesDTO> getAvailableServices(LocalDateTime startDate, LocalDateTime endDate, String area, Pageable pageable) {
 
         if (startDate.isAfter(endDate)) {
             throw new IllegalArgumentException(START_DATE_MUST_BE_BEFORE_END_DATE);
@@ -62,14 +56,10 @@ public class ServicesService {
             throw new IllegalArgumentException(START_DATE_CANNOT_BE_IN_THE_PAST);
         }
 
-        Page<Services> allServices = serviceRepository.findAll(pageable);
-
-        List<ServicesDTO> availableServiceDTOs = allServices.getContent().stream()
-                .filter(service -> isServiceAvailableDuringPeriod(service.getId(), startDate, endDate))
-                .map(serviceMapper::toServiceDTO)
-                .toList();
-
-        return new PageImpl<>(availableServiceDTOs, pageable, availableServiceDTOs.size());
+        String normalizedArea = (area == null || area.isBlank()) ? null : area.trim();
+        Page<Services> availableServices = serviceRepository.findAvailableBetween(
+                startDate, endDate, Availability.AVAILABLE, normalizedArea, BookingStatus.OCCUPYING, pageable);
+        return availableServices.map(serviceMapper::toServiceDTO);
     }
 
 
@@ -125,28 +115,4 @@ public class ServicesService {
         return userSyncService.ensureUserExists(ServiceProvider.class);
     }
 
-    private boolean isServiceAvailableDuringPeriod(Long serviceId, LocalDateTime startDate, LocalDateTime endDate) {
-
-        List<ServiceBooking> serviceBookings = serviceBookingRepository.findBookingsByServiceId(serviceId);
-
-        if ( Objects.isNull(serviceBookings) || serviceBookings.isEmpty()) {
-            return true;
-        }
-
-        List<Long> eventIds = serviceBookings.stream()
-                .filter(booking -> booking.getStatus() != BookingStatus.CANCELLED)
-                .map(ServiceBooking::getEventId)
-                .filter(Objects::nonNull)
-                .distinct()
-                .toList();
-
-        if (eventIds.isEmpty()) {
-            return true;
-        }
-
-        boolean hasConflict = eventRepository.existsEventWithTimeConflict(eventIds, startDate, endDate);
-
-        return !hasConflict;
-    }
-
 }
@@ -0,0 +1,84 @@
+package com.example.cdr.eventsmanagementsystem.Service.User;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.cdr.eventsmanagementsystem.DTO.Admin.DashboardStatisticsDto;
+import com.example.cdr.eventsmanagementsystem.Keycloak.KeycloakAdminService;
+import com.example.cdr.eventsmanagementsystem.Mapper.AdminDashboardMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serves the admin dashboard from a short-lived snapshot. Once the snapshot is older
+ * than the TTL the stale copy is still returned while a single background refresh
+ * rebuilds it, so only the very first request pays the full assembly cost.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardStatisticsCache {
+
+    private final StatisticsManagement statistics;
+    private final KeycloakAdminService keycloakAdminService;
+    private final AdminDashboardMapper adminDashboardMapper;
+    private final ExecutorService virtualThreadExecutor;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+    @Value("${app.admin.dashboard-cache-ttl:30s}")
+    private Duration ttl;
+
+    public DashboardStatisticsDto getDashboard() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot.get();
+                if (current == null) {
+                    current = load();
+                    snapshot.set(current);
+                }
+            }
+            return current.dto();
+        }
+        if (current.isOlderThan(ttl) && refreshing.compareAndSet(false, true)) {
+            virtualThreadExecutor.execute(this::refresh);
+        }
+        return current.dto();
+    }
+
+    private void refresh() {
+        try {
+            snapshot.set(load());
+        } catch (Exception e) {
+            log.warn("Dashboard statistics refresh failed, keeping previous snapshot: {}", e.getMessage());
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    private Snapshot load() {
+        // Keycloak is the source of truth for user counts; fetch it alongside the DB stats
+        CompletableFuture<Map<String, Long>> roleCounts =
+                CompletableFuture.supplyAsync(keycloakAdminService::countUsersByRole, virtualThreadExecutor);
+        DashboardStatisticsDto dto = statistics.getDashboardStatistics();
+        adminDashboardMapper.applyUserRoleCounts(dto, roleCounts.join());
+        return new Snapshot(dto, Instant.now());
+    }
+
+    private record Snapshot(DashboardStatisticsDto dto, Instant loadedAt) {
+        boolean isOlderThan(Duration ttl) {
+            return loadedAt.plus(ttl).isBefore(Instant.now());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.cdr.eventsmanagementsystem.Service.User.Listeners;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.cdr.eventsmanagementsystem.Model.Booking.Booking;
+import com.example.cdr.eventsmanagementsystem.NotificationEvent.BookingCancellation.EventBookingCancelled;
+import com.example.cdr.eventsmanagementsystem.NotificationEvent.BookingCancellation.ServiceBookingCancelled;
+import com.example.cdr.eventsmanagementsystem.NotificationEvent.BookingCancellation.VenueBookingCancelled;
+import com.example.cdr.eventsmanagementsystem.NotificationEvent.BookingCreation.EventBookingCreated;
+import com.example.cdr.eventsmanagementsystem.NotificationEvent.BookingCreation.ServiceBookingCreated;
+import com.example.cdr.eventsmanagementsystem.NotificationEvent.BookingCreation.VenueBookingCreated;
+import com.example.cdr.eventsmanagementsystem.NotificationEvent.Payment.BookingPaymentVoided;
+import com.example.cdr.eventsmanagementsystem.Repository.BookingDailyStatsRepository;
+import com.example.cdr.eventsmanagementsystem.Util.BookingUtil;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps {@code booking_daily_stats} in step with booking creation and cancellation.
+ * Counts are taken after the booking commits, so a rolled back booking is never counted,
+ * and buffered in memory per day and booking type; {@link #flush} upserts them in one
+ * short transaction. Bookings therefore never wait on the lock of the shared day row,
+ * at the cost of losing up to one flush interval of counts if the node dies.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingDailyStatsListener {
+
+    private record Key(LocalDate day, String bookingType) {}
+
+    private record Delta(long created, long cancelled) {
+        Delta plus(Delta other) {
+            return new Delta(created + other.created, cancelled + other.cancelled);
+        }
+    }
+
+    private final BookingDailyStatsRepository statsRepository;
+    private final BookingUtil bookingUtil;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Key, Delta> pending = new ConcurrentHashMap<>();
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleEventBookingCreated(EventBookingCreated event) {
+        recordCreated(event.booking());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleVenueBookingCreated(VenueBookingCreated event) {
+        recordCreated(event.booking());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleServiceBookingCreated(ServiceBookingCreated event) {
+        recordCreated(event.booking());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleEventBookingCancelled(EventBookingCancelled event) {
+        recordCancelled(event.booking());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleVenueBookingCancelled(VenueBookingCancelled event) {
+        recordCancelled(event.booking());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleServiceBookingCancelled(ServiceBookingCancelled event) {
+        recordCancelled(event.booking());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleBookingPaymentVoided(BookingPaymentVoided event) {
+        recordCancelled(event.booking());
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.flush-interval:PT5S}")
+    @PreDestroy
+    public void flush() {
+        Map<Key, Delta> batch = new HashMap<>();
+        for (Key key : pending.keySet()) {
+            Delta delta = pending.remove(key);
+            if (delta != null) {
+                batch.put(key, delta);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach((key, delta) ->
+                    statsRepository.increment(key.day(), key.bookingType(), delta.created(), delta.cancelled())));
+        } catch (RuntimeException e) {
+            // keep the counts for the next flush
+            batch.forEach((key, delta) -> pending.merge(key, delta, Delta::plus));
+            log.warn("Could not flush daily booking stats; retrying next interval: {}", e.getMessage());
+        }
+    }
+
+    private void recordCreated(Booking booking) {
+        pending.merge(new Key(dayOf(booking.getCreatedAt()), bookingUtil.getResourceType(booking)), new Delta(1, 0), Delta::plus);
+    }
+
+    private void recordCancelled(Booking booking) {
+        pending.merge(new Key(dayOf(booking.getCancelledAt()), bookingUtil.getResourceType(booking)), new Delta(0, 1), Delta::plus);
+    }
+
+    private static LocalDate dayOf(LocalDateTime timestamp) {
+        return timestamp != null ? timestamp.toLocalDate() : LocalDate.now();
+    }
+}
@@ -9,8 +9,13 @@ import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -24,6 +29,7 @@ import com.example.cdr.eventsmanagementsystem.DTO.projections.LocalDateCount;
 import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
 import com.example.cdr.eventsmanagementsystem.Model.Booking.PaymentStatus;
 import com.example.cdr.eventsmanagementsystem.Model.Event.EventStatus;
+import com.example.cdr.eventsmanagementsystem.Repository.BookingDailyStatsRepository;
 import com.example.cdr.eventsmanagementsystem.Repository.EventBookingRepository;
 import com.example.cdr.eventsmanagementsystem.Repository.EventRepository;
 import com.example.cdr.eventsmanagementsystem.Repository.ServiceBookingRepository;
@@ -36,6 +42,7 @@ import com.example.cdr.eventsmanagementsystem.Repository.VenueBookingRepository;
 import com.example.cdr.eventsmanagementsystem.Repository.VenueRepository;
 import com.example.cdr.eventsmanagementsystem.Service.Payment.StripeService;
 import com.example.cdr.eventsmanagementsystem.DTO.Admin.UiRevenue;
+import jakarta.annotation.PostConstruct;
 import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
 
@@ -62,43 +69,89 @@ public class StatisticsManagement {
     private final VenueBookingRepository venueBookingRepository;
     private final EventBookingRepository eventBookingRepository;
     private final ServiceBookingRepository serviceBookingRepository;
+    private final BookingDailyStatsRepository bookingDailyStatsRepository;
+    private final ExecutorService virtualThreadExecutor;
 
+    @Value("${app.admin.dashboard-query-parallelism:4}")
+    private int queryParallelism;
+
+    /** Shared by all dashboard requests, so a burst of them cannot take over the connection pool. */
+    private Semaphore queryPermits;
+
+    @PostConstruct
+    void init() {
+        queryPermits = new Semaphore(queryParallelism);
+    }
+
+    /**
+     * Each figure is an independent query, so they are issued concurrently and the
+     * call costs roughly as much as the slowest one rather than the sum of all. At most
+     * {@code dashboard-query-parallelism} of them hold a connection at any time.
+     */
     public DashboardStatisticsDto getDashboardStatistics() {
-        DashboardStatisticsDto dto = new DashboardStatisticsDto();
         LocalDateTime now = LocalDateTime.now();
-        dto.setTotalUpcoming(eventRepository.countByStartTimeAfterAndStatusNot(now, EventStatus.CANCELLED));
-        dto.setTotalOngoing(eventRepository.countByStartTimeBeforeAndEndTimeAfterAndStatusNot(now, now, EventStatus.CANCELLED));
-        dto.setTotalCompleted(eventRepository.countByEndTimeBeforeAndStatusNot(now, EventStatus.CANCELLED));
-        dto.setTotalCancelled(eventRepository.countByStatus(EventStatus.CANCELLED));
-
-        dto.setNumAdmins(adminRepository.count());
-        dto.setNumOrganizers(organizerRepository.count());
-        dto.setNumAttendees(attendeeRepository.count());
-        dto.setNumServiceProviders(serviceProviderRepository.count());
-        dto.setNumVenueProviders(venueProviderRepository.count());
-        long venueTotal = venueRepository.count();
-        long venueActiveNow = venueBookingRepository.countDistinctActiveVenueIdsAt(now,
+
+        CompletableFuture<Long> upcoming = supply(() -> eventRepository.countByStartTimeAfterAndStatusNot(now, EventStatus.CANCELLED));
+        CompletableFuture<Long> ongoing = supply(() -> eventRepository.countByStartTimeBeforeAndEndTimeAfterAndStatusNot(now, now, EventStatus.CANCELLED));
+        CompletableFuture<Long> completed = supply(() -> eventRepository.countByEndTimeBeforeAndStatusNot(now, EventStatus.CANCELLED));
+        CompletableFuture<Long> cancelled = supply(() -> eventRepository.countByStatus(EventStatus.CANCELLED));
+
+        CompletableFuture<Long> admins = supply(adminRepository::count);
+        CompletableFuture<Long> organizers = supply(organizerRepository::count);
+        CompletableFuture<Long> attendees = supply(attendeeRepository::count);
+        CompletableFuture<Long> serviceProviders = supply(serviceProviderRepository::count);
+        CompletableFuture<Long> venueProviders = supply(venueProviderRepository::count);
+
+        CompletableFuture<Long> venueTotal = supply(venueRepository::count);
+        CompletableFuture<Long> venueActiveNow = supply(() -> venueBookingRepository.countDistinctActiveVenueIdsAt(now,
                 java.util.EnumSet.of(CAPTURED, PARTIALLY_REFUNDED, AUTHORIZED),
                 java.util.EnumSet.of(BOOKED, ACCEPTED),
-                CANCELLED);
-        dto.setVenueTotal(venueTotal);
-        dto.setVenueActiveNow(venueActiveNow);
-        dto.setVenueUtilizationRate(venueTotal == 0 ? 0.0 : (double) venueActiveNow / venueTotal);
-
-        // Service-provider counts + rate
-        long svcTotal = serviceProviderRepository.count();
-        long svcActiveNow = serviceBookingRepository.countDistinctActiveServiceProvidersAt(now,
-                java.util.EnumSet.of(BookingStatus.BOOKED, BookingStatus.ACCEPTED)
-            );
+                CANCELLED));
+        CompletableFuture<Long> svcActiveNow = supply(() -> serviceBookingRepository.countDistinctActiveServiceProvidersAt(now,
+                java.util.EnumSet.of(BookingStatus.BOOKED, BookingStatus.ACCEPTED)));
+        CompletableFuture<List<UiRevenue>> revenue = supply(this::buildUiRevenue);
+
+        DashboardStatisticsDto dto = new DashboardStatisticsDto();
+        dto.setTotalUpcoming(upcoming.join());
+        dto.setTotalOngoing(ongoing.join());
+        dto.setTotalCompleted(completed.join());
+        dto.setTotalCancelled(cancelled.join());
+
+        dto.setNumAdmins(admins.join());
+        dto.setNumOrganizers(organizers.join());
+        dto.setNumAttendees(attendees.join());
+        dto.setNumServiceProviders(serviceProviders.join());
+        dto.setNumVenueProviders(venueProviders.join());
+
+        long venues = venueTotal.join();
+        long venuesActive = venueActiveNow.join();
+        dto.setVenueTotal(venues);
+        dto.setVenueActiveNow(venuesActive);
+        dto.setVenueUtilizationRate(venues == 0 ? 0.0 : (double) venuesActive / venues);
+
+        // Service-provider counts + rate (total is the same count as numServiceProviders)
+        long svcTotal = serviceProviders.join();
+        long svcActive = svcActiveNow.join();
         dto.setServiceProvidersTotal(svcTotal);
-        dto.setServiceProvidersActiveNow(svcActiveNow);
-        dto.setServiceProviderUtilizationRate(svcTotal == 0 ? 0.0 : (double) svcActiveNow / svcTotal);
+        dto.setServiceProvidersActiveNow(svcActive);
+        dto.setServiceProviderUtilizationRate(svcTotal == 0 ? 0.0 : (double) svcActive / svcTotal);
 
         // Revenue
-        dto.setRevenueByOrganizer(buildUiRevenue());
+        dto.setRevenueByOrganizer(revenue.join());
         return dto;
     }
 
+    private <T> CompletableFuture<T> supply(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(() -> {
+            queryPermits.acquireUninterruptibly();
+            try {
+                return query.get();
+            } finally {
+                queryPermits.release();
+            }
+        }, virtualThreadExecutor);
+    }
+
     private java.util.List<UiRevenue> buildUiRevenue() {
         var rows = eventBookingRepository.sumRevenueByOrganizer(PaymentStatus.CAPTURED,
             PaymentStatus.PARTIALLY_REFUNDED,
@@ -149,30 +202,14 @@ public class StatisticsManagement {
     }
 
     public Map<LocalDate, Long> getDailyBookingCount(LocalDate startDate, LocalDate endDate) {
-        LocalDateTime startTs = startDate.atStartOfDay();
-        LocalDateTime endTs = endDate.plusDays(1).atStartOfDay().minusNanos(1);
-
         Map<LocalDate, Long> result = initDateRange(startDate, endDate);
-
-        mergeCounts(result, eventBookingRepository.countDailyBookingsBetween(startTs, endTs));
-        mergeCounts(result, venueBookingRepository.countDailyBookingsBetween(startTs, endTs));
-        // If you don’t have service bookings yet, comment this next line:
-        mergeCounts(result, serviceBookingRepository.countDailyBookingsBetween(startTs, endTs));
-
+        mergeCounts(result, bookingDailyStatsRepository.sumCreatedBetween(startDate, endDate));
         return result;
     }
 
     public Map<LocalDate, Long> getDailyCancellationCount(LocalDate startDate, LocalDate endDate) {
-        LocalDateTime startTs = startDate.atStartOfDay();
-        LocalDateTime endTs = endDate.plusDays(1).atStartOfDay().minusNanos(1);
-
         Map<LocalDate, Long> result = initDateRange(startDate, endDate);
-
-        mergeCounts(result, eventBookingRepository.countDailyCancellationsBetween(startTs, endTs, BookingStatus.CANCELLED));
-        mergeCounts(result, venueBookingRepository.countDailyCancellationsBetween(startTs, endTs, BookingStatus.CANCELLED));
-        // Likewise, comment if ServiceBooking isn’t in yet:
-        mergeCounts(result, serviceBookingRepository.countDailyCancellationsBetween(startTs, endTs, BookingStatus.CANCELLED));
-
+        mergeCounts(result, bookingDailyStatsRepository.sumCancelledBetween(startDate, endDate));
         return result;
     }
 
@@ -0,0 +1,80 @@
+package com.example.cdr.eventsmanagementsystem.Service.User;
+
+import static com.example.cdr.eventsmanagementsystem.Constants.ControllerConstants.RoleConstants.ADMIN_ROLE;
+import static com.example.cdr.eventsmanagementsystem.Constants.ControllerConstants.RoleConstants.ATTENDEE_ROLE;
+import static com.example.cdr.eventsmanagementsystem.Constants.ControllerConstants.RoleConstants.ORGANIZER_ROLE;
+import static com.example.cdr.eventsmanagementsystem.Constants.ControllerConstants.RoleConstants.SERVICE_PROVIDER_ROLE;
+import static com.example.cdr.eventsmanagementsystem.Constants.ControllerConstants.RoleConstants.VENUE_PROVIDER_ROLE;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.cdr.eventsmanagementsystem.DTO.projections.RoleCount;
+import com.example.cdr.eventsmanagementsystem.Repository.UsersRepository.UserRoleIndexRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains the local user → role index and answers role counts from it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserRoleIndexService {
+
+    private final UserRoleIndexRepository userRoleIndexRepository;
+
+    @Transactional
+    public void record(String userId, String role) {
+        record(userId, role, LocalDateTime.now());
+    }
+
+    @Transactional
+    public void record(String userId, String role, LocalDateTime syncedAt) {
+        if (userId == null || userId.isBlank()) {
+            return;
+        }
+        String normalized = role == null || role.isBlank() ? ATTENDEE_ROLE : role.trim().toLowerCase();
+        userRoleIndexRepository.upsert(userId, normalized, syncedAt);
+    }
+
+    @Transactional
+    public void remove(String userId) {
+        userRoleIndexRepository.deleteById(userId);
+    }
+
+    /** Drops users that were not seen by a reconciliation run that started at {@code runStartedAt}. */
+    @Transactional
+    public int removeNotSyncedSince(LocalDateTime runStartedAt) {
+        return userRoleIndexRepository.deleteSyncedBefore(runStartedAt);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Long> countUsersByRole() {
+        long admins = 0, organizers = 0, attendees = 0, serviceProviders = 0, venueProviders = 0;
+        for (RoleCount row : userRoleIndexRepository.countByRole()) {
+            long count = row.getCount();
+            switch (row.getRole()) {
+                case ADMIN_ROLE -> admins += count;
+                case ORGANIZER_ROLE -> organizers += count;
+                case SERVICE_PROVIDER_ROLE -> serviceProviders += count;
+                case VENUE_PROVIDER_ROLE -> venueProviders += count;
+                default -> attendees += count; // treat any unknown/missing as attendee
+            }
+        }
+
+        Map<String, Long> map = new HashMap<>();
+        map.put("total", admins + organizers + attendees + serviceProviders + venueProviders);
+        map.put("admins", admins);
+        map.put("organizers", organizers);
+        map.put("attendees", attendees);
+        map.put("service_providers", serviceProviders);
+        map.put("venue_providers", venueProviders);
+        return map;
+    }
+}
@@ -9,11 +9,14 @@ import com.example.cdr.eventsmanagementsystem.Model.Event.Event;
 import com.example.cdr.eventsmanagementsystem.Model.Service.Services;
 import com.example.cdr.eventsmanagementsystem.Model.Venue.Venue;
 import com.example.cdr.eventsmanagementsystem.Repository.*;
+import com.example.cdr.eventsmanagementsystem.Service.Event.EventInventoryService;
+import com.example.cdr.eventsmanagementsystem.Service.Payment.SoldOutRefundService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Slf4j
@@ -29,6 +32,9 @@ public class BookingUtil {
     private final VenueRepository venueRepository;
     private final ServiceRepository serviceRepository;
     private final EventRepository eventRepository;
+    private final EventInventoryService eventInventoryService;
+    private final PaymentReferenceRepository paymentReferenceRepository;
+    private final SoldOutRefundService soldOutRefundService;
 
     public String getResourceName(Booking booking) {
         return switch (booking) {
@@ -61,7 +67,13 @@ public class BookingUtil {
         switch (booking) {
             case VenueBooking venueBooking -> venueBookingRepository.save(venueBooking);
             case ServiceBooking serviceBooking -> serviceBookingRepository.save(serviceBooking);
-            case EventBooking eventBooking -> eventBookingRepository.save(eventBooking);
+            case EventBooking eventBooking -> {
+                if (!eventInventoryService.trySync(eventBooking)) {
+                    // Stripe took the money but the event sold out meanwhile: give it back rather than fail the caller
+                    soldOutRefundService.cancelAndRefund(eventBooking);
+                }
+                eventBookingRepository.save(eventBooking);
+            }
             default -> throw new IllegalArgumentException("Unsupported booking type: " + booking.getClass().getName());
         }
     }
@@ -86,19 +98,34 @@ public class BookingUtil {
         };
     }
 
-    public Booking findBookingByStripeSessionIdAndType(String sessionId, BookingType type) {
-        return switch (type) {
-            case EVENT -> eventBookingRepository.findByStripeSessionId(sessionId);
-            case VENUE -> venueBookingRepository.findByStripeSessionId(sessionId);
-            case SERVICE -> serviceBookingRepository.findByStripeSessionId(sessionId);
-        };
+    /**
+     * Resolves a Stripe checkout session or payment intent id to its booking through
+     * {@code payment_reference}; null if the id belongs to no booking.
+     */
+    public Booking findBookingByStripeId(String stripeId) {
+        return paymentReferenceRepository.findById(stripeId)
+                .map(reference -> switch (reference.getBookingType()) {
+                    case EVENT -> eventBookingRepository.findById(reference.getBookingId()).<Booking>map(b -> b).orElse(null);
+                    case VENUE -> venueBookingRepository.findById(reference.getBookingId()).<Booking>map(b -> b).orElse(null);
+                    case SERVICE -> serviceBookingRepository.findById(reference.getBookingId()).<Booking>map(b -> b).orElse(null);
+                })
+                .orElse(null);
     }
 
-    public Booking findBookingByStripePaymentIdAndType(String paymentId, BookingType type) {
-        return switch (type) {
-            case EVENT -> eventBookingRepository.findByStripePaymentId(paymentId);
-            case VENUE -> venueBookingRepository.findByStripePaymentId(paymentId);
-            case SERVICE -> serviceBookingRepository.findByStripePaymentId(paymentId);
+    /** Indexes a Stripe session or payment intent id created for {@code booking}. */
+    public void registerPaymentReference(String stripeId, Booking booking) {
+        if (Objects.isNull(stripeId)) {
+            return;
+        }
+        paymentReferenceRepository.insertIfAbsent(stripeId, getBookingType(booking).name(), booking.getId(), LocalDateTime.now());
+    }
+
+    public BookingType getBookingType(Booking booking) {
+        return switch (booking) {
+            case VenueBooking v -> BookingType.VENUE;
+            case ServiceBooking s -> BookingType.SERVICE;
+            case EventBooking e -> BookingType.EVENT;
+            default -> throw new IllegalArgumentException("Unsupported booking type: " + booking.getClass().getName());
         };
     }
 
@@ -1,30 +1,106 @@
 package com.example.cdr.eventsmanagementsystem.Util;
 
+import com.example.cdr.eventsmanagementsystem.Service.Image.ImageStore;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
+import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.UNSUPPORTED_IMAGE_FORMAT;
+
+/**
+ * Upload pipeline for venue/service images: streams each file into the
+ * {@link ImageStore}, renders a thumbnail and returns the content hashes
+ * that entities keep instead of the bytes.
+ */
 @Component
+@RequiredArgsConstructor
 public class ImageUtil {
-    public List<byte[]> extractImageData(List<MultipartFile> files) throws IOException {
+    private static final int THUMBNAIL_MAX_SIZE = 320;
+
+    private final ImageStore imageStore;
+
+    public List<String> extractImageData(List<MultipartFile> files) throws IOException {
         if (Objects.isNull(files)) return Collections.emptyList();
 
-        List<byte[]> imageData = new ArrayList<>();
+        List<String> hashes = new ArrayList<>();
         for (MultipartFile file : files) {
             if (Objects.nonNull(file) && !file.isEmpty()) {
-                imageData.add(file.getBytes());
+                try (InputStream in = file.getInputStream()) {
+                    hashes.add(storeImage(in));
+                }
             }
         }
-        return imageData;
+        return hashes;
     }
-    public List<byte[]> mergeImages(List<byte[]> existingImages, List<MultipartFile> newImages) throws IOException {
-        List<byte[]> merged = Objects.nonNull(existingImages) ? new ArrayList<>(existingImages) : new ArrayList<>();
+
+    public List<String> mergeImages(List<String> existingImages, List<MultipartFile> newImages) throws IOException {
+        List<String> merged = Objects.nonNull(existingImages) ? new ArrayList<>(existingImages) : new ArrayList<>();
         merged.addAll(extractImageData(newImages));
         return merged;
     }
+
+    /**
+     * Stores an image and its thumbnail, returning the content hash. The bytes are decoded
+     * before anything is written, so a file that is not a readable image never reaches the
+     * store; uploads are bounded by the multipart size limit.
+     */
+    public String storeImage(InputStream content) throws IOException {
+        byte[] bytes = content.readAllBytes();
+        BufferedImage source = decode(bytes);
+        String hash = imageStore.put(new ByteArrayInputStream(bytes));
+        if (imageStore.getVariant(hash, ImageStore.THUMBNAIL).isEmpty()) {
+            imageStore.putVariant(hash, ImageStore.THUMBNAIL, new ByteArrayInputStream(renderThumbnail(source)));
+        }
+        return hash;
+    }
+
+    private static BufferedImage decode(byte[] bytes) throws IOException {
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes));
+            if (image == null) {
+                throw new IllegalArgumentException(UNSUPPORTED_IMAGE_FORMAT);
+            }
+            return image;
+        } catch (IIOException e) {
+            // a recognised format whose data is truncated or corrupt
+            throw new IllegalArgumentException(UNSUPPORTED_IMAGE_FORMAT, e);
+        }
+    }
+
+    private static byte[] renderThumbnail(BufferedImage source) throws IOException {
+        double scale = Math.min(1.0, (double) THUMBNAIL_MAX_SIZE / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        // JPEG has no alpha channel, so flatten onto white
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = thumbnail.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(thumbnail, "jpg", out);
+        return out.toByteArray();
+    }
 }
@@ -6,7 +6,6 @@ import java.util.function.BiConsumer;
 import org.springframework.stereotype.Component;
 
 import com.example.cdr.eventsmanagementsystem.Model.Booking.Booking;
-import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingType;
 import com.example.cdr.eventsmanagementsystem.Service.Notifications.NotificationUtil;
 import com.stripe.model.Event;
 import com.stripe.model.PaymentIntent;
@@ -31,19 +30,22 @@ public class WebhookHandlerUtil {
      * Generic handler for PaymentIntent-based webhook events
      * 
      * @param event The Stripe webhook event
-     * @param type The booking type (Event, Service, Venue)
      * @param statusUpdater Lambda function to update booking status based on PaymentIntent
      */
-    public void handlePaymentIntentEvent(Event event, BookingType type, 
-                                       BiConsumer<Booking, PaymentIntent> statusUpdater) {
+    public void handlePaymentIntentEvent(Event event, BiConsumer<Booking, PaymentIntent> statusUpdater) {
         var obj = event.getDataObjectDeserializer().getObject().orElse(null);
         if (!(obj instanceof PaymentIntent paymentIntent)) return;
 
-        Booking booking = bookingUtil.findBookingByStripePaymentIdAndType(paymentIntent.getId(), type);
+        Booking booking = bookingUtil.findBookingByStripeId(paymentIntent.getId());
         if (Objects.isNull(booking)) {
             log.warn("No booking found for PaymentIntent: " + paymentIntent.getId());
             return;
         }
+        if (Objects.nonNull(booking.getStripePaymentId()) && !booking.getStripePaymentId().equals(paymentIntent.getId())) {
+            // e.g. the old intent cancelled after a re-authorization moved the booking to a new one
+            log.info("Ignoring event for superseded PaymentIntent " + paymentIntent.getId() + " of booking " + booking.getId());
+            return;
+        }
 
         try {
             log.info("Processing PaymentIntent event for booking ID: " + booking.getId() + 
@@ -65,15 +67,13 @@ public class WebhookHandlerUtil {
      * Generic handler for Session-based webhook events
      * 
      * @param event The Stripe webhook event
-     * @param type The booking type (Event, Service, Venue)
      * @param statusUpdater Lambda function to update booking status based on Session
      */
-    public void handleSessionEvent(Event event, BookingType type, 
-                                  BiConsumer<Booking, Session> statusUpdater) {
+    public void handleSessionEvent(Event event, BiConsumer<Booking, Session> statusUpdater) {
         var obj = event.getDataObjectDeserializer().getObject().orElse(null);
         if (!(obj instanceof Session session)) return;
 
-        Booking booking = bookingUtil.findBookingByStripeSessionIdAndType(session.getId(), type);
+        Booking booking = bookingUtil.findBookingByStripeId(session.getId());
         if (Objects.isNull(booking)) {
             log.warn("No booking found for Session: " + session.getId());
             return;
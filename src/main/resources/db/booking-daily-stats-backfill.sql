@@ -0,0 +1,20 @@
+-- Seeds booking_daily_stats from the raw booking tables the first time it is empty.
+-- After that the table is maintained by BookingDailyStatsListener, so this is a no-op on restart.
+
+INSERT INTO booking_daily_stats (day, booking_type, created, cancelled)
+SELECT day, booking_type, SUM(created), SUM(cancelled)
+FROM (
+    SELECT CAST(created_at AS date) AS day, 'EVENT' AS booking_type, 1 AS created, 0 AS cancelled FROM event_bookings
+    UNION ALL
+    SELECT CAST(created_at AS date), 'VENUE', 1, 0 FROM venue_bookings
+    UNION ALL
+    SELECT CAST(created_at AS date), 'SERVICE', 1, 0 FROM service_bookings
+    UNION ALL
+    SELECT CAST(COALESCE(cancelled_at, updated_at, created_at) AS date), 'EVENT', 0, 1 FROM event_bookings WHERE status = 'CANCELLED'
+    UNION ALL
+    SELECT CAST(COALESCE(cancelled_at, updated_at, created_at) AS date), 'VENUE', 0, 1 FROM venue_bookings WHERE status = 'CANCELLED'
+    UNION ALL
+    SELECT CAST(COALESCE(cancelled_at, updated_at, created_at) AS date), 'SERVICE', 0, 1 FROM service_bookings WHERE status = 'CANCELLED'
+) raw
+WHERE NOT EXISTS (SELECT 1 FROM booking_daily_stats)
+GROUP BY day, booking_type;
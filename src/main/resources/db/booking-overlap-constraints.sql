@@ -0,0 +1,38 @@
+-- Range-based overlap protection for venue and service bookings.
+-- Runs after Hibernate has created/updated the tables (spring.jpa.defer-datasource-initialization)
+-- and is safe to re-run on every startup: existing constraints are left alone rather than
+-- dropped and rebuilt, which would rescan the tables and block writes on every boot.
+-- The DO bodies are single-quoted rather than $$-quoted because Spring's script splitter
+-- only understands ordinary quotes and would cut a $$ block at its first semicolon.
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- venue_bookings
+ALTER TABLE venue_bookings
+    ADD COLUMN IF NOT EXISTS period tsrange
+    GENERATED ALWAYS AS (tsrange(start_time, end_time, '[)')) STORED;
+
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''venue_bookings_no_overlap'') THEN
+        ALTER TABLE venue_bookings
+            ADD CONSTRAINT venue_bookings_no_overlap
+            EXCLUDE USING gist (venue_id WITH =, period WITH &&)
+            WHERE (status IN (''PENDING'', ''PAYMENT_PENDING'', ''BOOKED'', ''ACCEPTED''));
+    END IF;
+END';
+
+-- service_bookings
+ALTER TABLE service_bookings
+    ADD COLUMN IF NOT EXISTS period tsrange
+    GENERATED ALWAYS AS (tsrange(start_time, end_time, '[)')) STORED;
+
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''service_bookings_no_overlap'') THEN
+        ALTER TABLE service_bookings
+            ADD CONSTRAINT service_bookings_no_overlap
+            EXCLUDE USING gist (service_id WITH =, period WITH &&)
+            WHERE (status IN (''PENDING'', ''PAYMENT_PENDING'', ''BOOKED'', ''ACCEPTED''));
+    END IF;
+END';
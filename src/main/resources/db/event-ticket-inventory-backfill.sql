@@ -0,0 +1,17 @@
+-- Counts pre-existing active event bookings into events.tickets_sold the first time the
+-- inventory columns appear. Only bookings not yet flagged ticket_held are counted and then
+-- flagged, so this is a no-op on restart; EventInventoryService maintains both afterwards.
+
+UPDATE events e
+SET tickets_sold = e.tickets_sold + held.n
+FROM (
+    SELECT event_id, COUNT(*) AS n
+    FROM event_bookings
+    WHERE ticket_held = false AND status IN ('PENDING', 'PAYMENT_PENDING', 'BOOKED', 'ACCEPTED')
+    GROUP BY event_id
+) held
+WHERE e.id = held.event_id;
+
+UPDATE event_bookings
+SET ticket_held = true
+WHERE ticket_held = false AND status IN ('PENDING', 'PAYMENT_PENDING', 'BOOKED', 'ACCEPTED');
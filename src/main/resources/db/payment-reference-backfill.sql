@@ -0,0 +1,17 @@
+-- Indexes the Stripe session and payment intent ids of bookings created before
+-- payment_reference existed. Conflicting ids are skipped, so this is a no-op on restart;
+-- BookingUtil.registerPaymentReference maintains the table afterwards.
+
+INSERT INTO payment_reference (stripe_id, booking_type, booking_id, created_at)
+SELECT stripe_session_id, 'EVENT', id, now() FROM event_bookings WHERE stripe_session_id IS NOT NULL
+UNION ALL
+SELECT stripe_payment_id, 'EVENT', id, now() FROM event_bookings WHERE stripe_payment_id IS NOT NULL
+UNION ALL
+SELECT stripe_session_id, 'VENUE', id, now() FROM venue_bookings WHERE stripe_session_id IS NOT NULL
+UNION ALL
+SELECT stripe_payment_id, 'VENUE', id, now() FROM venue_bookings WHERE stripe_payment_id IS NOT NULL
+UNION ALL
+SELECT stripe_session_id, 'SERVICE', id, now() FROM service_bookings WHERE stripe_session_id IS NOT NULL
+UNION ALL
+SELECT stripe_payment_id, 'SERVICE', id, now() FROM service_bookings WHERE stripe_payment_id IS NOT NULL
+ON CONFLICT (stripe_id) DO NOTHING;
@@ -0,0 +1,302 @@
+package com.example.cdr.eventsmanagementsystem.LoadTest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import com.example.cdr.eventsmanagementsystem.Config.StripeConfig;
+import com.example.cdr.eventsmanagementsystem.Controller.StripeWebhookController;
+import com.example.cdr.eventsmanagementsystem.DTO.Booking.Request.EventBookingRequest;
+import com.example.cdr.eventsmanagementsystem.DTO.Booking.Response.EventBookingResponse;
+import com.example.cdr.eventsmanagementsystem.Mapper.EventBookingMapperImpl;
+import com.example.cdr.eventsmanagementsystem.Mapper.ServiceBookingMapperImpl;
+import com.example.cdr.eventsmanagementsystem.Mapper.VenueBookingMapperImpl;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.EventBooking;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.PaymentStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Event.Event;
+import com.example.cdr.eventsmanagementsystem.Model.Payment.StripeWebhookInbox;
+import com.example.cdr.eventsmanagementsystem.Model.Payment.WebhookInboxStatus;
+import com.example.cdr.eventsmanagementsystem.Model.User.Attendee;
+import com.example.cdr.eventsmanagementsystem.PostgresJpaTest;
+import com.example.cdr.eventsmanagementsystem.Repository.EventBookingRepository;
+import com.example.cdr.eventsmanagementsystem.Repository.EventRepository;
+import com.example.cdr.eventsmanagementsystem.Repository.StripeWebhookInboxRepository;
+import com.example.cdr.eventsmanagementsystem.Service.Auth.UserSyncService;
+import com.example.cdr.eventsmanagementsystem.Service.Booking.BookingHoldService;
+import com.example.cdr.eventsmanagementsystem.Service.Booking.EventBookingService;
+import com.example.cdr.eventsmanagementsystem.Service.Booking.WaitingRoomService;
+import com.example.cdr.eventsmanagementsystem.Service.Event.EventInventoryService;
+import com.example.cdr.eventsmanagementsystem.Service.Notifications.EmailOutboxService;
+import com.example.cdr.eventsmanagementsystem.Service.Notifications.NotificationUtil;
+import com.example.cdr.eventsmanagementsystem.Service.Payment.AutoPayService;
+import com.example.cdr.eventsmanagementsystem.Service.Payment.PaymentService;
+import com.example.cdr.eventsmanagementsystem.Service.Payment.SoldOutRefundService;
+import com.example.cdr.eventsmanagementsystem.Service.Payment.StripeEventLedger;
+import com.example.cdr.eventsmanagementsystem.Service.Payment.StripeGateway;
+import com.example.cdr.eventsmanagementsystem.Service.Payment.StripeObjectCache;
+import com.example.cdr.eventsmanagementsystem.Service.Payment.StripeService;
+import com.example.cdr.eventsmanagementsystem.Service.Payment.StripeWebhookDispatcher;
+import com.example.cdr.eventsmanagementsystem.Service.Payment.StripeWebhookInboxService;
+import com.example.cdr.eventsmanagementsystem.Service.Payment.StripeWebhookService;
+import com.example.cdr.eventsmanagementsystem.Util.BookingUtil;
+import com.example.cdr.eventsmanagementsystem.Util.WebhookHandlerUtil;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * End-to-end paid booking under load, with {@link FakeStripeServer} standing in for Stripe:
+ * {@code createBooking} opens a real checkout session over HTTP, the fake "pays" it and
+ * delivers a signed {@code checkout.session.completed} to {@link StripeWebhookController},
+ * the inbox dispatcher applies it, and the customer's return page is answered by
+ * {@code PaymentService.confirmPayment}. Prints count, throughput and p50/p99 per stage.
+ *
+ * <p>Tagged {@code load}, so it only runs with {@code mvn test -Pload-test}. Tune with
+ * {@code -Dloadtest.bookings}, {@code -Dloadtest.concurrency}, {@code -Dloadtest.rate}
+ * (bookings started per second, 0 = unthrottled) and {@code -Dloadtest.stripe-latency}
+ * (per-call delay of the fake, ISO-8601).
+ */
+@Slf4j
+@Tag("load")
+@Import({
+        EventBookingService.class, EventInventoryService.class, WaitingRoomService.class,
+        EventBookingMapperImpl.class, VenueBookingMapperImpl.class, ServiceBookingMapperImpl.class,
+        StripeConfig.class, StripeGateway.class, StripeService.class, StripeObjectCache.class,
+        StripeWebhookController.class, StripeWebhookService.class, StripeWebhookInboxService.class,
+        StripeWebhookDispatcher.class, StripeEventLedger.class, WebhookHandlerUtil.class,
+        BookingUtil.class, NotificationUtil.class, SoldOutRefundService.class, PaymentService.class
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookingPaymentLoadTest extends PostgresJpaTest {
+    private static final String WEBHOOK_SECRET = "whsec_load_test";
+    private static final String BUYER = "attendee-load";
+
+    private static final int BOOKINGS = Integer.getInteger("loadtest.bookings", 500);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 32);
+    private static final int RATE = Integer.getInteger("loadtest.rate", 0);
+    private static final Duration STRIPE_LATENCY = Duration.parse(System.getProperty("loadtest.stripe-latency", "PT0.05S"));
+
+    private static final FakeStripeServer STRIPE = FakeStripeServer.start(WEBHOOK_SECRET);
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @DynamicPropertySource
+    static void stripe(DynamicPropertyRegistry registry) {
+        registry.add("spring.stripe.api-key", () -> "sk_test_load");
+        registry.add("app.payment.stripe.api-base", STRIPE::baseUrl);
+        registry.add("app.payment.webhook-secret", () -> WEBHOOK_SECRET);
+        registry.add("app.payment.stripe.bulkhead.max-concurrent", () -> CONCURRENCY);
+    }
+
+    @AfterAll
+    static void stopStripe() {
+        STRIPE.close();
+    }
+
+    @Autowired
+    private EventBookingService eventBookingService;
+
+    @Autowired
+    private StripeWebhookController webhookController;
+
+    @Autowired
+    private StripeWebhookDispatcher webhookDispatcher;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventBookingRepository bookingRepository;
+
+    @Autowired
+    private StripeWebhookInboxRepository inboxRepository;
+
+    @MockBean
+    private UserSyncService userSyncService;
+
+    @MockBean
+    private AutoPayService autoPayService;
+
+    @MockBean
+    private BookingHoldService bookingHoldService;
+
+    @MockBean
+    private EmailOutboxService emailOutboxService;
+
+    private final LatencyReport report = new LatencyReport();
+
+    @BeforeEach
+    void setUp() {
+        STRIPE.setLatency(STRIPE_LATENCY);
+        STRIPE.setWebhookSink((payload, signature) -> {
+            long start = System.nanoTime();
+            int status = webhookController.handle(payload, signature).getStatusCode().value();
+            report.record("StripeWebhookController.handle", System.nanoTime() - start);
+            return status;
+        });
+        Attendee attendee = new Attendee();
+        attendee.setId(BUYER);
+        attendee.setEmail(BUYER + "@example.com");
+        // an existing Stripe customer, so the booking path makes the one checkout call a returning buyer makes
+        attendee.setStripeCustomerId("cus_load");
+        when(userSyncService.ensureUserExists(any())).thenReturn(attendee);
+    }
+
+    @Test
+    void bookCheckoutWebhookAndConfirm() throws Exception {
+        Event event = event(BOOKINGS);
+        Map<Long, String> sessions = new ConcurrentHashMap<>();
+
+        ExecutorService dispatcher = Executors.newSingleThreadExecutor();
+        ExecutorService buyers = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            dispatcher.execute(this::dispatchUntilInterrupted);
+
+            long start = System.nanoTime();
+            List<Future<?>> purchases = new ArrayList<>();
+            for (int i = 0; i < BOOKINGS; i++) {
+                pace(start, i);
+                purchases.add(buyers.submit(() -> purchase(event, sessions)));
+            }
+            for (Future<?> purchase : purchases) {
+                purchase.get();
+            }
+            Duration bookingWindow = Duration.ofNanos(System.nanoTime() - start);
+            report.window("EventBookingService.createBooking", bookingWindow);
+            report.window("StripeWebhookController.handle", bookingWindow);
+
+            awaitInboxDrained(Duration.ofMinutes(2));
+            Duration appliedWindow = Duration.ofNanos(System.nanoTime() - start);
+            for (StripeWebhookInbox delivery : inboxRepository.findAll()) {
+                report.record("StripeWebhookService (inbox lag)",
+                        Duration.between(delivery.getCreatedAt(), delivery.getProcessedAt()).toNanos());
+            }
+            report.window("StripeWebhookService (inbox lag)", appliedWindow);
+
+            long confirmStart = System.nanoTime();
+            List<Future<String>> confirmations = new ArrayList<>();
+            for (String sessionId : sessions.values()) {
+                confirmations.add(buyers.submit(() -> {
+                    long t = System.nanoTime();
+                    String status = paymentService.confirmPayment(sessionId, null, null, null).getStatus();
+                    report.record("PaymentService.confirmPayment", System.nanoTime() - t);
+                    return status;
+                }));
+            }
+            for (Future<String> confirmation : confirmations) {
+                assertThat(confirmation.get()).isEqualTo("success");
+            }
+            report.window("PaymentService.confirmPayment", Duration.ofNanos(System.nanoTime() - confirmStart));
+        } finally {
+            dispatcher.shutdownNow();
+            buyers.shutdownNow();
+        }
+
+        log.info("Paid booking load test: {} bookings, concurrency {}, rate {}, Stripe latency {}{}",
+                BOOKINGS, CONCURRENCY, RATE == 0 ? "unthrottled" : RATE + "/s", STRIPE_LATENCY, report.format());
+
+        assertThat(sessions).hasSize(BOOKINGS);
+        List<EventBooking> bookings = bookingRepository.findAll().stream()
+                .filter(booking -> event.getId().equals(booking.getEventId()))
+                .toList();
+        assertThat(bookings).hasSize(BOOKINGS).allSatisfy(booking -> {
+            assertThat(booking.getStatus()).isEqualTo(BookingStatus.BOOKED);
+            assertThat(booking.getPaymentStatus()).isEqualTo(PaymentStatus.CAPTURED);
+        });
+        assertThat(eventRepository.findById(event.getId()).orElseThrow().getTicketsSold()).isEqualTo(BOOKINGS);
+    }
+
+    private void purchase(Event event, Map<Long, String> sessions) {
+        signInAs(BUYER);
+        EventBookingRequest request = new EventBookingRequest();
+        request.setEventId(event.getId());
+        request.setCurrency("usd");
+
+        long start = System.nanoTime();
+        EventBookingResponse booked = eventBookingService.createBooking(request);
+        report.record("EventBookingService.createBooking", System.nanoTime() - start);
+
+        String sessionId = booked.getPaymentUrl().substring(booked.getPaymentUrl().lastIndexOf('/') + 1);
+        sessions.put(booked.getId(), sessionId);
+        assertThat(STRIPE.completeCheckout(sessionId)).isEqualTo(200);
+    }
+
+    /** Stands in for the scheduler, which the JPA slice does not start. */
+    private void dispatchUntilInterrupted() {
+        while (!Thread.currentThread().isInterrupted()) {
+            webhookDispatcher.dispatch();
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void awaitInboxDrained(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (inboxRepository.countByStatus(WebhookInboxStatus.PROCESSED) < BOOKINGS) {
+            assertThat(System.nanoTime()).as("webhook inbox drained in time").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private static void pace(long start, int i) throws InterruptedException {
+        if (RATE <= 0) {
+            return;
+        }
+        long due = start + TimeUnit.SECONDS.toNanos(i) / RATE;
+        long wait = due - System.nanoTime();
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    private Event event(int capacity) {
+        Event event = new Event();
+        event.setName("Load test concert");
+        event.setDescription("Paid booking load test");
+        event.setStartTime(LocalDateTime.now().plusDays(30));
+        event.setEndTime(LocalDateTime.now().plusDays(30).plusHours(4));
+        event.setCapacity(capacity);
+        event.setRetailPrice(new BigDecimal("25.00"));
+        return eventRepository.save(event);
+    }
+}
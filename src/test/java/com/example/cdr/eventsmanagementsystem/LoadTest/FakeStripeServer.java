@@ -0,0 +1,364 @@
+package com.example.cdr.eventsmanagementsystem.LoadTest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stripe.Stripe;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * In-process stand-in for the Stripe API, for load tests that must not reach api.stripe.com.
+ * Point the Stripe client at {@link #baseUrl()}; it serves the calls {@code StripeService}
+ * makes (customers, checkout sessions, payment intents, refunds) from memory, replays POSTs
+ * by {@code Idempotency-Key} like Stripe does, and can add a fixed latency per call.
+ * {@link #completeCheckout} plays the customer paying: it settles the session and delivers a
+ * {@code checkout.session.completed} event signed with the webhook secret, exactly as Stripe
+ * signs it, to the registered {@link WebhookSink}.
+ */
+public class FakeStripeServer implements AutoCloseable {
+
+    /** Receives a signed webhook delivery and returns the HTTP status the endpoint answered with. */
+    @FunctionalInterface
+    public interface WebhookSink {
+        int deliver(String payload, String signatureHeader);
+    }
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpServer server;
+    private final String webhookSecret;
+    private final Map<String, Map<String, Object>> objects = new ConcurrentHashMap<>();
+    private final Map<String, String> idempotentResponses = new ConcurrentHashMap<>();
+    private volatile Duration latency = Duration.ZERO;
+    private volatile WebhookSink webhookSink;
+
+    public static FakeStripeServer start(String webhookSecret) {
+        try {
+            return new FakeStripeServer(webhookSecret);
+        } catch (IOException e) {
+            throw new IllegalStateException("Fake Stripe server could not start", e);
+        }
+    }
+
+    private FakeStripeServer(String webhookSecret) throws IOException {
+        this.webhookSecret = webhookSecret;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/v1/", this::handle);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /** Simulated Stripe round trip added to every API call. */
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    public void setWebhookSink(WebhookSink webhookSink) {
+        this.webhookSink = webhookSink;
+    }
+
+    /**
+     * Pays an open checkout session: creates its payment intent (authorized when the session
+     * asked for manual capture, otherwise captured) and delivers the signed completion event.
+     *
+     * @return the status the webhook endpoint answered with
+     */
+    public int completeCheckout(String sessionId) {
+        Map<String, Object> session = find(sessionId);
+        if (session == null || !"open".equals(session.get("status"))) {
+            throw new IllegalArgumentException("No open checkout session " + sessionId);
+        }
+        boolean manual = "manual".equals(session.get("_capture_method"));
+        Map<String, Object> intent = paymentIntent(((Number) session.get("amount_total")).longValue(),
+                (String) session.get("currency"), (String) session.get("customer"), manual,
+                manual ? "requires_capture" : "succeeded", metadataOf(session));
+        synchronized (session) {
+            session.put("status", "complete");
+            session.put("payment_status", manual ? "unpaid" : "paid");
+            session.put("payment_intent", intent.get("id"));
+        }
+        return deliver("checkout.session.completed", session);
+    }
+
+    /** Signs {@code payload} the way Stripe does: {@code t=<unix time>,v1=<hex HMAC-SHA256 of "t.payload">}. */
+    public String sign(String payload, long timestamp) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(webhookSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] digest = mac.doFinal((timestamp + "." + payload).getBytes(StandardCharsets.UTF_8));
+            return "t=" + timestamp + ",v1=" + HexFormat.of().formatHex(digest);
+        } catch (Exception e) {
+            throw new IllegalStateException("Webhook payload could not be signed", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private int deliver(String type, Map<String, Object> object) {
+        WebhookSink sink = Objects.requireNonNull(webhookSink, "no webhook sink registered");
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("id", newId("evt"));
+        event.put("object", "event");
+        // the SDK only deserializes data.object when the event's version matches its own
+        event.put("api_version", Stripe.API_VERSION);
+        event.put("created", Instant.now().getEpochSecond());
+        event.put("type", type);
+        event.put("livemode", false);
+        event.put("pending_webhooks", 1);
+        synchronized (object) {
+            event.put("data", Map.of("object", visible(object)));
+        }
+        String payload = toJson(event);
+        return sink.deliver(payload, sign(payload, Instant.now().getEpochSecond()));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            pause();
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            String key = "POST".equals(method) ? exchange.getRequestHeaders().getFirst("Idempotency-Key") : null;
+            if (key != null && idempotentResponses.containsKey(path + key)) {
+                respond(exchange, 200, idempotentResponses.get(path + key));
+                return;
+            }
+            Map<String, String> form = parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            Map<String, Object> result = route(method, path.substring("/v1/".length()).split("/"), form);
+            if (result == null) {
+                respond(exchange, 404, toJson(Map.of("error", Map.of(
+                        "type", "invalid_request_error",
+                        "message", "No such resource: " + path))));
+                return;
+            }
+            String body;
+            synchronized (result) {
+                body = toJson(visible(result));
+            }
+            if (key != null) {
+                idempotentResponses.putIfAbsent(path + key, body);
+                body = idempotentResponses.get(path + key);
+            }
+            respond(exchange, 200, body);
+        }
+    }
+
+    private Map<String, Object> route(String method, String[] path, Map<String, String> form) {
+        boolean post = "POST".equals(method);
+        return switch (path[0]) {
+            case "customers" -> post && path.length == 1 ? customer(form) : find(at(path, 1));
+            case "checkout" -> {
+                if (post && path.length == 2) {
+                    yield checkoutSession(form);
+                }
+                if (post && path.length == 4 && "expire".equals(path[3])) {
+                    yield transition(path[2], "open", Map.of("status", "expired"));
+                }
+                yield find(at(path, 2));
+            }
+            case "payment_intents" -> {
+                if (post && path.length == 1) {
+                    yield offSessionPaymentIntent(form);
+                }
+                if (post && path.length == 3) {
+                    yield switch (path[2]) {
+                        case "capture" -> transition(path[1], "requires_capture", Map.of("status", "succeeded"));
+                        case "cancel" -> transition(path[1], null, Map.of("status", "canceled"));
+                        case "confirm" -> transition(path[1], null, Map.of("status", "succeeded"));
+                        default -> null;
+                    };
+                }
+                yield find(at(path, 1));
+            }
+            case "refunds" -> post && path.length == 1 ? refund(form) : find(at(path, 1));
+            default -> null;
+        };
+    }
+
+    private Map<String, Object> customer(Map<String, String> form) {
+        Map<String, Object> customer = newObject("cus", "customer");
+        customer.put("email", form.get("email"));
+        customer.put("name", form.get("name"));
+        return customer;
+    }
+
+    private Map<String, Object> checkoutSession(Map<String, String> form) {
+        Map<String, Object> session = newObject("cs_test", "checkout.session");
+        String id = (String) session.get("id");
+        session.put("mode", form.getOrDefault("mode", "payment"));
+        session.put("status", "open");
+        session.put("payment_status", "unpaid");
+        session.put("customer", form.get("customer"));
+        session.put("currency", form.get("line_items[0][price_data][currency]"));
+        session.put("amount_total", Long.parseLong(form.getOrDefault("line_items[0][price_data][unit_amount]", "0")));
+        session.put("metadata", prefixed(form, "metadata"));
+        session.put("url", "https://checkout.stripe.test/pay/" + id);
+        session.put("success_url", form.get("success_url"));
+        session.put("_capture_method", form.get("payment_intent_data[capture_method]"));
+        return session;
+    }
+
+    private Map<String, Object> offSessionPaymentIntent(Map<String, String> form) {
+        boolean manual = "manual".equals(form.get("capture_method"));
+        boolean confirmed = "true".equals(form.get("confirm"));
+        String status = !confirmed ? "requires_payment_method" : manual ? "requires_capture" : "succeeded";
+        return paymentIntent(Long.parseLong(form.getOrDefault("amount", "0")), form.get("currency"), form.get("customer"),
+                manual, status, prefixed(form, "metadata"));
+    }
+
+    private Map<String, Object> paymentIntent(long amount, String currency, String customer, boolean manual,
+                                              String status, Map<String, String> metadata) {
+        Map<String, Object> intent = newObject("pi", "payment_intent");
+        intent.put("amount", amount);
+        intent.put("amount_received", "succeeded".equals(status) ? amount : 0);
+        intent.put("currency", currency);
+        intent.put("customer", customer);
+        intent.put("capture_method", manual ? "manual" : "automatic");
+        intent.put("payment_method", "pm_card_visa");
+        intent.put("status", status);
+        intent.put("metadata", metadata);
+        return intent;
+    }
+
+    private Map<String, Object> refund(Map<String, String> form) {
+        Map<String, Object> intent = find(form.get("payment_intent"));
+        if (intent == null) {
+            return null;
+        }
+        Map<String, Object> refund = newObject("re", "refund");
+        refund.put("payment_intent", intent.get("id"));
+        refund.put("amount", form.containsKey("amount") ? Long.parseLong(form.get("amount")) : intent.get("amount"));
+        refund.put("currency", intent.get("currency"));
+        refund.put("reason", form.get("reason"));
+        refund.put("status", "succeeded");
+        return refund;
+    }
+
+    /** Applies {@code changes} if the object is in {@code fromStatus} (any status when null); null if it is not. */
+    private Map<String, Object> transition(String id, String fromStatus, Map<String, Object> changes) {
+        Map<String, Object> object = find(id);
+        if (object == null) {
+            return null;
+        }
+        synchronized (object) {
+            if (fromStatus != null && !fromStatus.equals(object.get("status"))) {
+                return null;
+            }
+            object.putAll(changes);
+        }
+        return object;
+    }
+
+    private Map<String, Object> newObject(String prefix, String type) {
+        Map<String, Object> object = new LinkedHashMap<>();
+        object.put("id", newId(prefix));
+        object.put("object", type);
+        object.put("created", Instant.now().getEpochSecond());
+        object.put("livemode", false);
+        objects.put((String) object.get("id"), object);
+        return object;
+    }
+
+    private Map<String, Object> find(String id) {
+        return id == null ? null : objects.get(id);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> metadataOf(Map<String, Object> object) {
+        return (Map<String, String>) object.getOrDefault("metadata", Map.of());
+    }
+
+    /** Copy without the fake's own bookkeeping ({@code _}-prefixed) fields. */
+    private static Map<String, Object> visible(Map<String, Object> object) {
+        Map<String, Object> copy = new LinkedHashMap<>(object);
+        copy.keySet().removeIf(field -> field.startsWith("_"));
+        return copy;
+    }
+
+    /** {@code metadata[bookingId]=7} → {@code {bookingId=7}} for the given top-level key. */
+    private static Map<String, String> prefixed(Map<String, String> form, String prefix) {
+        Map<String, String> values = new HashMap<>();
+        form.forEach((key, value) -> {
+            if (key.startsWith(prefix + "[") && key.indexOf(']') == key.length() - 1) {
+                values.put(key.substring(prefix.length() + 1, key.length() - 1), value);
+            }
+        });
+        return values;
+    }
+
+    private static Map<String, String> parseForm(String body) {
+        Map<String, String> form = new HashMap<>();
+        if (body.isEmpty()) {
+            return form;
+        }
+        for (String pair : body.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            form.put(key, value);
+        }
+        return form;
+    }
+
+    private static String at(String[] path, int index) {
+        return path.length == index + 1 ? path[index] : null;
+    }
+
+    private static String newId(String prefix) {
+        return prefix + "_" + UUID.randomUUID().toString().replace("-", "");
+    }
+
+    private void pause() {
+        if (latency.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.getResponseHeaders().set("Request-Id", newId("req"));
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String toJson(Object value) {
+        try {
+            return JSON.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.cdr.eventsmanagementsystem.LoadTest;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.stripe.StripeClient;
+import com.stripe.exception.InvalidRequestException;
+import com.stripe.exception.SignatureVerificationException;
+import com.stripe.model.Event;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.checkout.Session;
+import com.stripe.net.RequestOptions;
+import com.stripe.net.Webhook;
+import com.stripe.param.PaymentIntentCreateParams;
+import com.stripe.param.checkout.SessionCreateParams;
+
+/** Checks the fake against the real Stripe SDK, so load-test results come from requests Stripe would accept. */
+class FakeStripeServerTest {
+    private static final String WEBHOOK_SECRET = "whsec_fake";
+
+    private FakeStripeServer stripe;
+    private StripeClient client;
+
+    @BeforeEach
+    void setUp() {
+        stripe = FakeStripeServer.start(WEBHOOK_SECRET);
+        client = StripeClient.builder().setApiKey("sk_test_fake").setApiBase(stripe.baseUrl()).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stripe.close();
+    }
+
+    @Test
+    void completedCheckoutDeliversASignedEventTheSdkVerifies() throws Exception {
+        Session session = client.checkout().sessions().create(checkout(false));
+        AtomicReference<Event> delivered = new AtomicReference<>();
+        stripe.setWebhookSink((payload, signature) -> {
+            try {
+                delivered.set(Webhook.constructEvent(payload, signature, WEBHOOK_SECRET));
+                return 200;
+            } catch (SignatureVerificationException e) {
+                return 400;
+            }
+        });
+
+        assertThat(stripe.completeCheckout(session.getId())).isEqualTo(200);
+
+        Session paid = (Session) delivered.get().getDataObjectDeserializer().getObject().orElseThrow();
+        assertThat(delivered.get().getType()).isEqualTo("checkout.session.completed");
+        assertThat(paid.getPaymentStatus()).isEqualTo("paid");
+        assertThat(paid.getMetadata()).containsEntry("bookingId", "42");
+        PaymentIntent intent = client.paymentIntents().retrieve(paid.getPaymentIntent());
+        assertThat(intent.getStatus()).isEqualTo("succeeded");
+        assertThat(intent.getAmount()).isEqualTo(2500L);
+    }
+
+    @Test
+    void manualCaptureCheckoutLeavesTheIntentAuthorized() throws Exception {
+        Session session = client.checkout().sessions().create(checkout(true));
+        stripe.setWebhookSink((payload, signature) -> 200);
+        stripe.completeCheckout(session.getId());
+
+        PaymentIntent intent = client.paymentIntents().retrieve(client.checkout().sessions().retrieve(session.getId()).getPaymentIntent());
+        assertThat(intent.getStatus()).isEqualTo("requires_capture");
+        assertThat(client.paymentIntents().capture(intent.getId()).getStatus()).isEqualTo("succeeded");
+    }
+
+    @Test
+    void tamperedPayloadFailsVerification() {
+        String signature = stripe.sign("{\"id\":\"evt_1\"}", System.currentTimeMillis() / 1000);
+
+        assertThatThrownBy(() -> Webhook.constructEvent("{\"id\":\"evt_2\"}", signature, WEBHOOK_SECRET))
+                .isInstanceOf(SignatureVerificationException.class);
+    }
+
+    @Test
+    void replayedIdempotencyKeyReturnsTheSameIntent() throws Exception {
+        PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
+                .setAmount(1000L)
+                .setCurrency("usd")
+                .setCustomer("cus_1")
+                .setPaymentMethod("pm_card_visa")
+                .setOffSession(true)
+                .setConfirm(true)
+                .build();
+        RequestOptions options = RequestOptions.builder().setIdempotencyKey("autopay:EVENT:1").build();
+
+        PaymentIntent first = client.paymentIntents().create(params, options);
+        PaymentIntent replay = client.paymentIntents().create(params, options);
+
+        assertThat(replay.getId()).isEqualTo(first.getId());
+        assertThat(first.getStatus()).isEqualTo("succeeded");
+    }
+
+    @Test
+    void expiredSessionCannotBeExpiredAgain() throws Exception {
+        Session session = client.checkout().sessions().create(checkout(false));
+
+        assertThat(client.checkout().sessions().expire(session.getId()).getStatus()).isEqualTo("expired");
+        assertThatThrownBy(() -> client.checkout().sessions().expire(session.getId()))
+                .isInstanceOf(InvalidRequestException.class);
+    }
+
+    private static SessionCreateParams checkout(boolean manualCapture) {
+        return SessionCreateParams.builder()
+                .setMode(SessionCreateParams.Mode.PAYMENT)
+                .setCustomer("cus_1")
+                .setSuccessUrl("http://localhost/confirm?session_id={CHECKOUT_SESSION_ID}")
+                .setCancelUrl("http://localhost/confirm?canceled=true")
+                .addLineItem(SessionCreateParams.LineItem.builder()
+                        .setQuantity(1L)
+                        .setPriceData(SessionCreateParams.LineItem.PriceData.builder()
+                                .setCurrency("usd")
+                                .setUnitAmount(2500L)
+                                .setProductData(SessionCreateParams.LineItem.PriceData.ProductData.builder().setName("Ticket").build())
+                                .build())
+                        .build())
+                .putMetadata("bookingId", "42")
+                .setPaymentIntentData(SessionCreateParams.PaymentIntentData.builder()
+                        .setCaptureMethod(manualCapture
+                                ? SessionCreateParams.PaymentIntentData.CaptureMethod.MANUAL
+                                : SessionCreateParams.PaymentIntentData.CaptureMethod.AUTOMATIC)
+                        .build())
+                .build();
+    }
+}
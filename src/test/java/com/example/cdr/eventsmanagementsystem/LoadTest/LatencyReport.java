@@ -0,0 +1,53 @@
+package com.example.cdr.eventsmanagementsystem.LoadTest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/** Latency samples per operation, summarised as count, throughput, p50, p99 and max. */
+public class LatencyReport {
+    private final Map<String, ConcurrentLinkedQueue<Long>> samples = new ConcurrentHashMap<>();
+    private final Map<String, Duration> windows = new ConcurrentHashMap<>();
+
+    public void record(String operation, long nanos) {
+        samples.computeIfAbsent(operation, op -> new ConcurrentLinkedQueue<>()).add(nanos);
+    }
+
+    /** Wall-clock time the operation's samples were taken over, for its throughput. */
+    public void window(String operation, Duration window) {
+        windows.put(operation, window);
+    }
+
+    public long percentileMillis(String operation, double percentile) {
+        List<Long> sorted = sorted(operation);
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.size()) - 1;
+        return Duration.ofNanos(sorted.get(Math.max(index, 0))).toMillis();
+    }
+
+    public String format() {
+        StringBuilder table = new StringBuilder(String.format("%n%-40s %8s %10s %8s %8s %8s%n",
+                "operation", "count", "ops/s", "p50 ms", "p99 ms", "max ms"));
+        samples.keySet().stream().sorted().forEach(operation -> {
+            List<Long> sorted = sorted(operation);
+            Duration window = windows.get(operation);
+            String throughput = window == null || window.isZero() ? "-"
+                    : String.format("%.1f", sorted.size() / (window.toNanos() / 1e9));
+            table.append(String.format("%-40s %8d %10s %8d %8d %8d%n", operation, sorted.size(), throughput,
+                    percentileMillis(operation, 50), percentileMillis(operation, 99),
+                    Duration.ofNanos(sorted.get(sorted.size() - 1)).toMillis()));
+        });
+        return table.toString();
+    }
+
+    private List<Long> sorted(String operation) {
+        List<Long> sorted = new ArrayList<>(samples.getOrDefault(operation, new ConcurrentLinkedQueue<>()));
+        sorted.sort(null);
+        return sorted;
+    }
+}
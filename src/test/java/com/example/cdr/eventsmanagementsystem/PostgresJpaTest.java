@@ -0,0 +1,44 @@
+package com.example.cdr.eventsmanagementsystem;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.example.cdr.eventsmanagementsystem.Auditing.AuditorAwareImpl;
+
+/**
+ * Base for repository and service tests that need the real database: native upserts,
+ * SKIP LOCKED, exclusion constraints and the init scripts only exist in Postgres. Skipped
+ * when no Docker daemon is available.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(AuditorAwareImpl.class)
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresJpaTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    /** Authenticates the current thread as {@code userId}, for auditing and {@code AuthUtil}. */
+    protected static void signInAs(String userId) {
+        Jwt jwt = Jwt.withTokenValue("test").header("alg", "none").subject(userId).build();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt, List.of()));
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.cdr.eventsmanagementsystem.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.VenueBooking;
+import com.example.cdr.eventsmanagementsystem.PostgresJpaTest;
+
+class BookingOverlapConstraintTest extends PostgresJpaTest {
+    private static final LocalDateTime NOON = LocalDateTime.of(2030, 6, 1, 12, 0);
+
+    @Autowired
+    private VenueBookingRepository venueBookingRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        signInAs("organizer-1");
+    }
+
+    @Test
+    void rejectsOverlappingActiveBookingsOfOneVenue() {
+        venueBookingRepository.saveAndFlush(booking(1L, NOON, NOON.plusHours(3), BookingStatus.BOOKED));
+
+        assertThatThrownBy(() -> venueBookingRepository.saveAndFlush(booking(1L, NOON.plusHours(2), NOON.plusHours(4), BookingStatus.PENDING)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void allowsTouchingRangesOtherVenuesAndInactiveBookings() {
+        venueBookingRepository.saveAndFlush(booking(1L, NOON, NOON.plusHours(3), BookingStatus.BOOKED));
+
+        assertThatNoException().isThrownBy(() -> {
+            venueBookingRepository.saveAndFlush(booking(1L, NOON.plusHours(3), NOON.plusHours(5), BookingStatus.BOOKED));
+            venueBookingRepository.saveAndFlush(booking(2L, NOON, NOON.plusHours(3), BookingStatus.BOOKED));
+            venueBookingRepository.saveAndFlush(booking(1L, NOON.plusHours(1), NOON.plusHours(2), BookingStatus.CANCELLED));
+            venueBookingRepository.saveAndFlush(booking(1L, NOON.plusHours(1), NOON.plusHours(2), BookingStatus.REJECTED));
+        });
+    }
+
+    /** Concurrent requests for overlapping slots each pass any read-side check; only the constraint stops them. */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void concurrentOverlappingBookingsAdmitExactlyOne() throws Exception {
+        // committed rows: a venue and day no other test uses
+        long venueId = 900L;
+        LocalDateTime start = NOON.plusDays(30);
+        int buyers = 8;
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < buyers; i++) {
+            LocalDateTime from = start.plusMinutes(15L * i);
+            attempts.add(() -> {
+                signInAs("organizer-1");
+                try {
+                    venueBookingRepository.saveAndFlush(booking(venueId, from, from.plusHours(3), BookingStatus.PENDING));
+                    return true;
+                } catch (DataIntegrityViolationException e) {
+                    return false;
+                }
+            });
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(buyers);
+        try {
+            int booked = 0;
+            for (Future<Boolean> attempt : pool.invokeAll(attempts)) {
+                booked += attempt.get() ? 1 : 0;
+            }
+
+            assertThat(booked).isEqualTo(1);
+            assertThat(jdbcTemplate.queryForObject("select count(*) from venue_bookings where venue_id = ?", Integer.class, venueId))
+                    .isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void scriptIsSafeToRerunAndKeepsTheConstraints() {
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("db/booking-overlap-constraints.sql"));
+        populator.execute(dataSource);
+        populator.execute(dataSource);
+
+        Integer constraints = jdbcTemplate.queryForObject(
+                "select count(*) from pg_constraint where conname in ('venue_bookings_no_overlap', 'service_bookings_no_overlap')",
+                Integer.class);
+        assertThat(constraints).isEqualTo(2);
+    }
+
+    private VenueBooking booking(Long venueId, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        VenueBooking booking = new VenueBooking();
+        booking.setVenueId(venueId);
+        booking.setEventId(1L);
+        booking.setStartTime(start);
+        booking.setEndTime(end);
+        booking.setStatus(status);
+        return booking;
+    }
+}
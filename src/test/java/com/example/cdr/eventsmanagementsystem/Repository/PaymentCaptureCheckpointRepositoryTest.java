@@ -0,0 +1,95 @@
+package com.example.cdr.eventsmanagementsystem.Repository;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingType;
+import com.example.cdr.eventsmanagementsystem.Model.Payment.PaymentCaptureCheckpoint;
+import com.example.cdr.eventsmanagementsystem.PostgresJpaTest;
+
+/** The lease fences the cursor: a node whose lease lapsed must not move a pass another node took over. */
+class PaymentCaptureCheckpointRepositoryTest extends PostgresJpaTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 6, 1, 12, 0);
+    private static final String EVENT = BookingType.EVENT.name();
+
+    @Autowired
+    private PaymentCaptureCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        checkpointRepository.insertIfAbsent(EVENT);
+    }
+
+    @Test
+    void insertIfAbsentKeepsAnExistingCursor() {
+        checkpointRepository.claim(EVENT, "node-a", NOW, NOW.plusMinutes(5));
+        checkpointRepository.advance(EVENT, "node-a", 42, NOW, NOW.plusMinutes(5));
+
+        assertThat(checkpointRepository.insertIfAbsent(EVENT)).isZero();
+        assertThat(checkpoint().getLastBookingId()).isEqualTo(42);
+    }
+
+    @Test
+    void liveLeaseCannotBeClaimedUntilItLapses() {
+        assertThat(checkpointRepository.claim(EVENT, "node-a", NOW, NOW.plusMinutes(5))).isEqualTo(1);
+
+        assertThat(checkpointRepository.claim(EVENT, "node-b", NOW.plusMinutes(1), NOW.plusMinutes(6))).isZero();
+        assertThat(checkpointRepository.claim(EVENT, "node-b", NOW.plusMinutes(6), NOW.plusMinutes(11))).isEqualTo(1);
+        assertThat(checkpoint().getOwner()).isEqualTo("node-b");
+    }
+
+    @Test
+    void lapsedOwnerCannotAdvanceCompleteOrReleaseAPassTakenOver() {
+        checkpointRepository.claim(EVENT, "node-a", NOW, NOW.plusMinutes(5));
+        checkpointRepository.advance(EVENT, "node-a", 10, NOW, NOW.plusMinutes(5));
+        checkpointRepository.claim(EVENT, "node-b", NOW.plusMinutes(6), NOW.plusMinutes(11));
+        checkpointRepository.advance(EVENT, "node-b", 20, NOW.plusMinutes(6), NOW.plusMinutes(11));
+
+        LocalDateTime late = NOW.plusMinutes(7);
+        assertThat(checkpointRepository.advance(EVENT, "node-a", 99, late, late.plusMinutes(5))).isZero();
+        assertThat(checkpointRepository.complete(EVENT, "node-a", late)).isZero();
+        assertThat(checkpointRepository.release(EVENT, "node-a", late)).isZero();
+
+        PaymentCaptureCheckpoint checkpoint = checkpoint();
+        assertThat(checkpoint.getOwner()).isEqualTo("node-b");
+        assertThat(checkpoint.getLastBookingId()).isEqualTo(20);
+    }
+
+    @Test
+    void ownerCannotAdvanceOnceItsOwnLeaseExpired() {
+        checkpointRepository.claim(EVENT, "node-a", NOW, NOW.plusMinutes(5));
+
+        assertThat(checkpointRepository.advance(EVENT, "node-a", 10, NOW.plusMinutes(5), NOW.plusMinutes(10))).isZero();
+        assertThat(checkpoint().getLastBookingId()).isZero();
+    }
+
+    @Test
+    void releaseKeepsTheCursorAndCompleteResetsIt() {
+        checkpointRepository.claim(EVENT, "node-a", NOW, NOW.plusMinutes(5));
+        checkpointRepository.advance(EVENT, "node-a", 10, NOW, NOW.plusMinutes(5));
+        assertThat(checkpointRepository.release(EVENT, "node-a", NOW)).isEqualTo(1);
+        assertThat(checkpoint().getLastBookingId()).isEqualTo(10);
+        assertThat(checkpoint().getOwner()).isNull();
+
+        checkpointRepository.claim(EVENT, "node-b", NOW, NOW.plusMinutes(5));
+        assertThat(checkpointRepository.complete(EVENT, "node-b", NOW)).isEqualTo(1);
+        PaymentCaptureCheckpoint completed = checkpoint();
+        assertThat(completed.getLastBookingId()).isZero();
+        assertThat(completed.getLastCompletedAt()).isEqualTo(NOW);
+        assertThat(completed.getOwner()).isNull();
+    }
+
+    private PaymentCaptureCheckpoint checkpoint() {
+        entityManager.clear();
+        return checkpointRepository.findById(BookingType.EVENT).orElseThrow();
+    }
+}
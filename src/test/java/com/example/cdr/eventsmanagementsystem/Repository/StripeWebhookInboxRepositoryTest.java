@@ -0,0 +1,94 @@
+package com.example.cdr.eventsmanagementsystem.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.cdr.eventsmanagementsystem.Model.Payment.StripeWebhookInbox;
+import com.example.cdr.eventsmanagementsystem.Model.Payment.WebhookInboxStatus;
+import com.example.cdr.eventsmanagementsystem.PostgresJpaTest;
+
+class StripeWebhookInboxRepositoryTest extends PostgresJpaTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 6, 1, 12, 0);
+
+    @Autowired
+    private StripeWebhookInboxRepository inboxRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void duplicateDeliveryIsNotAppendedTwice() {
+        assertThat(append("evt_1", "EVENT:1")).isEqualTo(1);
+        assertThat(append("evt_1", "EVENT:1")).isZero();
+    }
+
+    @Test
+    void onlyTheOldestUnsettledEventOfEachBookingIsDue() {
+        append("evt_a1", "EVENT:1");
+        append("evt_a2", "EVENT:1");
+        append("evt_b1", "VENUE:7");
+
+        assertThat(eventIds(inboxRepository.lockDueBatch(NOW, 10))).containsExactly("evt_a1", "evt_b1");
+    }
+
+    @Test
+    void laterEventWaitsForARetryingPredecessor() {
+        append("evt_a1", "EVENT:1");
+        append("evt_a2", "EVENT:1");
+        update("evt_a1", WebhookInboxStatus.PENDING, NOW.plusMinutes(5), null);
+
+        assertThat(inboxRepository.lockDueBatch(NOW, 10)).isEmpty();
+    }
+
+    @Test
+    void laterEventWaitsWhileItsPredecessorIsLeasedAndFollowsOnceSettled() {
+        append("evt_a1", "EVENT:1");
+        append("evt_a2", "EVENT:1");
+        update("evt_a1", WebhookInboxStatus.PROCESSING, NOW, NOW.plusMinutes(5));
+        assertThat(inboxRepository.lockDueBatch(NOW, 10)).isEmpty();
+
+        update("evt_a1", WebhookInboxStatus.PROCESSED, NOW, null);
+        assertThat(eventIds(inboxRepository.lockDueBatch(NOW, 10))).containsExactly("evt_a2");
+    }
+
+    @Test
+    void expiredLeaseMakesTheDeliveryDueAgain() {
+        append("evt_a1", "EVENT:1");
+        update("evt_a1", WebhookInboxStatus.PROCESSING, NOW, NOW.minusSeconds(1));
+
+        assertThat(eventIds(inboxRepository.lockDueBatch(NOW, 10))).containsExactly("evt_a1");
+    }
+
+    @Test
+    void givenUpEventNoLongerBlocksItsBooking() {
+        append("evt_a1", "EVENT:1");
+        append("evt_a2", "EVENT:1");
+        update("evt_a1", WebhookInboxStatus.FAILED, NOW, null);
+
+        assertThat(eventIds(inboxRepository.lockDueBatch(NOW, 10))).containsExactly("evt_a2");
+    }
+
+    private int append(String stripeEventId, String orderingKey) {
+        return inboxRepository.insertIfAbsent(stripeEventId, "payment_intent.succeeded", orderingKey, "{}", NOW.minusMinutes(1));
+    }
+
+    private void update(String stripeEventId, WebhookInboxStatus status, LocalDateTime nextAttemptAt, LocalDateTime lockedUntil) {
+        StripeWebhookInbox delivery = inboxRepository.findAll().stream()
+                .filter(d -> d.getStripeEventId().equals(stripeEventId))
+                .findFirst().orElseThrow();
+        delivery.setStatus(status);
+        delivery.setNextAttemptAt(nextAttemptAt);
+        delivery.setLockedUntil(lockedUntil);
+        entityManager.flush();
+    }
+
+    private List<String> eventIds(List<StripeWebhookInbox> batch) {
+        return batch.stream().map(StripeWebhookInbox::getStripeEventId).toList();
+    }
+}
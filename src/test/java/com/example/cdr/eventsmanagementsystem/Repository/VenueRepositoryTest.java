@@ -0,0 +1,97 @@
+package com.example.cdr.eventsmanagementsystem.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.VenueBooking;
+import com.example.cdr.eventsmanagementsystem.Model.Venue.Availability;
+import com.example.cdr.eventsmanagementsystem.Model.Venue.Type;
+import com.example.cdr.eventsmanagementsystem.Model.Venue.Venue;
+import com.example.cdr.eventsmanagementsystem.PostgresJpaTest;
+
+class VenueRepositoryTest extends PostgresJpaTest {
+    private static final LocalDateTime NOON = LocalDateTime.of(2030, 6, 1, 12, 0);
+
+    @Autowired
+    private VenueRepository venueRepository;
+
+    @Autowired
+    private VenueBookingRepository venueBookingRepository;
+
+    @BeforeEach
+    void setUp() {
+        signInAs("venue-provider-1");
+    }
+
+    @Test
+    void excludesVenuesWithAnOverlappingOccupyingBooking() {
+        Venue booked = venue("Booked");
+        Venue pending = venue("Pending");
+        Venue cancelled = venue("Cancelled");
+        Venue touching = venue("Touching");
+        Venue free = venue("Free");
+        book(booked, NOON, NOON.plusHours(3), BookingStatus.BOOKED);
+        book(pending, NOON.plusHours(2), NOON.plusHours(6), BookingStatus.PENDING);
+        book(cancelled, NOON, NOON.plusHours(3), BookingStatus.CANCELLED);
+        book(touching, NOON.plusHours(3), NOON.plusHours(5), BookingStatus.BOOKED);
+
+        List<Long> available = ids(venueRepository.findAvailableBetween(NOON.plusHours(1), NOON.plusHours(3),
+                BookingStatus.OCCUPYING, PageRequest.of(0, 100)));
+
+        assertThat(available).contains(cancelled.getId(), touching.getId(), free.getId())
+                .doesNotContain(booked.getId(), pending.getId());
+    }
+
+    /** The filter runs before paging, so page sizes and totals count only available venues. */
+    @Test
+    void pagesOnlyAvailableVenues() {
+        for (int i = 0; i < 5; i++) {
+            book(venue("Taken " + i), NOON, NOON.plusHours(3), BookingStatus.BOOKED);
+        }
+        Venue first = venue("Free 1");
+        Venue second = venue("Free 2");
+        long availableTotal = venueRepository.findAvailableBetween(NOON, NOON.plusHours(3), BookingStatus.OCCUPYING,
+                PageRequest.of(0, 1000)).getTotalElements();
+
+        Page<Venue> page = venueRepository.findAvailableBetween(NOON, NOON.plusHours(3), BookingStatus.OCCUPYING,
+                PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "id")));
+
+        assertThat(page.getContent()).extracting(Venue::getId).containsExactly(second.getId());
+        assertThat(page.getTotalElements()).isEqualTo(availableTotal);
+        assertThat(ids(venueRepository.findAvailableBetween(NOON, NOON.plusHours(3), BookingStatus.OCCUPYING,
+                PageRequest.of(1, 1, Sort.by(Sort.Direction.DESC, "id"))))).containsExactly(first.getId());
+    }
+
+    private Venue venue(String name) {
+        Venue venue = new Venue();
+        venue.setName(name);
+        venue.setType(Type.HOTEL);
+        venue.setAvailability(Availability.AVAILABLE);
+        venue.setLocation("Amman");
+        return venueRepository.save(venue);
+    }
+
+    private void book(Venue venue, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        VenueBooking booking = new VenueBooking();
+        booking.setVenueId(venue.getId());
+        booking.setEventId(1L);
+        booking.setStartTime(start);
+        booking.setEndTime(end);
+        booking.setStatus(status);
+        venueBookingRepository.saveAndFlush(booking);
+    }
+
+    private static List<Long> ids(Page<Venue> page) {
+        return page.getContent().stream().map(Venue::getId).toList();
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.cdr.eventsmanagementsystem.Service.Booking;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.cdr.eventsmanagementsystem.Config.AsyncConfig;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.EventBooking;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.PaymentStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Event.Event;
+import com.example.cdr.eventsmanagementsystem.PostgresJpaTest;
+import com.example.cdr.eventsmanagementsystem.Repository.EventBookingRepository;
+import com.example.cdr.eventsmanagementsystem.Repository.EventRepository;
+import com.example.cdr.eventsmanagementsystem.Service.Event.EventInventoryService;
+import com.example.cdr.eventsmanagementsystem.Service.Payment.StripeService;
+import com.stripe.model.checkout.Session;
+
+@Import({BookingHoldService.class, EventInventoryService.class, AsyncConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookingHoldServiceTest extends PostgresJpaTest {
+
+    @Autowired
+    private BookingHoldService bookingHoldService;
+
+    @Autowired
+    private EventInventoryService eventInventoryService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventBookingRepository bookingRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockBean
+    private StripeService stripeService;
+
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        signInAs("attendee-1");
+        event = new Event();
+        event.setName("Gig");
+        event.setDescription("Hold test");
+        event.setStartTime(LocalDateTime.now().plusDays(30));
+        event.setEndTime(LocalDateTime.now().plusDays(30).plusHours(4));
+        event.setCapacity(10);
+        event = eventRepository.save(event);
+    }
+
+    @Test
+    void sweepReleasesAnExpiredHoldAfterClosingItsCheckout() {
+        EventBooking hold = hold("cs_1", LocalDateTime.now().minusMinutes(1), null);
+
+        bookingHoldService.sweep();
+
+        verify(stripeService).expireCheckoutSession("cs_1");
+        EventBooking expired = bookingRepository.findById(hold.getId()).orElseThrow();
+        assertThat(expired.getStatus()).isEqualTo(BookingStatus.FAILED);
+        assertThat(expired.getPaymentStatus()).isEqualTo(PaymentStatus.EXPIRED);
+        assertThat(expired.isTicketHeld()).isFalse();
+        assertThat(ticketsSold()).isZero();
+    }
+
+    @Test
+    void holdWhoseCheckoutWasCompletedIsLeftForItsWebhook() {
+        EventBooking hold = hold("cs_1", LocalDateTime.now().minusMinutes(1), null);
+        Session completed = new Session();
+        completed.setStatus("complete");
+        when(stripeService.expireCheckoutSession("cs_1")).thenThrow(new RuntimeException("Session is not open"));
+        when(stripeService.retrieveSession("cs_1")).thenReturn(completed);
+
+        bookingHoldService.sweep();
+
+        assertThat(bookingRepository.findById(hold.getId()).orElseThrow().getStatus()).isEqualTo(BookingStatus.PENDING);
+        assertThat(ticketsSold()).isEqualTo(1);
+    }
+
+    @Test
+    void sweepLeavesAuthorizedAndUnexpiredHoldsAlone() {
+        EventBooking authorized = hold("cs_1", LocalDateTime.now().minusMinutes(1), PaymentStatus.AUTHORIZED);
+        EventBooking open = hold("cs_2", LocalDateTime.now().plusMinutes(5), null);
+
+        bookingHoldService.sweep();
+
+        verify(stripeService, never()).expireCheckoutSession(anyString());
+        assertThat(bookingRepository.findById(authorized.getId()).orElseThrow().getStatus()).isEqualTo(BookingStatus.PENDING);
+        assertThat(bookingRepository.findById(open.getId()).orElseThrow().getStatus()).isEqualTo(BookingStatus.PENDING);
+        assertThat(ticketsSold()).isEqualTo(2);
+    }
+
+    /** Two replicas sweeping at once must split the expired holds, not both close the same checkouts. */
+    @Test
+    void concurrentSweepsClaimDisjointHolds() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            hold("cs_" + i, LocalDateTime.now().minusMinutes(1), null);
+        }
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<List<Long>> first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            List<Long> ids = ids(bookingRepository.lockNextExpiredHolds(LocalDateTime.now(), 2));
+            locked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ids;
+        }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        List<Long> second = transactionTemplate.execute(status -> ids(bookingRepository.lockNextExpiredHolds(LocalDateTime.now(), 10)));
+        release.countDown();
+
+        assertThat(first.get()).hasSize(2);
+        assertThat(second).hasSize(2).doesNotContainAnyElementsOf(first.get());
+    }
+
+    private EventBooking hold(String sessionId, LocalDateTime expiresAt, PaymentStatus paymentStatus) {
+        EventBooking booking = new EventBooking();
+        booking.setEventId(event.getId());
+        booking.setStatus(BookingStatus.PENDING);
+        booking.setStartTime(event.getStartTime());
+        booking.setEndTime(event.getEndTime());
+        booking.setStripeSessionId(sessionId);
+        booking.setPaymentStatus(paymentStatus);
+        booking.setHoldExpiresAt(expiresAt);
+        eventInventoryService.reserve(booking);
+        return bookingRepository.save(booking);
+    }
+
+    private int ticketsSold() {
+        return eventRepository.findById(event.getId()).orElseThrow().getTicketsSold();
+    }
+
+    private static List<Long> ids(List<EventBooking> bookings) {
+        return bookings.stream().map(EventBooking::getId).toList();
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.cdr.eventsmanagementsystem.Service.Booking;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.example.cdr.eventsmanagementsystem.DTO.Booking.Request.EventBookingRequest;
+import com.example.cdr.eventsmanagementsystem.DTO.Booking.Response.EventBookingResponse;
+import com.example.cdr.eventsmanagementsystem.Mapper.EventBookingMapperImpl;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingType;
+import com.example.cdr.eventsmanagementsystem.Model.Event.Event;
+import com.example.cdr.eventsmanagementsystem.Model.User.Attendee;
+import com.example.cdr.eventsmanagementsystem.PostgresJpaTest;
+import com.example.cdr.eventsmanagementsystem.Repository.EventBookingRepository;
+import com.example.cdr.eventsmanagementsystem.Repository.EventRepository;
+import com.example.cdr.eventsmanagementsystem.Service.Auth.UserSyncService;
+import com.example.cdr.eventsmanagementsystem.Service.Event.EventInventoryService;
+import com.example.cdr.eventsmanagementsystem.Service.Notifications.NotificationUtil;
+import com.example.cdr.eventsmanagementsystem.Service.Payment.AutoPayService;
+import com.example.cdr.eventsmanagementsystem.Service.Payment.StripeService;
+import com.example.cdr.eventsmanagementsystem.Util.BookingUtil;
+import com.stripe.model.checkout.Session;
+import com.zaxxer.hikari.HikariDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Import({EventBookingService.class, EventInventoryService.class, WaitingRoomService.class, EventBookingMapperImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EventBookingServiceTest extends PostgresJpaTest {
+    private static final String BUYER = "attendee-1";
+
+    @Autowired
+    private EventBookingService eventBookingService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventBookingRepository bookingRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockBean
+    private StripeService stripeService;
+
+    @MockBean
+    private AutoPayService autoPayService;
+
+    @MockBean
+    private UserSyncService userSyncService;
+
+    @MockBean
+    private BookingUtil bookingUtil;
+
+    @MockBean
+    private NotificationUtil notificationUtil;
+
+    @MockBean
+    private BookingHoldService bookingHoldService;
+
+    private Attendee attendee;
+
+    @BeforeEach
+    void setUp() {
+        signInAs(BUYER);
+        attendee = new Attendee();
+        attendee.setId(BUYER);
+        attendee.setEmail(BUYER + "@example.com");
+        when(userSyncService.ensureUserExists(any())).thenReturn(attendee);
+    }
+
+    /** Free RSVPs are the highest-volume bookings; they must stay local and scale with the connection pool. */
+    @Test
+    void freeBookingThroughput() throws Exception {
+        int bookings = 400;
+        int threads = 16;
+        Event event = event(bookings, null);
+
+        long[] latencies = new long[bookings];
+        List<Callable<EventBookingResponse>> attempts = new ArrayList<>();
+        for (int i = 0; i < bookings; i++) {
+            int slot = i;
+            attempts.add(() -> {
+                signInAs(BUYER);
+                long start = System.nanoTime();
+                EventBookingResponse response = eventBookingService.createBooking(request(event));
+                latencies[slot] = System.nanoTime() - start;
+                return response;
+            });
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            long start = System.nanoTime();
+            int booked = 0;
+            for (Future<EventBookingResponse> attempt : pool.invokeAll(attempts)) {
+                booked += attempt.get().getStatus() == BookingStatus.BOOKED ? 1 : 0;
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            Arrays.sort(latencies);
+            log.info("Free bookings: {} in {}s ({} /s) on {} threads; p50 {} ms, p99 {} ms", bookings,
+                    String.format("%.2f", seconds), String.format("%.0f", bookings / seconds), threads,
+                    latencies[bookings / 2] / 1_000_000, latencies[bookings * 99 / 100] / 1_000_000);
+
+            assertThat(booked).isEqualTo(bookings);
+            assertThat(eventRepository.findById(event.getId()).orElseThrow().getTicketsSold()).isEqualTo(bookings);
+            verifyNoInteractions(stripeService, autoPayService, bookingHoldService);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Paid bookings wait on Stripe for hundreds of milliseconds. No connection may be held
+     * meanwhile, or a burst of buyers drains the pool and every other request queues behind
+     * Stripe: here three times as many buyers as connections must all be inside Stripe at once.
+     */
+    @Test
+    void paidBookingsHoldNoConnectionWhileStripeIsCalled() throws Exception {
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+        int buyers = pool.getMaximumPoolSize() * 3;
+        Event event = event(buyers, new BigDecimal("25.00"));
+        attendee.setStripeCustomerId("cus_1");
+        when(autoPayService.tryCharge(any(), anyLong(), any(), any(), any(), anyBoolean(), anyString())).thenReturn(Optional.empty());
+        CountDownLatch inStripe = new CountDownLatch(buyers);
+        AtomicInteger arrived = new AtomicInteger();
+        AtomicInteger activeWhileAllInStripe = new AtomicInteger(-1);
+        AtomicBoolean allInStripeAtOnce = new AtomicBoolean(true);
+        AtomicBoolean calledInTransaction = new AtomicBoolean();
+        when(stripeService.createCheckoutSession(anyString(), any(), any(), anyString(), anyLong(), anyString(), anyBoolean(), any(BookingType.class)))
+                .thenAnswer(invocation -> {
+                    calledInTransaction.compareAndSet(false, TransactionSynchronizationManager.isActualTransactionActive());
+                    if (arrived.incrementAndGet() == buyers) {
+                        // the last buyer in: everyone else is still waiting on Stripe
+                        activeWhileAllInStripe.set(pool.getHikariPoolMXBean().getActiveConnections());
+                    }
+                    inStripe.countDown();
+                    // well under Hikari's connection timeout, so a held connection fails here rather than there
+                    if (!inStripe.await(10, TimeUnit.SECONDS)) {
+                        allInStripeAtOnce.set(false);
+                    }
+                    Session session = new Session();
+                    session.setId("cs_" + invocation.getArgument(4));
+                    session.setUrl("https://checkout.stripe.test/" + session.getId());
+                    return session;
+                });
+
+        List<Callable<EventBookingResponse>> attempts = new ArrayList<>();
+        for (int i = 0; i < buyers; i++) {
+            attempts.add(() -> {
+                signInAs(BUYER);
+                return eventBookingService.createBooking(request(event));
+            });
+        }
+        ExecutorService threads = Executors.newFixedThreadPool(buyers);
+        try {
+            int offered = 0;
+            for (Future<EventBookingResponse> attempt : threads.invokeAll(attempts)) {
+                offered += attempt.get().getPaymentUrl() != null ? 1 : 0;
+            }
+            log.info("Paid bookings: {} buyers in Stripe at once on a pool of {}; {} connections active meanwhile",
+                    buyers, pool.getMaximumPoolSize(), activeWhileAllInStripe.get());
+
+            assertThat(offered).isEqualTo(buyers);
+            assertThat(allInStripeAtOnce).isTrue();
+            assertThat(calledInTransaction).isFalse();
+            assertThat(activeWhileAllInStripe.get()).isZero();
+            assertThat(eventRepository.findById(event.getId()).orElseThrow().getTicketsSold()).isEqualTo(buyers);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private Event event(int capacity, BigDecimal retailPrice) {
+        Event event = new Event();
+        event.setName("Community meetup");
+        event.setDescription("Booking test");
+        event.setStartTime(LocalDateTime.now().plusDays(30));
+        event.setEndTime(LocalDateTime.now().plusDays(30).plusHours(4));
+        event.setCapacity(capacity);
+        event.setRetailPrice(retailPrice);
+        return eventRepository.save(event);
+    }
+
+    private EventBookingRequest request(Event event) {
+        EventBookingRequest request = new EventBookingRequest();
+        request.setEventId(event.getId());
+        return request;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.cdr.eventsmanagementsystem.Service.Booking;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HoldExpiryWheelTest {
+    private static final Duration TICK = Duration.ofSeconds(1);
+    private static final int SLOTS = 8;
+    private static final long START = 1_000_000L;
+
+    private final HoldExpiryWheel wheel = new HoldExpiryWheel(TICK, SLOTS, START);
+
+    @Test
+    void expiresAHoldOnceItsDeadlinePasses() {
+        wheel.schedule(1L, START + 2_500);
+
+        assertThat(wheel.advance(START + 2_000)).isEmpty();
+        assertThat(wheel.advance(START + 2_499)).isEmpty();
+        assertThat(wheel.advance(START + 3_000)).containsExactly(1L);
+        assertThat(wheel.advance(START + 4_000)).isEmpty();
+    }
+
+    @Test
+    void keepsADeadlineBeyondOneRevolutionUntilItsPass() {
+        long deadline = START + (SLOTS + 3) * 1_000L;
+        wheel.schedule(1L, deadline);
+
+        for (long now = START + 1_000; now < deadline; now += 1_000) {
+            assertThat(wheel.advance(now)).as("advanced to %d", now).isEmpty();
+        }
+        assertThat(wheel.advance(deadline)).containsExactly(1L);
+    }
+
+    @Test
+    void aPastDeadlineExpiresOnTheNextTick() {
+        wheel.advance(START + 5_000);
+        wheel.schedule(1L, START);
+
+        assertThat(wheel.advance(START + 6_000)).containsExactly(1L);
+    }
+
+    @Test
+    void aLongPauseVisitsEverySlotOnce() {
+        for (long id = 1; id <= SLOTS; id++) {
+            wheel.schedule(id, START + id * 1_000);
+        }
+
+        assertThat(wheel.advance(START + 60_000)).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L);
+    }
+
+    @Test
+    void holdsSharingASlotExpireIndependently() {
+        wheel.schedule(1L, START + 1_000);
+        wheel.schedule(2L, START + (SLOTS + 1) * 1_000L);
+
+        assertThat(wheel.advance(START + 1_000)).containsExactly(1L);
+        assertThat(wheel.advance(START + (SLOTS + 1) * 1_000L)).containsExactly(2L);
+    }
+}
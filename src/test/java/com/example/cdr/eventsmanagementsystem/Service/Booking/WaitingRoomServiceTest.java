@@ -0,0 +1,131 @@
+package com.example.cdr.eventsmanagementsystem.Service.Booking;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.ADMISSION_REQUIRED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.cdr.eventsmanagementsystem.Model.Booking.AdmissionStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.WaitingRoomTicket;
+import com.example.cdr.eventsmanagementsystem.Model.Event.Event;
+import com.example.cdr.eventsmanagementsystem.PostgresJpaTest;
+import com.example.cdr.eventsmanagementsystem.Repository.EventRepository;
+import com.example.cdr.eventsmanagementsystem.Repository.WaitingRoomTicketRepository;
+
+@Import(WaitingRoomService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WaitingRoomServiceTest extends PostgresJpaTest {
+    private static final String BUYER = "attendee-1";
+
+    @Autowired
+    private WaitingRoomService waitingRoomService;
+
+    @Autowired
+    private WaitingRoomTicketRepository ticketRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        signInAs(BUYER);
+        event = new Event();
+        event.setName("On-sale");
+        event.setDescription("Waiting room test");
+        event.setStartTime(LocalDateTime.now().plusDays(30));
+        event.setEndTime(LocalDateTime.now().plusDays(30).plusHours(4));
+        event.setWaitingRoomAdmitRate(60);
+        event = eventRepository.save(event);
+    }
+
+    @Test
+    void admissionCanBeSpentOnlyOnce() {
+        String token = ticket(BUYER, AdmissionStatus.ADMITTED, LocalDateTime.now().plusMinutes(10));
+
+        waitingRoomService.consumeAdmission(event, token);
+
+        assertThat(ticketRepository.findByToken(token).orElseThrow().getStatus()).isEqualTo(AdmissionStatus.USED);
+        assertThatThrownBy(() -> waitingRoomService.consumeAdmission(event, token))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(ADMISSION_REQUIRED);
+    }
+
+    @Test
+    void concurrentBookingsCannotShareAnAdmission() throws Exception {
+        String token = ticket(BUYER, AdmissionStatus.ADMITTED, LocalDateTime.now().plusMinutes(10));
+        Callable<Boolean> attempt = () -> {
+            signInAs(BUYER);
+            try {
+                waitingRoomService.consumeAdmission(event, token);
+                return true;
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        };
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            int admitted = 0;
+            for (Future<Boolean> result : pool.invokeAll(List.of(attempt, attempt, attempt, attempt, attempt, attempt, attempt, attempt))) {
+                admitted += result.get() ? 1 : 0;
+            }
+            assertThat(admitted).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectsExpiredWaitingAndForeignTickets() {
+        String expired = ticket(BUYER, AdmissionStatus.ADMITTED, LocalDateTime.now().minusMinutes(1));
+        String waiting = ticket(BUYER, AdmissionStatus.WAITING, null);
+        String foreign = ticket("attendee-2", AdmissionStatus.ADMITTED, LocalDateTime.now().plusMinutes(10));
+
+        for (String token : new String[] {expired, waiting, foreign, null}) {
+            assertThatThrownBy(() -> waitingRoomService.consumeAdmission(event, token))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage(ADMISSION_REQUIRED);
+        }
+        assertThat(ticketRepository.findByToken(foreign).orElseThrow().getStatus()).isEqualTo(AdmissionStatus.ADMITTED);
+    }
+
+    @Test
+    void failedBookingGivesBackAnOpenAdmission() {
+        String open = ticket(BUYER, AdmissionStatus.USED, LocalDateTime.now().plusMinutes(10));
+        String closed = ticket(BUYER, AdmissionStatus.USED, LocalDateTime.now().minusMinutes(1));
+
+        waitingRoomService.restoreAdmission(event, open);
+        waitingRoomService.restoreAdmission(event, closed);
+
+        assertThat(ticketRepository.findByToken(open).orElseThrow().getStatus()).isEqualTo(AdmissionStatus.ADMITTED);
+        assertThat(ticketRepository.findByToken(closed).orElseThrow().getStatus()).isEqualTo(AdmissionStatus.USED);
+        waitingRoomService.consumeAdmission(event, open);
+    }
+
+    private String ticket(String userId, AdmissionStatus status, LocalDateTime expiresAt) {
+        WaitingRoomTicket ticket = new WaitingRoomTicket();
+        ticket.setToken(UUID.randomUUID().toString());
+        ticket.setEventId(event.getId());
+        ticket.setUserId(userId);
+        ticket.setStatus(status);
+        ticket.setCreatedAt(LocalDateTime.now());
+        ticket.setExpiresAt(expiresAt);
+        return ticketRepository.save(ticket).getToken();
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.cdr.eventsmanagementsystem.Service.Booking;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.OngoingStubbing;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.example.cdr.eventsmanagementsystem.Config.AsyncConfig;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingType;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.EventBooking;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.WaitlistEntry;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.WaitlistStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Event.Event;
+import com.example.cdr.eventsmanagementsystem.Model.User.Attendee;
+import com.example.cdr.eventsmanagementsystem.PostgresJpaTest;
+import com.example.cdr.eventsmanagementsystem.Repository.EventBookingRepository;
+import com.example.cdr.eventsmanagementsystem.Repository.EventRepository;
+import com.example.cdr.eventsmanagementsystem.Repository.UsersRepository.AttendeeRepository;
+import com.example.cdr.eventsmanagementsystem.Repository.WaitlistEntryRepository;
+import com.example.cdr.eventsmanagementsystem.Service.Event.EventInventoryService;
+import com.example.cdr.eventsmanagementsystem.Service.Notifications.NotificationUtil;
+import com.example.cdr.eventsmanagementsystem.Service.Payment.StripeService;
+import com.example.cdr.eventsmanagementsystem.Util.BookingUtil;
+import com.stripe.model.checkout.Session;
+
+@Import({WaitlistService.class, EventInventoryService.class, AsyncConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WaitlistServiceTest extends PostgresJpaTest {
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private WaitlistEntryRepository waitlistRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventBookingRepository bookingRepository;
+
+    @Autowired
+    private AttendeeRepository attendeeRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockBean
+    private StripeService stripeService;
+
+    @MockBean
+    private BookingHoldService bookingHoldService;
+
+    @MockBean
+    private BookingUtil bookingUtil;
+
+    @MockBean
+    private NotificationUtil notificationUtil;
+
+    @BeforeEach
+    void setUp() {
+        signInAs("system");
+        when(bookingHoldService.newHoldDeadline()).thenReturn(LocalDateTime.now().plusMinutes(10));
+    }
+
+    @Test
+    void paidPromotionHoldsATicketAndSendsCheckout() {
+        Event event = event(new BigDecimal("25.00"));
+        WaitlistEntry entry = entry(event, attendee("attendee-1"));
+        Session session = new Session();
+        session.setId("cs_1");
+        session.setUrl("https://checkout.stripe.test/cs_1");
+        whenCheckoutOpened().thenReturn(session);
+
+        assertThat(waitlistService.promoteNext(event.getId())).isTrue();
+
+        WaitlistEntry offered = waitlistRepository.findById(entry.getId()).orElseThrow();
+        assertThat(offered.getStatus()).isEqualTo(WaitlistStatus.OFFERED);
+        EventBooking booking = bookingRepository.findById(offered.getBookingId()).orElseThrow();
+        assertThat(booking.getStatus()).isEqualTo(BookingStatus.PENDING);
+        assertThat(booking.getStripeSessionId()).isEqualTo("cs_1");
+        assertThat(booking.getCreatedBy()).isEqualTo("attendee-1");
+        assertThat(ticketsSold(event)).isEqualTo(1);
+        verify(bookingHoldService).track(any());
+    }
+
+    @Test
+    void freePromotionIsConfirmedWithoutStripe() {
+        Event event = event(null);
+        WaitlistEntry entry = entry(event, attendee("attendee-1"));
+
+        assertThat(waitlistService.promoteNext(event.getId())).isTrue();
+
+        WaitlistEntry accepted = waitlistRepository.findById(entry.getId()).orElseThrow();
+        assertThat(accepted.getStatus()).isEqualTo(WaitlistStatus.ACCEPTED);
+        assertThat(bookingRepository.findById(accepted.getBookingId()).orElseThrow().getStatus()).isEqualTo(BookingStatus.BOOKED);
+        verifyNoInteractions(stripeService, bookingHoldService);
+    }
+
+    @Test
+    void nothingIsOfferedWhileSoldOut() {
+        Event event = event(new BigDecimal("25.00"));
+        transactionTemplate.execute(status -> eventRepository.adjustTicketsSold(event.getId(), 1));
+        WaitlistEntry entry = entry(event, attendee("attendee-1"));
+
+        assertThat(waitlistService.promoteNext(event.getId())).isFalse();
+
+        WaitlistEntry waiting = waitlistRepository.findById(entry.getId()).orElseThrow();
+        assertThat(waiting.getStatus()).isEqualTo(WaitlistStatus.WAITING);
+        assertThat(waiting.getBookingId()).isNull();
+        assertThat(ticketsSold(event)).isEqualTo(1);
+    }
+
+    /** A head whose offer keeps failing backs off, so the entries behind it still get the ticket. */
+    @Test
+    void failedOfferBacksOffAndTheNextEntryIsServed() {
+        Event event = event(new BigDecimal("25.00"));
+        WaitlistEntry head = entry(event, attendee("attendee-1"));
+        WaitlistEntry next = entry(event, attendee("attendee-2"));
+        Session session = new Session();
+        session.setId("cs_2");
+        session.setUrl("https://checkout.stripe.test/cs_2");
+        whenCheckoutOpened().thenThrow(new IllegalStateException("Payment provider unavailable")).thenReturn(session);
+
+        assertThat(waitlistService.promoteNext(event.getId())).isFalse();
+
+        WaitlistEntry backingOff = waitlistRepository.findById(head.getId()).orElseThrow();
+        assertThat(backingOff.getStatus()).isEqualTo(WaitlistStatus.WAITING);
+        assertThat(backingOff.getAttempts()).isEqualTo(1);
+        assertThat(backingOff.getNextAttemptAt()).isAfter(LocalDateTime.now());
+        assertThat(backingOff.getBookingId()).isNull();
+        assertThat(ticketsSold(event)).isZero();
+
+        assertThat(waitlistService.promoteNext(event.getId())).isTrue();
+        assertThat(waitlistRepository.findById(next.getId()).orElseThrow().getStatus()).isEqualTo(WaitlistStatus.OFFERED);
+    }
+
+    @Test
+    void lastFailedAttemptGivesUpOnTheEntry() {
+        Event event = event(new BigDecimal("25.00"));
+        WaitlistEntry entry = entry(event, attendee("attendee-1"));
+        entry.setAttempts(4);
+        waitlistRepository.save(entry);
+        whenCheckoutOpened().thenThrow(new IllegalStateException("Payment provider unavailable"));
+
+        assertThat(waitlistService.promoteNext(event.getId())).isFalse();
+
+        WaitlistEntry failed = waitlistRepository.findById(entry.getId()).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(WaitlistStatus.FAILED);
+        assertThat(failed.getAttempts()).isEqualTo(5);
+    }
+
+    /** Two replicas promoting the same event must offer to different entries. */
+    @Test
+    void concurrentClaimsSkipALockedHead() throws Exception {
+        Event event = event(new BigDecimal("25.00"));
+        WaitlistEntry head = entry(event, attendee("attendee-1"));
+        WaitlistEntry next = entry(event, attendee("attendee-2"));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Long> first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            Long id = waitlistRepository.lockNextWaiting(event.getId(), LocalDateTime.now()).orElseThrow().getId();
+            locked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return id;
+        }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        Long second = transactionTemplate.execute(status ->
+                waitlistRepository.lockNextWaiting(event.getId(), LocalDateTime.now()).orElseThrow().getId());
+        release.countDown();
+
+        assertThat(first.get()).isEqualTo(head.getId());
+        assertThat(second).isEqualTo(next.getId());
+    }
+
+    private OngoingStubbing<Session> whenCheckoutOpened() {
+        return when(stripeService.createCheckoutSession(anyString(), any(), anyString(), anyString(), anyLong(),
+                anyString(), anyBoolean(), any(BookingType.class)));
+    }
+
+    private Event event(BigDecimal retailPrice) {
+        Event event = new Event();
+        event.setName("Sold-out show");
+        event.setDescription("Waitlist test");
+        event.setStartTime(LocalDateTime.now().plusDays(30));
+        event.setEndTime(LocalDateTime.now().plusDays(30).plusHours(4));
+        event.setCapacity(1);
+        event.setRetailPrice(retailPrice);
+        return eventRepository.save(event);
+    }
+
+    private Attendee attendee(String id) {
+        Attendee attendee = new Attendee();
+        attendee.setId(id);
+        attendee.setFirstName("Test");
+        attendee.setLastName(id);
+        attendee.setEmail(id + "@example.com");
+        attendee.setStripeCustomerId("cus_" + id);
+        return attendeeRepository.save(attendee);
+    }
+
+    private WaitlistEntry entry(Event event, Attendee attendee) {
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setEventId(event.getId());
+        entry.setUserId(attendee.getId());
+        entry.setCurrency("usd");
+        entry.setStatus(WaitlistStatus.WAITING);
+        entry.setCreatedAt(LocalDateTime.now());
+        return waitlistRepository.save(entry);
+    }
+
+    private int ticketsSold(Event event) {
+        return eventRepository.findById(event.getId()).orElseThrow().getTicketsSold();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.cdr.eventsmanagementsystem.Service.Event;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.EVENT_SOLD_OUT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.EventBooking;
+import com.example.cdr.eventsmanagementsystem.Model.Event.Event;
+import com.example.cdr.eventsmanagementsystem.PostgresJpaTest;
+import com.example.cdr.eventsmanagementsystem.Repository.EventRepository;
+
+@Import(EventInventoryService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EventInventoryServiceTest extends PostgresJpaTest {
+
+    @Autowired
+    private EventInventoryService eventInventoryService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @BeforeEach
+    void setUp() {
+        signInAs("organizer-1");
+    }
+
+    @Test
+    void reserveStopsAtCapacity() {
+        Event event = event(2);
+
+        eventInventoryService.reserve(booking(event));
+        eventInventoryService.reserve(booking(event));
+
+        assertThatThrownBy(() -> eventInventoryService.reserve(booking(event)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(EVENT_SOLD_OUT);
+        assertThat(ticketsSold(event)).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentBuyersNeverOversell() throws Exception {
+        Event event = event(5);
+        int buyers = 20;
+
+        ExecutorService pool = Executors.newFixedThreadPool(buyers);
+        try {
+            List<Callable<Boolean>> attempts = new ArrayList<>();
+            for (int i = 0; i < buyers; i++) {
+                attempts.add(() -> eventInventoryService.tryReserve(booking(event)));
+            }
+            int sold = 0;
+            for (Future<Boolean> attempt : pool.invokeAll(attempts)) {
+                sold += attempt.get() ? 1 : 0;
+            }
+
+            assertThat(sold).isEqualTo(5);
+            assertThat(ticketsSold(event)).isEqualTo(5);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void syncDoesNotRetakeATicketPastCapacity() {
+        Event event = event(1);
+        eventInventoryService.reserve(booking(event));
+
+        EventBooking late = booking(event);
+        late.setStatus(BookingStatus.BOOKED);
+
+        assertThatThrownBy(() -> eventInventoryService.sync(late))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(EVENT_SOLD_OUT);
+        assertThat(late.isTicketHeld()).isFalse();
+        assertThat(ticketsSold(event)).isEqualTo(1);
+    }
+
+    @Test
+    void syncReleasesOnceHoweverOftenItRuns() {
+        Event event = event(1);
+        EventBooking booking = booking(event);
+        eventInventoryService.reserve(booking);
+
+        booking.setStatus(BookingStatus.CANCELLED);
+        eventInventoryService.sync(booking, false);
+        eventInventoryService.sync(booking, false);
+
+        assertThat(booking.isTicketHeld()).isFalse();
+        assertThat(ticketsSold(event)).isZero();
+    }
+
+    private Event event(Integer capacity) {
+        Event event = new Event();
+        event.setName("Launch party");
+        event.setDescription("Inventory test");
+        event.setStartTime(LocalDateTime.now().plusDays(30));
+        event.setEndTime(LocalDateTime.now().plusDays(30).plusHours(4));
+        event.setCapacity(capacity);
+        return eventRepository.save(event);
+    }
+
+    private EventBooking booking(Event event) {
+        EventBooking booking = new EventBooking();
+        booking.setEventId(event.getId());
+        booking.setStatus(BookingStatus.PENDING);
+        return booking;
+    }
+
+    private int ticketsSold(Event event) {
+        return eventRepository.findById(event.getId()).orElseThrow().getTicketsSold();
+    }
+}
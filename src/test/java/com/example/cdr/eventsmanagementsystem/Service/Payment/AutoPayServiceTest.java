@@ -0,0 +1,171 @@
+package com.example.cdr.eventsmanagementsystem.Service.Payment;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.OngoingStubbing;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.AUTOPAY_OUTCOME_UNKNOWN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.example.cdr.eventsmanagementsystem.Constants.RefundConstants;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingType;
+import com.example.cdr.eventsmanagementsystem.Model.User.Attendee;
+import com.example.cdr.eventsmanagementsystem.Util.BookingUtil;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.CardException;
+import com.stripe.model.PaymentIntent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/** Checkout is only a safe fallback when the card was definitely not charged. */
+class AutoPayServiceTest {
+    private static final long BOOKING_ID = 7L;
+    private static final String IDEMPOTENCY_KEY = "autopay:EVENT:7";
+
+    private final StripeService stripeService = mock(StripeService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AutoPayService autoPayService;
+    private Attendee payer;
+
+    @BeforeEach
+    void setUp() {
+        autoPayService = new AutoPayService(stripeService, mock(BookingUtil.class), meterRegistry);
+        ReflectionTestUtils.setField(autoPayService, "outcomeRetries", 2);
+        ReflectionTestUtils.setField(autoPayService, "outcomeRetryBackoff", Duration.ZERO);
+        payer = new Attendee();
+        payer.setStripeCustomerId("cus_1");
+        payer.setDefaultPaymentMethodId("pm_1");
+        payer.setAutoPayEnabled(true);
+    }
+
+    @Test
+    void skipsPayersWithoutAutoPay() {
+        payer.setAutoPayEnabled(false);
+
+        assertThat(charge()).isEmpty();
+        verifyNoInteractions(stripeService);
+    }
+
+    @Test
+    void returnsASettledIntent() {
+        whenCharged().thenReturn(intent("pi_1", "succeeded"));
+
+        assertThat(charge()).map(PaymentIntent::getId).contains("pi_1");
+        assertThat(count("paid")).isEqualTo(1);
+    }
+
+    @Test
+    void declineFallsBackToCheckout() {
+        whenCharged().thenThrow(new RuntimeException(
+                new CardException("Your card was declined", "req_1", "card_declined", null, "generic_decline", null, 402, null)));
+
+        assertThat(charge()).isEmpty();
+        assertThat(count("declined")).isEqualTo(1);
+    }
+
+    @Test
+    void gatewayRejectionFallsBackToCheckout() {
+        whenCharged().thenThrow(new IllegalStateException("Payment provider unavailable"));
+
+        assertThat(charge()).isEmpty();
+        assertThat(count("unavailable")).isEqualTo(1);
+    }
+
+    @Test
+    void requiresActionCancelsTheIntentAndFallsBackToCheckout() {
+        whenCharged().thenReturn(intent("pi_1", "requires_action"));
+
+        assertThat(charge()).isEmpty();
+        verify(stripeService).cancelPaymentIntent("pi_1", "abandoned");
+    }
+
+    @Test
+    void ambiguousFailureIsReplayedUnderTheSameKey() {
+        whenCharged()
+                .thenThrow(new RuntimeException(new ApiConnectionException("Read timed out")))
+                .thenReturn(intent("pi_1", "requires_capture"));
+
+        assertThat(charge()).map(PaymentIntent::getId).contains("pi_1");
+        verify(stripeService, times(2)).createOffSessionPaymentIntent(any(), anyString(), anyString(), anyString(),
+                anyBoolean(), anyString(), anyLong(), any(), eq(IDEMPOTENCY_KEY));
+    }
+
+    /** Once a call may have reached Stripe, a later gateway rejection is no longer proof of "not charged". */
+    @Test
+    void unknownOutcomeFailsInsteadOfOpeningCheckout() {
+        whenCharged()
+                .thenThrow(new RuntimeException(new ApiConnectionException("Read timed out")))
+                .thenThrow(new IllegalStateException("Payment provider unavailable"));
+
+        assertThatThrownBy(this::charge)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage(AUTOPAY_OUTCOME_UNKNOWN);
+        verify(stripeService, times(3)).createOffSessionPaymentIntent(any(), anyString(), anyString(), anyString(),
+                anyBoolean(), anyString(), anyLong(), any(), eq(IDEMPOTENCY_KEY));
+        assertThat(count("unknown")).isEqualTo(1);
+    }
+
+    @Test
+    void reverseVoidsAnAuthorization() {
+        autoPayService.reverse(intent("pi_1", "requires_capture"));
+
+        verify(stripeService).cancelPaymentIntent("pi_1", "abandoned");
+        verify(stripeService, never()).createRefund(anyString(), any(), anyString());
+    }
+
+    @Test
+    void reverseRefundsACapturedPayment() {
+        autoPayService.reverse(intent("pi_1", "succeeded"));
+
+        verify(stripeService).createRefund(eq("pi_1"), isNull(), eq(RefundConstants.REQUESTED_BY_CUSTOMER));
+        assertThat(count("reversed")).isEqualTo(1);
+    }
+
+    @Test
+    void failedReversalIsRecordedNotThrown() {
+        doThrow(new RuntimeException("Stripe down")).when(stripeService).createRefund(anyString(), any(), anyString());
+
+        autoPayService.reverse(intent("pi_1", "succeeded"));
+
+        assertThat(count("reverse_failed")).isEqualTo(1);
+    }
+
+    private Optional<PaymentIntent> charge() {
+        return autoPayService.tryCharge(payer, BOOKING_ID, BookingType.EVENT, new BigDecimal("25.00"), "usd", false, "Ticket");
+    }
+
+    private OngoingStubbing<PaymentIntent> whenCharged() {
+        return when(stripeService.createOffSessionPaymentIntent(any(), anyString(), anyString(), anyString(),
+                anyBoolean(), anyString(), anyLong(), any(), anyString()));
+    }
+
+    private static PaymentIntent intent(String id, String status) {
+        PaymentIntent intent = new PaymentIntent();
+        intent.setId(id);
+        intent.setStatus(status);
+        return intent;
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter("payment.autopay", "result", result).count();
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.cdr.eventsmanagementsystem.Service.Payment;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.IDEMPOTENCY_KEY_IN_PROGRESS;
+import static com.example.cdr.eventsmanagementsystem.Constants.ExceptionConstants.IDEMPOTENCY_KEY_REUSED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.cdr.eventsmanagementsystem.Model.Payment.IdempotencyRecord;
+import com.example.cdr.eventsmanagementsystem.Model.Payment.IdempotencyStatus;
+import com.example.cdr.eventsmanagementsystem.PostgresJpaTest;
+import com.example.cdr.eventsmanagementsystem.Repository.IdempotencyRecordRepository;
+
+@Import(IdempotencyService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyServiceTest extends PostgresJpaTest {
+    private static final String USER = "attendee-1";
+    private static final String SCOPE = "event-booking.create";
+
+    record Receipt(Long bookingId, String status) {}
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        signInAs(USER);
+    }
+
+    @Test
+    void replaysTheStoredResponseWithoutRunningAgain() {
+        String key = UUID.randomUUID().toString();
+
+        Receipt first = idempotencyService.execute(key, SCOPE, Map.of("eventId", 1), Receipt.class, this::book);
+        Receipt replay = idempotencyService.execute(key, SCOPE, Map.of("eventId", 1), Receipt.class, this::book);
+
+        assertThat(replay).isEqualTo(first);
+        assertThat(runs).hasValue(1);
+        IdempotencyRecord record = idempotencyRecordRepository.findById(id(key)).orElseThrow();
+        assertThat(record.getStatus()).isEqualTo(IdempotencyStatus.COMPLETED);
+        assertThat(record.getLockedUntil()).isNull();
+    }
+
+    @Test
+    void rejectsAKeyReusedForADifferentRequest() {
+        String key = UUID.randomUUID().toString();
+        idempotencyService.execute(key, SCOPE, Map.of("eventId", 1), Receipt.class, this::book);
+
+        assertThatThrownBy(() -> idempotencyService.execute(key, SCOPE, Map.of("eventId", 2), Receipt.class, this::book))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(IDEMPOTENCY_KEY_REUSED);
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void failedAttemptReleasesTheKey() {
+        String key = UUID.randomUUID().toString();
+
+        assertThatThrownBy(() -> idempotencyService.execute(key, SCOPE, Map.of("eventId", 1), Receipt.class, () -> {
+            throw new IllegalStateException("Stripe unavailable");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(idempotencyRecordRepository.findById(id(key))).isEmpty();
+        idempotencyService.execute(key, SCOPE, Map.of("eventId", 1), Receipt.class, this::book);
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void liveClaimBlocksAConcurrentRetry() {
+        String key = UUID.randomUUID().toString();
+        inProgress(key, LocalDateTime.now().plusMinutes(1));
+
+        assertThatThrownBy(() -> idempotencyService.execute(key, SCOPE, Map.of("eventId", 1), Receipt.class, this::book))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessage(IDEMPOTENCY_KEY_IN_PROGRESS);
+        assertThat(runs).hasValue(0);
+    }
+
+    @Test
+    void abandonedClaimIsTakenOverOnceItsLeasePasses() {
+        String key = UUID.randomUUID().toString();
+        inProgress(key, LocalDateTime.now().minusSeconds(1));
+
+        Receipt receipt = idempotencyService.execute(key, SCOPE, Map.of("eventId", 1), Receipt.class, this::book);
+
+        assertThat(receipt.status()).isEqualTo("BOOKED");
+        assertThat(runs).hasValue(1);
+        assertThat(idempotencyRecordRepository.findById(id(key)).orElseThrow().getStatus()).isEqualTo(IdempotencyStatus.COMPLETED);
+    }
+
+    @Test
+    void staleRequestCannotCompleteAKeyTakenOverByARetry() {
+        String key = UUID.randomUUID().toString();
+        LocalDateTime firstClaim = LocalDateTime.now().minusMinutes(5).withNano(0);
+        inProgress(key, firstClaim, firstClaim.plusMinutes(2));
+        idempotencyService.execute(key, SCOPE, Map.of("eventId", 1), Receipt.class, this::book);
+
+        Integer completed = transactionTemplate.execute(status ->
+                idempotencyRecordRepository.complete(id(key), firstClaim, Receipt.class.getName(), "{}"));
+
+        assertThat(completed).isZero();
+    }
+
+    private Receipt book() {
+        return new Receipt((long) runs.incrementAndGet(), "BOOKED");
+    }
+
+    private void inProgress(String key, LocalDateTime lockedUntil) {
+        inProgress(key, LocalDateTime.now(), lockedUntil);
+    }
+
+    private void inProgress(String key, LocalDateTime claimedAt, LocalDateTime lockedUntil) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setId(id(key));
+        // placeholder: an IN_PROGRESS row is judged by its lease, never by its hash
+        record.setRequestHash("0".repeat(64));
+        record.setStatus(IdempotencyStatus.IN_PROGRESS);
+        record.setCreatedAt(claimedAt);
+        record.setExpiresAt(claimedAt.plusHours(24));
+        record.setLockedUntil(lockedUntil);
+        idempotencyRecordRepository.save(record);
+    }
+
+    private String id(String key) {
+        return USER + ":" + SCOPE + ":" + key;
+    }
+}
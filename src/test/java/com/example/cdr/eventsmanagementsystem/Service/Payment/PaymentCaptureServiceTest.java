@@ -0,0 +1,176 @@
+package com.example.cdr.eventsmanagementsystem.Service.Payment;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingStatus;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.BookingType;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.EventBooking;
+import com.example.cdr.eventsmanagementsystem.Model.Booking.PaymentStatus;
+import com.example.cdr.eventsmanagementsystem.NotificationEvent.Payment.BookingPaymentFailed;
+import com.example.cdr.eventsmanagementsystem.Repository.EventBookingRepository;
+import com.example.cdr.eventsmanagementsystem.Repository.PaymentCaptureCheckpointRepository;
+import com.example.cdr.eventsmanagementsystem.Repository.ServiceBookingRepository;
+import com.example.cdr.eventsmanagementsystem.Repository.VenueBookingRepository;
+import com.example.cdr.eventsmanagementsystem.Service.Notifications.NotificationUtil;
+import com.example.cdr.eventsmanagementsystem.Util.BookingUtil;
+import com.stripe.exception.CardException;
+import com.stripe.model.PaymentIntent;
+
+/** Settling a page must never apply a Stripe result to a booking that moved on meanwhile. */
+class PaymentCaptureServiceTest {
+    private static final long BOOKING_ID = 7L;
+    private static final LocalDateTime CAPTURE_BEFORE = LocalDateTime.now().plusDays(1);
+
+    private final PaymentCaptureCheckpointRepository checkpointRepository = mock(PaymentCaptureCheckpointRepository.class);
+    private final BookingUtil bookingUtil = mock(BookingUtil.class);
+    private final StripeService stripeService = mock(StripeService.class);
+    private final NotificationUtil notificationUtil = mock(NotificationUtil.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private PaymentCaptureService captureService;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        captureService = new PaymentCaptureService(checkpointRepository, mock(EventBookingRepository.class),
+                mock(VenueBookingRepository.class), mock(ServiceBookingRepository.class), bookingUtil, stripeService,
+                notificationUtil, eventPublisher, transactionTemplate);
+    }
+
+    @Test
+    void capturesABookingAboutToStart() {
+        EventBooking booking = authorized("pi_1", CAPTURE_BEFORE.minusHours(1));
+        when(stripeService.capturePaymentIntent("pi_1", null)).thenReturn(intent("pi_1", "succeeded"));
+
+        assertThat(settle()).isEqualTo(PaymentCaptureService.Outcome.CAPTURED);
+
+        assertThat(booking.getPaymentStatus()).isEqualTo(PaymentStatus.CAPTURED);
+        assertThat(booking.getStatus()).isEqualTo(BookingStatus.BOOKED);
+        verify(bookingUtil).saveBooking(booking);
+    }
+
+    @Test
+    void skipsABookingNoLongerAuthorized() {
+        EventBooking booking = authorized("pi_1", CAPTURE_BEFORE.minusHours(1));
+        booking.setPaymentStatus(PaymentStatus.CAPTURED);
+
+        assertThat(settle()).isEqualTo(PaymentCaptureService.Outcome.SKIPPED);
+        verifyNoInteractions(stripeService);
+    }
+
+    @Test
+    void captureIsNotAppliedToABookingThatChangedMeanwhile() {
+        EventBooking booking = authorized("pi_1", CAPTURE_BEFORE.minusHours(1));
+        when(stripeService.capturePaymentIntent("pi_1", null)).thenAnswer(invocation -> {
+            booking.setPaymentStatus(PaymentStatus.REFUNDED);
+            return intent("pi_1", "succeeded");
+        });
+
+        assertThat(settle()).isEqualTo(PaymentCaptureService.Outcome.SKIPPED);
+        verify(bookingUtil, never()).saveBooking(any());
+    }
+
+    @Test
+    void renewsAnExpiringHoldAndCancelsTheOldOneAfterwards() {
+        EventBooking booking = authorized("pi_old", CAPTURE_BEFORE.plusDays(5));
+        when(stripeService.retrievePaymentIntent("pi_old")).thenReturn(saved("pi_old"));
+        when(stripeService.createOffSessionPaymentIntent(any(), anyString(), anyString(), anyString(), eq(true),
+                anyString(), anyLong(), any(), eq("reauthorize:pi_old"))).thenReturn(intent("pi_new", "requires_capture"));
+
+        assertThat(settle()).isEqualTo(PaymentCaptureService.Outcome.REAUTHORIZED);
+
+        assertThat(booking.getStripePaymentId()).isEqualTo("pi_new");
+        assertThat(booking.getPaymentStatus()).isEqualTo(PaymentStatus.AUTHORIZED);
+        InOrder order = inOrder(bookingUtil, stripeService);
+        order.verify(bookingUtil).saveBooking(booking);
+        order.verify(stripeService).cancelPaymentIntent("pi_old", "duplicate");
+    }
+
+    @Test
+    void declinedRenewalFlagsTheBooking() {
+        EventBooking booking = authorized("pi_old", CAPTURE_BEFORE.plusDays(5));
+        when(stripeService.retrievePaymentIntent("pi_old")).thenReturn(saved("pi_old"));
+        when(stripeService.createOffSessionPaymentIntent(any(), anyString(), anyString(), anyString(), eq(true),
+                anyString(), anyLong(), any(), anyString())).thenThrow(new RuntimeException(
+                new CardException("Your card was declined", "req_1", "card_declined", null, "generic_decline", null, 402, null)));
+
+        assertThat(settle()).isEqualTo(PaymentCaptureService.Outcome.FLAGGED);
+
+        assertThat(booking.getPaymentStatus()).isEqualTo(PaymentStatus.REQUIRES_ACTION);
+        verify(eventPublisher).publishEvent(any(BookingPaymentFailed.class));
+    }
+
+    @Test
+    void renewalNeedingTheCardHolderIsCancelledAndFlagged() {
+        authorized("pi_old", CAPTURE_BEFORE.plusDays(5));
+        when(stripeService.retrievePaymentIntent("pi_old")).thenReturn(saved("pi_old"));
+        when(stripeService.createOffSessionPaymentIntent(any(), anyString(), anyString(), anyString(), eq(true),
+                anyString(), anyLong(), any(), anyString())).thenReturn(intent("pi_new", "requires_action"));
+
+        assertThat(settle()).isEqualTo(PaymentCaptureService.Outcome.FLAGGED);
+
+        verify(stripeService).cancelPaymentIntent("pi_new", "duplicate");
+        verify(stripeService, never()).cancelPaymentIntent("pi_old", "duplicate");
+    }
+
+    @Test
+    void advanceFailsOnceTheLeaseIsLost() {
+        when(checkpointRepository.advance(eq(BookingType.EVENT.name()), anyString(), eq(10L), any(), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> captureService.advance(BookingType.EVENT, 10, Duration.ofMinutes(5)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private PaymentCaptureService.Outcome settle() {
+        return captureService.settle(BookingType.EVENT, BOOKING_ID, CAPTURE_BEFORE);
+    }
+
+    private EventBooking authorized(String intentId, LocalDateTime startTime) {
+        EventBooking booking = new EventBooking();
+        booking.setId(BOOKING_ID);
+        booking.setStatus(BookingStatus.PENDING);
+        booking.setPaymentStatus(PaymentStatus.AUTHORIZED);
+        booking.setStripePaymentId(intentId);
+        booking.setStartTime(startTime);
+        when(bookingUtil.findBookingByTypeAndId(BOOKING_ID, BookingType.EVENT)).thenReturn(booking);
+        return booking;
+    }
+
+    private static PaymentIntent saved(String id) {
+        PaymentIntent intent = intent(id, "requires_capture");
+        intent.setAmount(2500L);
+        intent.setCurrency("usd");
+        intent.setCustomer("cus_1");
+        intent.setPaymentMethod("pm_1");
+        return intent;
+    }
+
+    private static PaymentIntent intent(String id, String status) {
+        PaymentIntent intent = new PaymentIntent();
+        intent.setId(id);
+        intent.setStatus(status);
+        return intent;
+    }
+}